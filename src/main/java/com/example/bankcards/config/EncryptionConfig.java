@@ -0,0 +1,20 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.util.encryption.EncryptionKeyRing;
+import com.example.bankcards.util.encryption.EncryptionProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Builds the card number encryption key ring from {@code app.encryption.*}.
+ */
+@Configuration
+@EnableConfigurationProperties(EncryptionProperties.class)
+public class EncryptionConfig {
+
+    @Bean
+    public EncryptionKeyRing encryptionKeyRing(EncryptionProperties properties) {
+        return new EncryptionKeyRing(properties);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.bankcards.config;
+
+import com.example.bankcards.config.datasource.ReadYourWritesRegistry;
+import com.example.bankcards.config.datasource.ReplicaDataSourceProperties;
+import com.example.bankcards.config.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * With {@code app.datasource.replica.enabled=true}, replaces the auto-configured data source with
+ * two pools, one for the primary ({@code spring.datasource.*}) and one for the replica
+ * ({@code app.datasource.replica.*}), behind a {@link ReplicaRoutingDataSource}.
+ * Both pools may point at the same database, e.g. locally or in tests.
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(ReplicaDataSourceProperties.class)
+public class ReadReplicaDataSourceConfig {
+    /**
+     * The replica connections report this name in {@code pg_stat_activity}.
+     */
+    public static final String REPLICA_APPLICATION_NAME = "bank-replica";
+
+    @Bean
+    @ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+    public HikariDataSource replicaDataSource(ReplicaDataSourceProperties properties) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setJdbcUrl(properties.url());
+        dataSource.setUsername(properties.username());
+        dataSource.setPassword(properties.password());
+        dataSource.setMaximumPoolSize(properties.maximumPoolSize());
+        dataSource.setReadOnly(true);
+        dataSource.addDataSourceProperty("ApplicationName", REPLICA_APPLICATION_NAME);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+    public DataSource dataSource(HikariDataSource primaryDataSource, HikariDataSource replicaDataSource,
+                                 ReadYourWritesRegistry readYourWritesRegistry) {
+        log.info("READ_REPLICA_ROUTING_ENABLED: [replicaUrl={}].", replicaDataSource.getJdbcUrl());
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(
+                primaryDataSource, replicaDataSource, readYourWritesRegistry::isPrimaryRequired));
+    }
+}
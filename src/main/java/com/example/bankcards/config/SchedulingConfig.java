@@ -0,0 +1,12 @@
+package com.example.bankcards.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables the background maintenance jobs in the {@code scheduler} package.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
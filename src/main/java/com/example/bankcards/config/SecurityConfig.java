@@ -1,9 +1,12 @@
 package com.example.bankcards.config;
 
+import com.example.bankcards.security.impl.BCryptPasswordEncoderFactory;
+import com.example.bankcards.security.impl.BoundedPasswordEncoder;
 import com.example.bankcards.security.impl.CustomAccessDeniedHandler;
 import com.example.bankcards.security.impl.JwtAuthEntryPoint;
 import com.example.bankcards.security.impl.JwtAuthFilter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -13,11 +16,12 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.time.Duration;
+
 
 @Configuration
 @EnableWebSecurity
@@ -28,32 +32,57 @@ public class SecurityConfig {
     private final JwtAuthEntryPoint unauthorizedHandler;
     private final CustomAccessDeniedHandler accessDeniedHandler;
 
+    /**
+     * Actuator endpoints other than health require ADMIN. With {@code app.metrics.prometheus.public=true},
+     * {@code /actuator/prometheus} is open so that a scraper without a JWT can read it.
+     */
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http,
+                                           @Value("${app.metrics.prometheus.public:false}") boolean publicPrometheus) throws Exception {
         http
                 .csrf(AbstractHttpConfigurer::disable)
                 .exceptionHandling(exception ->  exception
                         .authenticationEntryPoint(unauthorizedHandler)
                         .accessDeniedHandler(accessDeniedHandler))
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-                .authorizeHttpRequests(auth -> auth
-                        .requestMatchers(
-                                "/api/auth/**",
-                                "/v3/api-docs/**",
-                                "/docs/openapi.yaml",
-                                "/swagger-ui/**",
-                                "/swagger-ui.html",
-                                "/api-docs/**").permitAll()
-                        .anyRequest().authenticated()
-                )
+                .authorizeHttpRequests(auth -> {
+                    auth.requestMatchers(
+                            "/api/auth/**",
+                            "/v3/api-docs/**",
+                            "/docs/openapi.yaml",
+                            "/swagger-ui/**",
+                            "/swagger-ui.html",
+                            "/api-docs/**",
+                            "/actuator/health").permitAll();
+                    if (publicPrometheus) {
+                        auth.requestMatchers("/actuator/prometheus").permitAll();
+                    }
+                    auth.requestMatchers("/actuator/**").hasRole("ADMIN")
+                            .anyRequest().authenticated();
+                })
                 .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
     }
 
+    /**
+     * Passwords are hashed with BCrypt through {@link BCryptPasswordEncoderFactory#create(int)}. With calibration
+     * enabled, the work factor is measured at startup against the target latency and never falls below the
+     * configured strength. Hashing runs on a dedicated bounded pool, see {@link BoundedPasswordEncoder}.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${app.security.password-hashing.bcrypt.strength:10}") int strength,
+                                           @Value("${app.security.password-hashing.bcrypt.calibration.enabled:false}") boolean calibrate,
+                                           @Value("${app.security.password-hashing.bcrypt.calibration.target-latency-ms:250}") long targetLatencyMs,
+                                           @Value("${app.security.password-hashing.bcrypt.calibration.max-strength:14}") int maxStrength,
+                                           @Value("${app.security.password-hashing.cpu-share:0.5}") double cpuShare,
+                                           @Value("${app.security.password-hashing.queue-capacity:64}") int queueCapacity,
+                                           @Value("${app.security.password-hashing.retry-after-seconds:1}") long retryAfterSeconds) {
+        int effectiveStrength = calibrate
+                ? BCryptPasswordEncoderFactory.calibrateStrength(strength, maxStrength, Duration.ofMillis(targetLatencyMs))
+                : strength;
+        return new BoundedPasswordEncoder(BCryptPasswordEncoderFactory.create(effectiveStrength),
+                BoundedPasswordEncoder.threadsForCpuShare(cpuShare), queueCapacity, retryAfterSeconds);
     }
 
     @Bean
@@ -0,0 +1,68 @@
+package com.example.bankcards.config.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Keeps the reads of a user on the primary for a short time after the user has written.
+ * <p>
+ * A write pins the user for {@code app.datasource.replica.read-your-writes-ms}, which should exceed the
+ * replication lag. {@link com.example.bankcards.filter.ReadYourWritesFilter} marks every request of a pinned
+ * user, and {@link ReplicaRoutingDataSource} then routes its read-only transactions to the primary, so the
+ * user never sees a balance older than their own transfer. Pins are local to one instance.
+ */
+@Component
+public class ReadYourWritesRegistry {
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private final Cache<UUID, Boolean> pinnedUsers;
+
+    public ReadYourWritesRegistry(ReplicaDataSourceProperties properties) {
+        this.pinnedUsers = properties.enabled()
+                ? Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(properties.readYourWritesMs()))
+                .build()
+                : null;
+    }
+
+    /**
+     * Pins the user to the primary after a committed write. The rest of the current request is pinned as well.
+     *
+     * @param userId The ID of the user who has written.
+     */
+    public void pin(UUID userId) {
+        if (pinnedUsers != null) {
+            pinnedUsers.put(userId, Boolean.TRUE);
+            PRIMARY_REQUIRED.set(Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Marks the current request as primary-only if its user is pinned.
+     *
+     * @param userId The ID of the authenticated user, or null for anonymous requests.
+     */
+    public void beginRequest(UUID userId) {
+        if (pinnedUsers != null && userId != null && pinnedUsers.getIfPresent(userId) != null) {
+            PRIMARY_REQUIRED.set(Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Clears the mark of the current request.
+     */
+    public void endRequest() {
+        PRIMARY_REQUIRED.remove();
+    }
+
+    /**
+     * @return true if read-only transactions of the current request must use the primary.
+     */
+    public boolean isPrimaryRequired() {
+        return Boolean.TRUE.equals(PRIMARY_REQUIRED.get());
+    }
+}
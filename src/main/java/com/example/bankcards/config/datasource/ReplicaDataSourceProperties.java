@@ -0,0 +1,26 @@
+package com.example.bankcards.config.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Connection settings of the read replica.
+ *
+ * @param enabled          Whether read-only transactions are routed to the replica.
+ * @param url              The JDBC URL of the replica.
+ * @param username         The database user.
+ * @param password         The database password.
+ * @param maximumPoolSize  The size of the replica connection pool.
+ * @param readYourWritesMs How long reads of a user who has just written are kept on the primary.
+ *                         Should exceed the usual replication lag.
+ */
+@ConfigurationProperties(prefix = "app.datasource.replica")
+public record ReplicaDataSourceProperties(
+        @DefaultValue("false") boolean enabled,
+        String url,
+        String username,
+        String password,
+        @DefaultValue("10") int maximumPoolSize,
+        @DefaultValue("5000") long readYourWritesMs
+) {
+}
@@ -0,0 +1,47 @@
+package com.example.bankcards.config.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Sends read-only transactions to the replica and everything else to the primary.
+ * <p>
+ * The route is decided when a connection is fetched, so this data source must be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the JPA transaction manager
+ * asks for the connection before the read-only flag of the transaction is published.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    /**
+     * The target data sources.
+     */
+    public enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final BooleanSupplier primaryRequired;
+
+    /**
+     * @param primary         The primary data source.
+     * @param replica         The replica data source.
+     * @param primaryRequired Whether the current request must read from the primary (read-your-writes).
+     */
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, BooleanSupplier primaryRequired) {
+        this.primaryRequired = primaryRequired;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Route determineCurrentLookupKey() {
+        boolean readOnly = TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        return readOnly && !primaryRequired.getAsBoolean() ? Route.REPLICA : Route.PRIMARY;
+    }
+}
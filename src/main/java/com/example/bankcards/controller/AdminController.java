@@ -4,7 +4,9 @@ import com.example.bankcards.dto.request.CreateCardRequest;
 import com.example.bankcards.dto.request.UpdateProfileRequest;
 import com.example.bankcards.dto.request.UpdateUserRolesRequest;
 import com.example.bankcards.dto.response.CardResponse;
+import com.example.bankcards.dto.response.CursorPage;
 import com.example.bankcards.dto.response.PagedResponse;
+import com.example.bankcards.dto.response.UserCacheStatsResponse;
 import com.example.bankcards.dto.response.UserDetailResponse;
 import com.example.bankcards.dto.response.UserResponseDto;
 import com.example.bankcards.entity.enums.CardStatus;
@@ -25,6 +27,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 
 import java.util.UUID;
@@ -47,6 +50,24 @@ public interface AdminController {
     @GetMapping("/cards/status/{status}")
     ResponseEntity<PagedResponse<CardResponse>> getCardsByStatus(@Parameter(description = "Card status") @PathVariable CardStatus status, Pageable pageable);
 
+    @Operation(summary = "Scroll all cards in the system",
+            description = "Returns all cards, including inactive, ordered by expiration date, without totals. Pass next_cursor from the previous page to get the next one.")
+    @GetMapping("/cards/scroll")
+    ResponseEntity<CursorPage<CardResponse>> scrollAllCards(@Parameter(description = "Cursor returned with the previous page") @RequestParam(required = false) String cursor,
+                                                            @Parameter(description = "Page size, at most 100") @RequestParam(defaultValue = "20") int size);
+
+    @Operation(summary = "Scroll all cards for a specific user", description = "Keyset-paginated variant of the user's card list, without totals.")
+    @GetMapping("/users/{userId}/cards/scroll")
+    ResponseEntity<CursorPage<CardResponse>> scrollAllCardsForUser(@Parameter(description = "ID of the user") @PathVariable UUID userId,
+                                                                   @Parameter(description = "Cursor returned with the previous page") @RequestParam(required = false) String cursor,
+                                                                   @Parameter(description = "Page size, at most 100") @RequestParam(defaultValue = "20") int size);
+
+    @Operation(summary = "Scroll cards by status", description = "Keyset-paginated variant of the cards-by-status list, without totals.")
+    @GetMapping("/cards/status/{status}/scroll")
+    ResponseEntity<CursorPage<CardResponse>> scrollCardsByStatus(@Parameter(description = "Card status") @PathVariable CardStatus status,
+                                                                 @Parameter(description = "Cursor returned with the previous page") @RequestParam(required = false) String cursor,
+                                                                 @Parameter(description = "Page size, at most 100") @RequestParam(defaultValue = "20") int size);
+
     @Operation(summary = "Create a new card for a user")
     @PostMapping("/cards")
     ResponseEntity<CardResponse> createCard(@Valid @RequestBody CreateCardRequest request);
@@ -99,6 +120,11 @@ public interface AdminController {
     @GetMapping("/users/with-cards")
     ResponseEntity<PagedResponse<UserDetailResponse>> getAllUsersWithCards(Pageable pageable);
 
+    @Operation(summary = "Get user cache statistics",
+            description = "Returns the size and hit/miss counters of the cache in front of the user lookup used by authentication.")
+    @GetMapping("/security/user-cache")
+    ResponseEntity<UserCacheStatsResponse> getUserCacheStats();
+
     @Operation(summary = "Update user profile")
     @PutMapping("/users/{userId}/profile")
     ResponseEntity<UserDetailResponse> updateUserProfile(@PathVariable UUID userId, @Valid @RequestBody UpdateProfileRequest request);
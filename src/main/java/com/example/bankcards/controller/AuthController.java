@@ -1,6 +1,7 @@
 package com.example.bankcards.controller;
 
 import com.example.bankcards.dto.request.LoginRequest;
+import com.example.bankcards.dto.request.LogoutRequest;
 import com.example.bankcards.dto.request.RegistrationRequest;
 import com.example.bankcards.dto.request.TokenRefreshRequest;
 import com.example.bankcards.dto.response.JwtResponse;
@@ -12,6 +13,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -27,7 +29,8 @@ public interface AuthController {
                     @ApiResponse(responseCode = "200", description = "User successfully registered",
                             content = @Content(mediaType = "application/json",
                                     schema = @Schema(implementation = UserResponseDto.class))),
-                    @ApiResponse(responseCode = "400", description = "Invalid input data or username already exists")
+                    @ApiResponse(responseCode = "400", description = "Invalid input data or username already exists"),
+                    @ApiResponse(responseCode = "503", description = "Password hashing is saturated; retry after the Retry-After delay")
             })
     @PostMapping("/register")
     ResponseEntity<UserResponseDto> registerUser(@Valid @RequestBody RegistrationRequest registrationRequest);
@@ -38,14 +41,17 @@ public interface AuthController {
                     @ApiResponse(responseCode = "200", description = "User successfully authenticated",
                             content = @Content(mediaType = "application/json",
                                     schema = @Schema(implementation = JwtResponse.class))),
-                    @ApiResponse(responseCode = "401", description = "Invalid credentials")
+                    @ApiResponse(responseCode = "401", description = "Invalid credentials"),
+                    @ApiResponse(responseCode = "429", description = "Too many login attempts for the username or IP; retry after the Retry-After delay"),
+                    @ApiResponse(responseCode = "503", description = "Password hashing is saturated; retry after the Retry-After delay")
             })
     @PostMapping("/login")
-    ResponseEntity<JwtResponse> loginUser(@Valid @RequestBody LoginRequest loginRequest);
+    ResponseEntity<JwtResponse> loginUser(@Valid @RequestBody LoginRequest loginRequest, HttpServletRequest request);
 
     @Operation(
             summary = "Log out current user",
-            description = "Performs a logout for the currently authenticated user. This invalidates the user's refresh token, " +
+            description = "Performs a logout for the currently authenticated user. With a refresh token in the body, " +
+                    "only that session is ended; without a body, the refresh tokens of all the user's devices are invalidated, " +
                     "preventing them from obtaining new access tokens. The current access token will remain valid until it expires.",
             security = { @SecurityRequirement(name = "bearerAuth") },
             responses = {
@@ -60,12 +66,14 @@ public interface AuthController {
             }
     )
     @PostMapping("/logout")
-    ResponseEntity<String> logoutUser();
+    ResponseEntity<String> logoutUser(@RequestBody(required = false) LogoutRequest logoutRequest);
 
     @Operation(
             summary = "Refresh access token",
             description = "Obtains a new access token using a valid refresh token. " +
-                    "This endpoint should be called when the access token has expired.",
+                    "This endpoint should be called when the access token has expired. " +
+                    "The refresh token is rotated: the response contains a new one, and presenting the old one again " +
+                    "revokes the session.",
             responses = {
                     @ApiResponse(
                             responseCode = "200",
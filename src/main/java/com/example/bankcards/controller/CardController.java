@@ -2,7 +2,9 @@ package com.example.bankcards.controller;
 
 import com.example.bankcards.dto.request.TransferRequest;
 import com.example.bankcards.dto.response.CardResponse;
+import com.example.bankcards.dto.response.CursorPage;
 import com.example.bankcards.dto.response.PagedResponse;
+import com.example.bankcards.dto.response.TransactionHistoryResponse;
 import com.example.bankcards.dto.response.TransactionResponse;
 import com.example.bankcards.entity.User;
 import io.swagger.v3.oas.annotations.Operation;
@@ -19,6 +21,8 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 
 import java.math.BigDecimal;
 import java.util.UUID;
@@ -31,6 +35,13 @@ public interface CardController {
     @GetMapping("/my")
     ResponseEntity<PagedResponse<CardResponse>> getMyCards(@AuthenticationPrincipal User user, Pageable pageable);
 
+    @Operation(summary = "Scroll my cards",
+            description = "Returns my active cards ordered by expiration date, without totals. Pass next_cursor from the previous page to get the next one.")
+    @GetMapping("/my/scroll")
+    ResponseEntity<CursorPage<CardResponse>> scrollMyCards(@AuthenticationPrincipal User user,
+                                                           @Parameter(description = "Cursor returned with the previous page") @RequestParam(required = false) String cursor,
+                                                           @Parameter(description = "Page size, at most 100") @RequestParam(defaultValue = "20") int size);
+
     @Operation(summary = "Get my card by ID", description = "Returns details of a specific card if it belongs to me.")
     @GetMapping("/my/{cardId}")
     ResponseEntity<CardResponse> getMyCardById(@AuthenticationPrincipal User user,
@@ -46,8 +57,19 @@ public interface CardController {
     ResponseEntity<CardResponse> requestCardBlock(@AuthenticationPrincipal User user,
                                                   @Parameter(description = "ID of the card to block") @PathVariable UUID cardId);
 
-    @Operation(summary = "Transfer between my cards", description = "Transfers a specified amount between two of my cards.")
+    @Operation(summary = "Transfer between my cards",
+            description = "Transfers a specified amount between two of my cards. Repeating a request with the same Idempotency-Key returns the original result.")
     @PostMapping("/my/transfer")
     ResponseEntity<TransactionResponse> transferBetweenMyCards(@AuthenticationPrincipal User user,
+                                                               @Parameter(description = "Client-generated key that makes retries of this transfer safe")
+                                                               @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
                                                                @Valid @RequestBody TransferRequest request);
+
+    @Operation(summary = "Get my card's transaction history",
+            description = "Returns ledger entries of my card, newest first. Pass next_cursor from the previous page to get the next one.")
+    @GetMapping("/{cardId}/transactions")
+    ResponseEntity<CursorPage<TransactionHistoryResponse>> getMyCardTransactions(@AuthenticationPrincipal User user,
+                                                                                @Parameter(description = "ID of the card") @PathVariable UUID cardId,
+                                                                                @Parameter(description = "Cursor returned with the previous page") @RequestParam(required = false) String cursor,
+                                                                                @Parameter(description = "Page size, at most 100") @RequestParam(defaultValue = "20") int size);
 }
@@ -5,10 +5,13 @@ import com.example.bankcards.dto.request.CreateCardRequest;
 import com.example.bankcards.dto.request.UpdateProfileRequest;
 import com.example.bankcards.dto.request.UpdateUserRolesRequest;
 import com.example.bankcards.dto.response.CardResponse;
+import com.example.bankcards.dto.response.CursorPage;
 import com.example.bankcards.dto.response.PagedResponse;
+import com.example.bankcards.dto.response.UserCacheStatsResponse;
 import com.example.bankcards.dto.response.UserDetailResponse;
 import com.example.bankcards.dto.response.UserResponseDto;
 import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.security.impl.UserDetailsServiceImpl;
 import com.example.bankcards.service.AdminService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
@@ -23,6 +26,7 @@ import java.util.UUID;
 public class AdminControllerImpl implements AdminController {
 
     private final AdminService adminService;
+    private final UserDetailsServiceImpl userDetailsService;
     @Override
     public ResponseEntity<PagedResponse<CardResponse>> getAllCards(Pageable pageable) {
         return ResponseEntity.ok(PagedResponse.from(adminService.findAllCards(pageable)));
@@ -38,6 +42,21 @@ public class AdminControllerImpl implements AdminController {
         return ResponseEntity.ok(PagedResponse.from(adminService.findCardsByStatus(status, pageable)));
     }
 
+    @Override
+    public ResponseEntity<CursorPage<CardResponse>> scrollAllCards(String cursor, int size) {
+        return ResponseEntity.ok(adminService.findAllCards(cursor, size));
+    }
+
+    @Override
+    public ResponseEntity<CursorPage<CardResponse>> scrollAllCardsForUser(UUID userId, String cursor, int size) {
+        return ResponseEntity.ok(adminService.findAllCardsByUserId(userId, cursor, size));
+    }
+
+    @Override
+    public ResponseEntity<CursorPage<CardResponse>> scrollCardsByStatus(CardStatus status, String cursor, int size) {
+        return ResponseEntity.ok(adminService.findCardsByStatus(status, cursor, size));
+    }
+
     @Override
     public ResponseEntity<CardResponse> createCard(CreateCardRequest request) {
         return new ResponseEntity<>(adminService.createCard(request), HttpStatus.CREATED);
@@ -106,4 +125,8 @@ public class AdminControllerImpl implements AdminController {
 
     }
 
+    @Override
+    public ResponseEntity<UserCacheStatsResponse> getUserCacheStats() {
+        return ResponseEntity.ok(userDetailsService.getCacheStats());
+    }
 }
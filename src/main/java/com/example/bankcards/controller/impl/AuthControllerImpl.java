@@ -2,12 +2,15 @@ package com.example.bankcards.controller.impl;
 
 import com.example.bankcards.controller.AuthController;
 import com.example.bankcards.dto.request.LoginRequest;
+import com.example.bankcards.dto.request.LogoutRequest;
 import com.example.bankcards.dto.request.RegistrationRequest;
 import com.example.bankcards.dto.request.TokenRefreshRequest;
 import com.example.bankcards.dto.response.JwtResponse;
 import com.example.bankcards.dto.response.TokenRefreshResponse;
 import com.example.bankcards.dto.response.UserResponseDto;
+import com.example.bankcards.security.impl.LoginRateLimiter;
 import com.example.bankcards.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
@@ -16,6 +19,7 @@ import org.springframework.web.bind.annotation.RestController;
 @RequiredArgsConstructor
 public class AuthControllerImpl implements AuthController {
     private final AuthService authService;
+    private final LoginRateLimiter loginRateLimiter;
     @Override
     public ResponseEntity<UserResponseDto> registerUser(RegistrationRequest registrationRequest) {
         UserResponseDto registeredUser = authService.registerUser(registrationRequest);
@@ -23,14 +27,15 @@ public class AuthControllerImpl implements AuthController {
     }
 
     @Override
-    public ResponseEntity<JwtResponse> loginUser(LoginRequest loginRequest) {
+    public ResponseEntity<JwtResponse> loginUser(LoginRequest loginRequest, HttpServletRequest request) {
+        loginRateLimiter.checkLoginAttempt(loginRequest.identifier(), request.getRemoteAddr());
         JwtResponse jwtResponse = authService.loginUser(loginRequest);
         return ResponseEntity.ok(jwtResponse);
     }
 
     @Override
-    public ResponseEntity<String> logoutUser() {
-        authService.logoutUser();
+    public ResponseEntity<String> logoutUser(LogoutRequest logoutRequest) {
+        authService.logoutUser(logoutRequest != null ? logoutRequest.refreshToken() : null);
         return ResponseEntity.ok("User successfully logged out.");
     }
 
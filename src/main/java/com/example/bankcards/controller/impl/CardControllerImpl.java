@@ -3,7 +3,9 @@ package com.example.bankcards.controller.impl;
 import com.example.bankcards.controller.CardController;
 import com.example.bankcards.dto.request.TransferRequest;
 import com.example.bankcards.dto.response.CardResponse;
+import com.example.bankcards.dto.response.CursorPage;
 import com.example.bankcards.dto.response.PagedResponse;
+import com.example.bankcards.dto.response.TransactionHistoryResponse;
 import com.example.bankcards.dto.response.TransactionResponse;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.service.CardService;
@@ -28,6 +30,11 @@ public class CardControllerImpl implements CardController{
         return ResponseEntity.ok(PagedResponse.from(cards));
     }
 
+    @Override
+    public ResponseEntity<CursorPage<CardResponse>> scrollMyCards(@AuthenticationPrincipal User user, String cursor, int size) {
+        return ResponseEntity.ok(cardService.findMyCards(user.getId(), cursor, size));
+    }
+
     @Override
     public ResponseEntity<CardResponse> getMyCardById(@AuthenticationPrincipal User user, UUID cardId) {
         CardResponse card = cardService.findMyCardById(cardId, user.getId());
@@ -47,8 +54,16 @@ public class CardControllerImpl implements CardController{
     }
 
     @Override
-    public ResponseEntity<TransactionResponse> transferBetweenMyCards(@AuthenticationPrincipal User user, TransferRequest request) {
-        TransactionResponse response = cardService.transferBetweenMyCards(request, user.getId());
+    public ResponseEntity<TransactionResponse> transferBetweenMyCards(@AuthenticationPrincipal User user, String idempotencyKey,
+                                                                      TransferRequest request) {
+        TransactionResponse response = cardService.transferBetweenMyCards(request, user.getId(), idempotencyKey);
         return ResponseEntity.ok(response);
     }
+
+    @Override
+    public ResponseEntity<CursorPage<TransactionHistoryResponse>> getMyCardTransactions(@AuthenticationPrincipal User user, UUID cardId,
+                                                                                       String cursor, int size) {
+        CursorPage<TransactionHistoryResponse> history = cardService.findMyCardTransactions(cardId, user.getId(), cursor, size);
+        return ResponseEntity.ok(history);
+    }
 }
@@ -0,0 +1,21 @@
+package com.example.bankcards.dto;
+
+import com.example.bankcards.entity.enums.CardStatus;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.UUID;
+
+/**
+ * A read-only projection of a card without its encrypted number.
+ * Used by listings and detail views, so loading them never runs the card number decryption.
+ */
+public record CardSummary(
+        UUID id,
+        UUID ownerId,
+        String cardNumberLast4,
+        YearMonth expirationDate,
+        CardStatus status,
+        BigDecimal balance
+) {
+}
@@ -0,0 +1,12 @@
+package com.example.bankcards.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A stored refresh token (one session of a user) as needed to issue a new access token,
+ * cached by the token digest.
+ */
+public record RefreshTokenEntry(UUID tokenId, String tokenHash, UUID userId, String username,
+                                String deviceId, Instant expiryDate) {
+}
@@ -0,0 +1,15 @@
+package com.example.bankcards.dto;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * The balances of both cards right after a transfer was applied.
+ */
+public record TransferBalances(
+        UUID fromCardId,
+        BigDecimal fromBalance,
+        UUID toCardId,
+        BigDecimal toBalance
+) {
+}
@@ -0,0 +1,9 @@
+package com.example.bankcards.dto;
+
+import java.util.UUID;
+
+/**
+ * The current security version of a user, as read by the token revocation registry.
+ */
+public record UserSecurityVersion(UUID userId, long securityVersion) {
+}
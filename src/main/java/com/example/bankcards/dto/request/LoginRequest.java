@@ -1,12 +1,24 @@
 package com.example.bankcards.dto.request;
 
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 
+/**
+ * @param deviceId Optional identifier of the client device. A login from a known device replaces
+ *                 its session; without it, the login replaces the single session of clients
+ *                 that send no device ID.
+ */
 public record LoginRequest(
         @NotBlank(message = "Identifier cannot be blank")
         String identifier,
 
         @NotBlank(message = "Password cannot be blank")
-        String password
+        String password,
+
+        @Size(max = 100, message = "Device ID must be at most 100 characters")
+        String deviceId
 ) {
+    public LoginRequest(String identifier, String password) {
+        this(identifier, password, null);
+    }
 }
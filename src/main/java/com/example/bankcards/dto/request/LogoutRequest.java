@@ -0,0 +1,9 @@
+package com.example.bankcards.dto.request;
+
+/**
+ * @param refreshToken The refresh token of the session to end. Without it, all sessions of the user are ended.
+ */
+public record LogoutRequest(
+        String refreshToken
+) {
+}
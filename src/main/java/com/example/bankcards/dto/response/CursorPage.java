@@ -0,0 +1,23 @@
+package com.example.bankcards.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * A standardized DTO for keyset (cursor) paginated API responses.
+ * Unlike {@link PagedResponse} it carries no totals, so producing a page
+ * never requires a count query.
+ *
+ * @param <T> The type of the content in the page.
+ */
+public record CursorPage<T>(
+        List<T> content,
+        @JsonProperty("page_size")
+        int pageSize,
+        @JsonProperty("next_cursor")
+        String nextCursor,
+        @JsonProperty("has_next")
+        boolean hasNext
+) {
+}
@@ -9,6 +9,7 @@ public record JwtResponse (
         String refreshToken,
         UUID id,
         String username,
-        Set<String> roles
+        Set<String> roles,
+        String deviceId
 ){
 }
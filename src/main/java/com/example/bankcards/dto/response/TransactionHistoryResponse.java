@@ -0,0 +1,21 @@
+package com.example.bankcards.dto.response;
+
+import com.example.bankcards.entity.enums.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * DTO for returning a single ledger entry of a card to the client.
+ */
+public record TransactionHistoryResponse(
+        UUID id,
+        UUID transferId,
+        UUID counterpartyCardId,
+        TransactionType type,
+        BigDecimal amount,
+        BigDecimal balanceAfter,
+        Instant createdAt
+) {
+}
@@ -0,0 +1,11 @@
+package com.example.bankcards.dto.response;
+
+public record UserCacheStatsResponse(
+        boolean enabled,
+        long size,
+        long hitCount,
+        long missCount,
+        double hitRate,
+        long evictionCount
+) {
+}
@@ -3,6 +3,7 @@ package com.example.bankcards.entity;
 import com.example.bankcards.entity.enums.CardStatus;
 import com.example.bankcards.util.encryption.CardNumberEncryptor;
 import com.example.bankcards.mapper.YearMonthDateConverter;
+import com.example.bankcards.util.masking.CardMaskingUtil;
 import jakarta.persistence.Column;
 import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
@@ -15,6 +16,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -44,6 +46,15 @@ public class Card {
     @Column(name = "card_number_hash", nullable = false, unique = true)
     private String cardNumberHash;
 
+    /**
+     * The last four digits of the card number, stored in plain text.
+     * Listings and masked output read this column, so they never have to decrypt the full number.
+     * It is kept in sync by {@link #setCardNumber(String)}.
+     */
+    @Setter(AccessLevel.NONE)
+    @Column(name = "card_number_last4", nullable = false, length = 4)
+    private String cardNumberLast4;
+
     /**
      * The expiration date of the card (year and month).
      */
@@ -78,4 +89,9 @@ public class Card {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User owner;
+
+    public void setCardNumber(String cardNumber) {
+        this.cardNumber = cardNumber;
+        this.cardNumberLast4 = CardMaskingUtil.lastFourDigits(cardNumber);
+    }
 }
@@ -0,0 +1,73 @@
+package com.example.bankcards.entity;
+
+import com.example.bankcards.entity.enums.TransactionType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * An append-only ledger entry describing one side of a money movement.
+ * Every transfer produces exactly two entries sharing the same transferId:
+ * a DEBIT on the source card and a CREDIT on the destination card.
+ * <p>
+ * Entries are never updated or deleted. The table is range-partitioned by month
+ * on created_at, which is why the card is referenced by ID only.
+ */
+@Entity
+@Immutable
+@Table(name = "transactions")
+@Getter
+@Builder
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class CardTransaction {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    /**
+     * Groups the DEBIT and CREDIT entries of the same transfer.
+     */
+    @Column(name = "transfer_id", nullable = false, updatable = false)
+    private UUID transferId;
+
+    @Column(name = "card_id", nullable = false, updatable = false)
+    private UUID cardId;
+
+    @Column(name = "counterparty_card_id", nullable = false, updatable = false)
+    private UUID counterpartyCardId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, updatable = false)
+    private TransactionType type;
+
+    /**
+     * The moved amount. Always positive; the direction is given by the type.
+     */
+    @Column(name = "amount", nullable = false, updatable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    /**
+     * The balance of the card right after this entry was applied.
+     */
+    @Column(name = "balance_after", nullable = false, updatable = false, precision = 19, scale = 2)
+    private BigDecimal balanceAfter;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+}
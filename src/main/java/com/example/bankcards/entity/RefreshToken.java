@@ -6,7 +6,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
-import jakarta.persistence.OneToOne;
+import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -17,6 +17,7 @@ import java.util.UUID;
 
 /**
  * Entity representing a refresh token for user sessions.
+ * A user has one session per device; the token of a session is replaced on every refresh.
  */
 @Entity
 @Table(name = "refresh_tokens")
@@ -28,12 +29,27 @@ public class RefreshToken {
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
-    @OneToOne
+    @ManyToOne
     @JoinColumn(name = "user_id", referencedColumnName = "id", nullable = false)
     private User user;
 
-    @Column(name = "token", nullable = false, unique = true)
-    private String token;
+    /**
+     * SHA-256 (hex) of the token issued to the client. The token itself is never stored.
+     */
+    @Column(name = "token_hash", nullable = false, unique = true, length = 64)
+    private String tokenHash;
+
+    /**
+     * Client-supplied identifier of the device the session belongs to.
+     */
+    @Column(name = "device_id", nullable = false, length = 100)
+    private String deviceId;
+
+    /**
+     * Digest of the token replaced by the last rotation. Presenting it again means the token was leaked.
+     */
+    @Column(name = "previous_token_hash", length = 64)
+    private String previousTokenHash;
 
     @Column(name = "expiry_date", nullable = false)
     private Instant expiryDate;
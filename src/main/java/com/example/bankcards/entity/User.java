@@ -66,6 +66,13 @@ public class User  implements UserDetails {
     @Column(name = "is_active", nullable = false)
     private boolean isEnabled = true;
 
+    /**
+     * Incremented whenever previously issued access tokens must stop working (account lock, role change).
+     * The value is embedded into every access token.
+     */
+    @Column(name = "security_version", nullable = false)
+    private long securityVersion;
+
     @ElementCollection(fetch = FetchType.LAZY)
     @CollectionTable(name = "user_roles", joinColumns = @JoinColumn(name = "user_id"))
     @Enumerated(EnumType.STRING)
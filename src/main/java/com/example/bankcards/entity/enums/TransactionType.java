@@ -0,0 +1,13 @@
+package com.example.bankcards.entity.enums;
+
+public enum TransactionType {
+    /**
+     * Money left the card.
+     */
+    DEBIT,
+
+    /**
+     * Money arrived on the card.
+     */
+    CREDIT
+}
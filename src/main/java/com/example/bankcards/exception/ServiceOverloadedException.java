@@ -0,0 +1,19 @@
+package com.example.bankcards.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown when the application sheds load because a bounded resource (for example, the password hashing
+ * executor) is saturated. The client may retry after the given delay.
+ * <p>
+ * Maps to HTTP 503 Service Unavailable with a Retry-After header.
+ */
+@Getter
+public class ServiceOverloadedException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public ServiceOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.bankcards.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a client exceeds a rate limit. The client may retry after the given delay.
+ * <p>
+ * Maps to HTTP 429 Too Many Requests with a Retry-After header.
+ */
+@Getter
+public class TooManyRequestsException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.bankcards.filter;
+
+import com.example.bankcards.dto.response.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Lets at most as many API requests run as the database can serve, see {@link DbConcurrencyLimiter}.
+ * Requests that do not get a permit in time receive {@code 503 Service Unavailable} with {@code Retry-After}.
+ * <p>
+ * Enabled by default together with virtual threads, and runs before the security filters,
+ * since authentication may query the database as well.
+ * <p>
+ * Login and registration are not limited: they spend most of their time hashing the password on the
+ * bounded BCrypt pool, and holding permits while waiting for it would starve the database-bound requests.
+ * Their short queries are still bounded by the connection pool.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnExpression("${app.concurrency.db-limiter.enabled:${spring.threads.virtual.enabled:false}}")
+public class DbConcurrencyLimitFilter extends OncePerRequestFilter {
+    private static final String API_PREFIX = "/api/";
+    private static final Set<String> PASSWORD_HASHING_PATHS = Set.of("/api/auth/login", "/api/auth/register");
+
+    private final DbConcurrencyLimiter limiter;
+    private final ObjectMapper objectMapper;
+    private final long retryAfterSeconds;
+
+    public DbConcurrencyLimitFilter(ObjectMapper objectMapper,
+                                    @Value("${app.concurrency.db-limiter.max-concurrent-requests:${spring.datasource.hikari.maximum-pool-size:10}}") int maxConcurrentRequests,
+                                    @Value("${app.concurrency.db-limiter.acquire-timeout-ms:2000}") long acquireTimeoutMs,
+                                    @Value("${app.concurrency.db-limiter.retry-after-seconds:1}") long retryAfterSeconds) {
+        this.limiter = new DbConcurrencyLimiter(maxConcurrentRequests, acquireTimeoutMs);
+        this.objectMapper = objectMapper;
+        this.retryAfterSeconds = retryAfterSeconds;
+        log.info("DB_CONCURRENCY_LIMITER_ENABLED: [maxConcurrentRequests={}, acquireTimeoutMs={}].",
+                maxConcurrentRequests, acquireTimeoutMs);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return !uri.startsWith(API_PREFIX) || PASSWORD_HASHING_PATHS.contains(uri);
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = limiter.tryAcquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            log.warn("DB_CONCURRENCY_LIMIT_REJECTED: [path={}].", request.getRequestURI());
+            reject(request, response);
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limiter.release();
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE,
+                "The service is busy, please retry later.", request.getRequestURI()));
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.bankcards.filter;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps the number of requests that may work with the database at the same time.
+ * <p>
+ * With virtual threads Tomcat no longer bounds the number of concurrent requests, so thousands of them
+ * could queue inside the Hikari pool and fail only after its connection timeout. Sizing the limiter
+ * to the pool keeps the waiting in a fair semaphore, and a short acquire timeout turns overload into
+ * a fast rejection instead.
+ */
+public class DbConcurrencyLimiter {
+    private final Semaphore permits;
+    private final long acquireTimeoutMs;
+
+    /**
+     * @param maxConcurrent    The number of requests allowed in at once, usually the connection pool size.
+     * @param acquireTimeoutMs How long a request may wait for a permit.
+     */
+    public DbConcurrencyLimiter(int maxConcurrent, long acquireTimeoutMs) {
+        this.permits = new Semaphore(Math.max(1, maxConcurrent), true);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+    }
+
+    /**
+     * Waits up to the acquire timeout for a permit.
+     *
+     * @return true if a permit was taken and must be returned with {@link #release()}.
+     */
+    public boolean tryAcquire() throws InterruptedException {
+        return permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public int availablePermits() {
+        return permits.availablePermits();
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.bankcards.filter;
+
+import com.example.bankcards.config.datasource.ReadYourWritesRegistry;
+import com.example.bankcards.entity.User;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Routes the reads of a user who has just written to the primary, see {@link ReadYourWritesRegistry}.
+ * <p>
+ * Runs after the security filters, so the authenticated user is known.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    private static final String API_PREFIX = "/api/";
+
+    private final ReadYourWritesRegistry readYourWritesRegistry;
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(API_PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof User user) {
+            readYourWritesRegistry.beginRequest(user.getId());
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            readYourWritesRegistry.endRequest();
+        }
+    }
+}
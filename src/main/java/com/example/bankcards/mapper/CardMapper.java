@@ -1,5 +1,7 @@
 package com.example.bankcards.mapper;
 
+import com.example.bankcards.dto.CardSummary;
+import com.example.bankcards.dto.TransferBalances;
 import com.example.bankcards.dto.response.CardResponse;
 import com.example.bankcards.dto.response.TransactionResponse;
 import com.example.bankcards.entity.Card;
@@ -20,19 +22,28 @@ public interface CardMapper {
      * @param card The Card entity.
      * @return The corresponding CardResponse DTO.
      */
-    @Mapping(source = "cardNumber", target = "maskedCardNumber", qualifiedByName = "maskCardNumber")
+    @Mapping(source = "cardNumberLast4", target = "maskedCardNumber", qualifiedByName = "maskLastFourDigits")
     CardResponse toCardResponse(Card card);
 
+    /**
+     * Converts a CardSummary projection to a CardResponse DTO.
+     *
+     * @param card The card summary.
+     * @return The corresponding CardResponse DTO.
+     */
+    @Mapping(source = "cardNumberLast4", target = "maskedCardNumber", qualifiedByName = "maskLastFourDigits")
+    CardResponse toCardResponse(CardSummary card);
+
     /**
      * A custom mapping method to be used by MapStruct for masking the card number.
-     * It uses the CardMaskingUtil to perform the masking.
+     * Only the stored last four digits are needed, so the full number is never decrypted for output.
      *
-     * @param cardNumber The full card number.
+     * @param lastFourDigits The last four digits of the card number.
      * @return The masked card number.
      */
-    @Named("maskCardNumber")
-    default String maskCardNumber(String cardNumber) {
-        return CardMaskingUtil.maskCardNumber(cardNumber);
+    @Named("maskLastFourDigits")
+    default String maskLastFourDigits(String lastFourDigits) {
+        return CardMaskingUtil.maskLastFourDigits(lastFourDigits);
     }
 
     /**
@@ -52,4 +63,21 @@ public interface CardMapper {
                 toCard.getBalance()
         );
     }
+
+    /**
+     * Creates a TransactionResponseDto from the balances left after a transfer.
+     *
+     * @param balances The balances of both cards after the transaction.
+     * @return A DTO with the updated balances.
+     */
+    default TransactionResponse toTransactionResponseDto(TransferBalances balances) {
+        if (balances == null) {
+            return null;
+        }
+
+        return new TransactionResponse(
+                balances.fromBalance(),
+                balances.toBalance()
+        );
+    }
 }
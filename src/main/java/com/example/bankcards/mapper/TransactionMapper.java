@@ -0,0 +1,19 @@
+package com.example.bankcards.mapper;
+
+import com.example.bankcards.dto.response.TransactionHistoryResponse;
+import com.example.bankcards.entity.CardTransaction;
+import org.mapstruct.Mapper;
+
+/**
+ * Mapper interface for converting ledger entries to their DTOs.
+ */
+@Mapper(componentModel = "spring")
+public interface TransactionMapper {
+    /**
+     * Converts a CardTransaction entity to a TransactionHistoryResponse DTO.
+     *
+     * @param transaction The ledger entry.
+     * @return The corresponding TransactionHistoryResponse DTO.
+     */
+    TransactionHistoryResponse toTransactionHistoryResponse(CardTransaction transaction);
+}
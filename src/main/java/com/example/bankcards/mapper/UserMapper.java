@@ -1,8 +1,8 @@
 package com.example.bankcards.mapper;
 
+import com.example.bankcards.dto.response.CardResponse;
 import com.example.bankcards.dto.response.UserDetailResponse;
 import com.example.bankcards.dto.response.UserResponseDto;
-import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.User;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -28,7 +28,7 @@ public interface UserMapper {
 
     @Mapping(source = "user.userProfile", target = "profile")
     @Mapping(source = "user.enabled", target = "isActive")
-    @Mapping(target  = "cards", ignore = true)
-    UserDetailResponse toUserDetailResponse(User user, List<Card> cards);
+    @Mapping(source = "cards", target = "cards")
+    UserDetailResponse toUserDetailResponse(User user, List<CardResponse> cards);
 
 }
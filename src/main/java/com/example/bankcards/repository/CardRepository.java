@@ -1,5 +1,6 @@
 package com.example.bankcards.repository;
 
+import com.example.bankcards.dto.CardSummary;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.enums.CardStatus;
 import jakarta.persistence.LockModeType;
@@ -11,17 +12,53 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 @Repository
 public interface CardRepository  extends JpaRepository<Card, UUID> {
 
+    /**
+     * Selects cards as {@link CardSummary} projections. The encrypted card number is not part of the
+     * projection, so these queries never trigger its decryption.
+     */
+    String CARD_SUMMARY_SELECT = "select new com.example.bankcards.dto.CardSummary(" +
+            "c.id, c.owner.id, c.cardNumberLast4, c.expirationDate, c.status, c.balance) from Card c ";
+
+    /**
+     * Keyset condition and order for the cursor listings: rows strictly after the last row of the
+     * previous page in (expiration date, id) order. Rendered as a row-value comparison, so PostgreSQL
+     * seeks into the index instead of skipping rows, and no count query is needed.
+     * Pageable parameters of the cursor queries only carry the page size.
+     * Hibernate does not apply the YearMonth converter to a parameter inside a row value, so the expiration date
+     * is passed as the stored column value, the first day of the month.
+     */
+    String KEYSET_AFTER = "(c.expirationDate, c.id) > (:expirationDate, :id) order by c.expirationDate, c.id";
+
     // =========== USER-FACING METHODS (only active cards) ===========
 
     Optional<Card> findByIdAndOwnerIdAndActiveTrue(UUID id, UUID ownerId);
 
-    Page<Card> findAllByOwnerIdAndActiveTrue(UUID ownerId, Pageable pageable);
+    @Query(value = CARD_SUMMARY_SELECT + "where c.owner.id = :ownerId and c.active = true",
+            countQuery = "select count(c) from Card c where c.owner.id = :ownerId and c.active = true")
+    Page<CardSummary> findSummariesByOwnerIdAndActiveTrue(@Param("ownerId") UUID ownerId, Pageable pageable);
+
+    @Query(CARD_SUMMARY_SELECT + "where c.id = :id and c.owner.id = :ownerId and c.active = true")
+    Optional<CardSummary> findSummaryByIdAndOwnerIdAndActiveTrue(@Param("id") UUID id, @Param("ownerId") UUID ownerId);
+
+    @Query("select c.balance from Card c where c.id = :id and c.owner.id = :ownerId and c.active = true")
+    Optional<BigDecimal> findBalanceByIdAndOwnerIdAndActiveTrue(@Param("id") UUID id, @Param("ownerId") UUID ownerId);
+
+    @Query(CARD_SUMMARY_SELECT + "where c.owner.id = :ownerId and c.active = true and " + KEYSET_AFTER)
+    List<CardSummary> findSummariesByOwnerIdAndActiveTrueAfter(@Param("ownerId") UUID ownerId,
+                                                                @Param("expirationDate") LocalDate expirationDate,
+                                                                @Param("id") UUID id,
+                                                                Pageable pageable);
+
+    boolean existsByIdAndOwnerIdAndActiveTrue(UUID id, UUID ownerId);
 
     boolean existsByCardNumberAndActiveTrue(String cardNumber);
 
@@ -29,12 +66,48 @@ public interface CardRepository  extends JpaRepository<Card, UUID> {
     @Query("select c from Card c where c.id = :id and c.active = true")
     Optional<Card> findActiveByIdWithLock(@Param("id") UUID id);
 
+    /**
+     * Finds and locks all ACTIVE cards with the given IDs in a single statement.
+     * Rows are locked in primary key order, so concurrent transfers touching the same
+     * cards always acquire their locks in the same sequence and cannot deadlock.
+     *
+     * @param ids The IDs of the cards to lock.
+     * @return The locked cards, ordered by ID.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from Card c where c.id in :ids and c.active = true order by c.id")
+    List<Card> findAllActiveByIdsWithLock(@Param("ids") Collection<UUID> ids);
+
 
     // =========== ADMIN-FACING METHODS  ===========
 
-    Page<Card> findAllByOwnerId(UUID ownerId, Pageable pageable);
+    @Query(value = CARD_SUMMARY_SELECT, countQuery = "select count(c) from Card c")
+    Page<CardSummary> findAllSummaries(Pageable pageable);
+
+    @Query(value = CARD_SUMMARY_SELECT + "where c.owner.id = :ownerId",
+            countQuery = "select count(c) from Card c where c.owner.id = :ownerId")
+    Page<CardSummary> findSummariesByOwnerId(@Param("ownerId") UUID ownerId, Pageable pageable);
+
+    @Query(value = CARD_SUMMARY_SELECT + "where c.status = :status",
+            countQuery = "select count(c) from Card c where c.status = :status")
+    Page<CardSummary> findSummariesByStatus(@Param("status") CardStatus status, Pageable pageable);
+
+    @Query(CARD_SUMMARY_SELECT + "where " + KEYSET_AFTER)
+    List<CardSummary> findAllSummariesAfter(@Param("expirationDate") LocalDate expirationDate,
+                                            @Param("id") UUID id,
+                                            Pageable pageable);
+
+    @Query(CARD_SUMMARY_SELECT + "where c.owner.id = :ownerId and " + KEYSET_AFTER)
+    List<CardSummary> findSummariesByOwnerIdAfter(@Param("ownerId") UUID ownerId,
+                                                  @Param("expirationDate") LocalDate expirationDate,
+                                                  @Param("id") UUID id,
+                                                  Pageable pageable);
 
-    Page<Card> findAllByStatus(CardStatus status, Pageable pageable);
+    @Query(CARD_SUMMARY_SELECT + "where c.status = :status and " + KEYSET_AFTER)
+    List<CardSummary> findSummariesByStatusAfter(@Param("status") CardStatus status,
+                                                 @Param("expirationDate") LocalDate expirationDate,
+                                                 @Param("id") UUID id,
+                                                 Pageable pageable);
 
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("select c from Card c where c.id = :id")
@@ -43,9 +116,10 @@ public interface CardRepository  extends JpaRepository<Card, UUID> {
     /**
      * Finds all cards owned by a list of users.
      * @param ownerIds A list of user IDs.
-     * @return A list of cards.
+     * @return A list of card summaries.
      */
-    List<Card> findAllByOwnerIdIn(List<UUID> ownerIds);
+    @Query(CARD_SUMMARY_SELECT + "where c.owner.id in :ownerIds")
+    List<CardSummary> findSummariesByOwnerIdIn(@Param("ownerIds") List<UUID> ownerIds);
 
 
     boolean existsByCardNumberHash(String cardNumberHash);
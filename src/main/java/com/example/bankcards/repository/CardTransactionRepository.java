@@ -0,0 +1,52 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.CardTransaction;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository for the append-only transaction ledger.
+ * It deliberately extends the bare {@link org.springframework.data.repository.Repository}
+ * so that no update or delete operations are exposed.
+ */
+@Repository
+public interface CardTransactionRepository extends org.springframework.data.repository.Repository<CardTransaction, UUID> {
+
+    <S extends CardTransaction> List<S> saveAll(Iterable<S> transactions);
+
+    /**
+     * Returns the newest ledger entries of a card.
+     * Served by the (card_id, created_at, id) index without sorting.
+     *
+     * @param cardId The ID of the card.
+     * @param limit  The maximum number of entries to return.
+     * @return Entries ordered from newest to oldest.
+     */
+    @Query(value = "SELECT * FROM transactions WHERE card_id = :cardId " +
+            "ORDER BY created_at DESC, id DESC LIMIT :limit", nativeQuery = true)
+    List<CardTransaction> findLatestByCardId(@Param("cardId") UUID cardId, @Param("limit") int limit);
+
+    /**
+     * Returns ledger entries of a card that are older than the given keyset position.
+     * The row-value comparison seeks directly into the index, so the cost
+     * of a page does not depend on how deep the client has scrolled.
+     *
+     * @param cardId    The ID of the card.
+     * @param createdAt The creation time of the last entry of the previous page.
+     * @param id        The ID of the last entry of the previous page.
+     * @param limit     The maximum number of entries to return.
+     * @return Entries ordered from newest to oldest.
+     */
+    @Query(value = "SELECT * FROM transactions WHERE card_id = :cardId " +
+            "AND (created_at, id) < (:createdAt, :id) " +
+            "ORDER BY created_at DESC, id DESC LIMIT :limit", nativeQuery = true)
+    List<CardTransaction> findByCardIdBefore(@Param("cardId") UUID cardId,
+                                             @Param("createdAt") Instant createdAt,
+                                             @Param("id") UUID id,
+                                             @Param("limit") int limit);
+}
@@ -0,0 +1,61 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repository interface for IdempotencyRecord entity.
+ */
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, UUID> {
+
+    /**
+     * Finds the stored outcome of a request by the user's idempotency key.
+     * Served by the unique (user_id, idempotency_key) index.
+     *
+     * @param userId         The ID of the user who sent the request.
+     * @param idempotencyKey The client-supplied key.
+     * @return An Optional containing the stored record.
+     */
+    Optional<IdempotencyRecord> findByUserIdAndIdempotencyKey(UUID userId, String idempotencyKey);
+
+    /**
+     * Deletes the user's record for the key if it has expired, so that the key can be stored again
+     * before the purge job removes the old row. Served by the unique (user_id, idempotency_key) index.
+     *
+     * @param userId         The ID of the user who sent the request.
+     * @param idempotencyKey The client-supplied key.
+     * @param now            The current time; records expiring at or before it are deleted.
+     * @return The number of deleted rows.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.userId = :userId AND r.idempotencyKey = :idempotencyKey " +
+            "AND r.expiresAt <= :now")
+    int deleteExpired(@Param("userId") UUID userId, @Param("idempotencyKey") String idempotencyKey,
+                      @Param("now") Instant now);
+
+    /**
+     * Deletes one batch of expired records in its own transaction.
+     * SKIP LOCKED lets several nodes purge concurrently without waiting on each other.
+     *
+     * @param now       The current time.
+     * @param batchSize The maximum number of rows to delete.
+     * @return The number of deleted rows.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM idempotency_keys WHERE id IN (" +
+            "SELECT id FROM idempotency_keys WHERE expires_at < :now " +
+            "LIMIT :batchSize FOR UPDATE SKIP LOCKED)", nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") Instant now, @Param("batchSize") int batchSize);
+}
@@ -1,12 +1,16 @@
 package com.example.bankcards.repository;
 
+import com.example.bankcards.dto.RefreshTokenEntry;
 import com.example.bankcards.entity.RefreshToken;
 import com.example.bankcards.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.Optional;
 import java.util.UUID;
 /**
@@ -15,21 +19,92 @@ import java.util.UUID;
 @Repository
 public interface  RefreshTokenRepository extends JpaRepository<RefreshToken, UUID> {
     /**
-     * Finds a refresh token by its token string.
+     * Finds a refresh token by the digest of its value, together with the owner's ID and username.
      *
-     * @param token The refresh token string to search for.
+     * @param tokenHash The SHA-256 (hex) of the refresh token.
      * @return an Optional containing the found refresh token.
      */
-    Optional<RefreshToken> findByToken(String token);
+    @Query("select new com.example.bankcards.dto.RefreshTokenEntry(" +
+            "rt.id, rt.tokenHash, u.id, u.username, rt.deviceId, rt.expiryDate) " +
+            "from RefreshToken rt join rt.user u where rt.tokenHash = :tokenHash")
+    Optional<RefreshTokenEntry> findEntryByTokenHash(@Param("tokenHash") String tokenHash);
 
     /**
-     * Deletes a refresh token by the user's ID using a custom JPQL query.
-     * This is more efficient than a derived delete query.
+     * Starts the session of a device, or replaces its token if the device already has one.
+     * A single statement, served by the unique (user_id, device_id) index.
      *
-     * @param userId The ID of the user whose token should be deleted.
+     * @param userId     The ID of the user.
+     * @param deviceId   The device of the session.
+     * @param tokenHash  The SHA-256 (hex) of the new refresh token.
+     * @param expiryDate The expiry of the session.
+     * @return The number of inserted or updated rows.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO refresh_tokens (user_id, device_id, token_hash, expiry_date) " +
+            "VALUES (:userId, :deviceId, :tokenHash, :expiryDate) " +
+            "ON CONFLICT (user_id, device_id) DO UPDATE SET token_hash = EXCLUDED.token_hash, " +
+            "previous_token_hash = NULL, expiry_date = EXCLUDED.expiry_date", nativeQuery = true)
+    int upsertSession(@Param("userId") UUID userId, @Param("deviceId") String deviceId,
+                      @Param("tokenHash") String tokenHash, @Param("expiryDate") Instant expiryDate);
+
+    /**
+     * Replaces the token of a session, keeping the old digest for reuse detection.
+     * Matches only the current token, so of two concurrent rotations only one succeeds.
+     *
+     * @param tokenHash    The digest of the presented token.
+     * @param newTokenHash The digest of the new token.
+     * @return 1 if the token was rotated, 0 if it is no longer the current token of any session.
+     */
+    @Modifying
+    @Query("update RefreshToken rt set rt.previousTokenHash = rt.tokenHash, rt.tokenHash = :newTokenHash " +
+            "where rt.tokenHash = :tokenHash")
+    int rotateTokenHash(@Param("tokenHash") String tokenHash, @Param("newTokenHash") String newTokenHash);
+
+    /**
+     * Deletes the session whose previous token is presented again.
+     *
+     * @param tokenHash The digest of the presented token.
+     * @return The number of deleted sessions.
+     */
+    @Modifying
+    @Transactional
+    @Query("delete from RefreshToken rt where rt.previousTokenHash = :tokenHash")
+    int deleteByPreviousTokenHash(@Param("tokenHash") String tokenHash);
+
+    /**
+     * Deletes a single session of the user.
+     *
+     * @param userId    The ID of the user.
+     * @param tokenHash The digest of the session's current token.
+     * @return The number of deleted sessions.
+     */
+    @Modifying
+    @Query("delete from RefreshToken rt where rt.user.id = :userId and rt.tokenHash = :tokenHash")
+    int deleteByUserIdAndTokenHash(@Param("userId") UUID userId, @Param("tokenHash") String tokenHash);
+
+    /**
+     * Deletes all sessions of the user using a custom JPQL query.
+     * This is more efficient than a derived delete query and is served by the (user_id, device_id) index.
+     *
+     * @param userId The ID of the user whose tokens should be deleted.
      */
     @Modifying // Обязательно для изменяющих запросов
     @Query("DELETE FROM RefreshToken rt WHERE rt.user.id = :userId")
     int deleteByUserId(UUID userId);
 
+    /**
+     * Deletes one batch of expired refresh tokens in its own transaction.
+     * The inner select uses the expiry_date index; SKIP LOCKED lets several nodes purge
+     * concurrently without waiting on each other or on a token being refreshed.
+     *
+     * @param now       The current time.
+     * @param batchSize The maximum number of rows to delete.
+     * @return The number of deleted rows.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM refresh_tokens WHERE id IN (" +
+            "SELECT id FROM refresh_tokens WHERE expiry_date < :now " +
+            "LIMIT :batchSize FOR UPDATE SKIP LOCKED)", nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") Instant now, @Param("batchSize") int batchSize);
 }
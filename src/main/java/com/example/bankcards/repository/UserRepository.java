@@ -1,14 +1,17 @@
 package com.example.bankcards.repository;
 
+import com.example.bankcards.dto.UserSecurityVersion;
 import com.example.bankcards.entity.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 /**
@@ -38,14 +41,14 @@ public interface  UserRepository extends JpaRepository<User, UUID> {
     Boolean existsByUsername(String username);
 
     /**
-     * Finds a user by ID and eagerly fetches their associated cards and profile.
-     * This query uses LEFT JOIN FETCH to prevent N+1 select problems.
+     * Finds a user by ID and eagerly fetches their profile.
+     * Cards are not fetched here: they are read separately as summaries, so that
+     * their encrypted numbers are not decrypted.
      *
      * @param id The ID of the user.
-     * @return An Optional containing the user with their cards and profile initialized.
+     * @return An Optional containing the user with the profile initialized.
      */
     @Query("SELECT u FROM User u " +
-            "LEFT JOIN FETCH u.cards " +
             "LEFT JOIN FETCH u.userProfile " +
             "WHERE u.id = :id")
     Optional<User> findByIdWithDetails(@Param("id") UUID id);
@@ -67,4 +70,25 @@ public interface  UserRepository extends JpaRepository<User, UUID> {
      */
     @Query("select u from User u")
     Page<User> findAll_Admin(Pageable pageable);
+
+    /**
+     * Returns the ID and security version of every user whose tokens were revoked at least once.
+     * Used to rebuild the in-memory revocation registry on startup.
+     *
+     * @return The user IDs with their current security versions.
+     */
+    @Query("select new com.example.bankcards.dto.UserSecurityVersion(u.id, u.securityVersion) from User u where u.securityVersion > 0")
+    List<UserSecurityVersion> findRevokedSecurityVersions();
+
+    /**
+     * Replaces the password hash of a user.
+     * Used to rehash passwords stored with outdated encoder settings after a successful login.
+     *
+     * @param username The username of the user.
+     * @param password The new password hash.
+     * @return The number of updated rows.
+     */
+    @Modifying
+    @Query("update User u set u.password = :password where u.username = :username")
+    int updatePassword(@Param("username") String username, @Param("password") String password);
 }
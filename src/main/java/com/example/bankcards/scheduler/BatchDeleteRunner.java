@@ -0,0 +1,52 @@
+package com.example.bankcards.scheduler;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.function.IntSupplier;
+
+/**
+ * Runs a batch delete until a batch comes back incomplete or the per-run cap is reached.
+ * <p>
+ * Shared by the purge jobs. Each batch is expected to be its own short transaction that skips rows
+ * locked by another node. The number of deleted rows and the latency of each batch are published
+ * as {@code <metricPrefix>.deleted} and {@code <metricPrefix>.batch}.
+ */
+@Slf4j
+class BatchDeleteRunner {
+    private final String logEvent;
+    private final Counter deletedCounter;
+    private final Timer batchTimer;
+
+    BatchDeleteRunner(MeterRegistry meterRegistry, String metricPrefix, String subject, String logEvent) {
+        this.logEvent = logEvent;
+        this.deletedCounter = Counter.builder(metricPrefix + ".deleted")
+                .description("Expired " + subject + " deleted by the purge job")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder(metricPrefix + ".batch")
+                .description("Latency of one " + subject + " purge batch")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param batchSize  The row limit passed to each batch; a batch that deletes fewer rows ends the run.
+     * @param maxBatches The maximum number of batches in this run; the rest is left for the next run.
+     * @param batch      Deletes one batch and returns the number of deleted rows.
+     */
+    void run(int batchSize, int maxBatches, IntSupplier batch) {
+        long totalDeleted = 0;
+        for (int i = 0; i < maxBatches; i++) {
+            int deleted = batchTimer.record(batch::getAsInt);
+            deletedCounter.increment(deleted);
+            totalDeleted += deleted;
+            if (deleted < batchSize) {
+                break;
+            }
+        }
+        if (totalDeleted > 0) {
+            log.info("{}: [deleted={}].", logEvent, totalDeleted);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.bankcards.scheduler;
+
+import com.example.bankcards.util.encryption.CardNumberEncryptor;
+import com.example.bankcards.util.encryption.EncryptionKeyRing;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Re-encrypts card numbers that were written with the legacy format or an older key version,
+ * so that old keys can be retired after a rotation.
+ * <p>
+ * The job walks {@code cards} in primary key order, one chunk per transaction. Decryption and encryption
+ * of a chunk are spread over a bounded worker pool, and the new values are written with one JDBC batch.
+ * Each update is guarded by the old ciphertext, so a row changed in the meantime is left alone
+ * and is not counted as re-encrypted.
+ * <p>
+ * Progress is stored per key version in {@code reencryption_checkpoints} in the same transaction as the chunk,
+ * so a restarted job resumes after the last committed chunk. The checkpoint row is locked with SKIP LOCKED,
+ * so only one node works on a key version at a time. A pause between chunks and a cap on chunks per run
+ * keep the job from competing with regular traffic.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.encryption.reencryption.enabled", havingValue = "true")
+public class CardReEncryptionJob {
+    private static final UUID FIRST_ID = new UUID(0, 0);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CardNumberEncryptor cardNumberEncryptor;
+    private final EncryptionKeyRing keyRing;
+    private final ExecutorService workers;
+    private final int parallelism;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final long pauseMs;
+
+    public CardReEncryptionJob(JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               CardNumberEncryptor cardNumberEncryptor,
+                               EncryptionKeyRing keyRing,
+                               @Value("${app.encryption.reencryption.parallelism:4}") int parallelism,
+                               @Value("${app.encryption.reencryption.batch-size:500}") int batchSize,
+                               @Value("${app.encryption.reencryption.max-batches-per-run:100}") int maxBatchesPerRun,
+                               @Value("${app.encryption.reencryption.pause-ms:200}") long pauseMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cardNumberEncryptor = cardNumberEncryptor;
+        this.keyRing = keyRing;
+        this.parallelism = Math.max(1, parallelism);
+        this.workers = Executors.newFixedThreadPool(this.parallelism);
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.pauseMs = pauseMs;
+    }
+
+    @Scheduled(fixedDelayString = "${app.encryption.reencryption.interval-ms:60000}",
+            initialDelayString = "${app.encryption.reencryption.interval-ms:60000}")
+    public void reEncryptCards() {
+        Integer keyVersion = keyRing.activeVersion();
+        if (keyVersion == null) {
+            return;
+        }
+        jdbcTemplate.update("INSERT INTO reencryption_checkpoints (key_version) VALUES (?) ON CONFLICT DO NOTHING", keyVersion);
+
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            BatchOutcome outcome = transactionTemplate.execute(status -> processBatch(keyVersion));
+            if (outcome != BatchOutcome.IN_PROGRESS) {
+                if (outcome == BatchOutcome.COMPLETED) {
+                    log.info("CARD_REENCRYPTION_COMPLETED: [keyVersion={}].", keyVersion);
+                }
+                return;
+            }
+            pause();
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+        }
+    }
+
+    private BatchOutcome processBatch(int keyVersion) {
+        List<Checkpoint> checkpoints = jdbcTemplate.query(
+                "SELECT last_card_id, completed FROM reencryption_checkpoints WHERE key_version = ? FOR UPDATE SKIP LOCKED",
+                (rs, rowNum) -> new Checkpoint(rs.getObject("last_card_id", UUID.class), rs.getBoolean("completed")),
+                keyVersion);
+        if (checkpoints.isEmpty()) {
+            return BatchOutcome.LOCKED_BY_ANOTHER_NODE;
+        }
+        Checkpoint checkpoint = checkpoints.get(0);
+        if (checkpoint.completed()) {
+            return BatchOutcome.ALREADY_COMPLETED;
+        }
+
+        List<StoredCardNumber> chunk = jdbcTemplate.query(
+                "SELECT id, card_number FROM cards WHERE id > ? ORDER BY id LIMIT ?",
+                (rs, rowNum) -> new StoredCardNumber(rs.getObject("id", UUID.class), rs.getString("card_number")),
+                checkpoint.lastCardId() != null ? checkpoint.lastCardId() : FIRST_ID, batchSize);
+
+        List<StoredCardNumber> stale = chunk.stream()
+                .filter(card -> cardNumberEncryptor.needsReEncryption(card.cardNumber()))
+                .toList();
+        List<Object[]> updates = reEncryptInParallel(stale);
+        int reEncrypted = 0;
+        if (!updates.isEmpty()) {
+            reEncrypted = countUpdatedRows(
+                    jdbcTemplate.batchUpdate("UPDATE cards SET card_number = ? WHERE id = ? AND card_number = ?", updates));
+        }
+        int skipped = updates.size() - reEncrypted;
+        if (skipped > 0) {
+            log.warn("CARD_REENCRYPTION_SKIPPED: [keyVersion={}, skipped={}].", keyVersion, skipped);
+        }
+
+        boolean completed = chunk.size() < batchSize;
+        UUID lastCardId = chunk.isEmpty() ? checkpoint.lastCardId() : chunk.get(chunk.size() - 1).id();
+        jdbcTemplate.update("UPDATE reencryption_checkpoints SET last_card_id = ?, processed_count = processed_count + ?, " +
+                "completed = ?, updated_at = now() WHERE key_version = ?", lastCardId, reEncrypted, completed, keyVersion);
+        log.info("CARD_REENCRYPTION_BATCH: [keyVersion={}, scanned={}, reEncrypted={}].", keyVersion, chunk.size(), reEncrypted);
+
+        return completed ? BatchOutcome.COMPLETED : BatchOutcome.IN_PROGRESS;
+    }
+
+    /**
+     * Counts the rows the guarded updates actually changed. A row whose card number was changed concurrently
+     * no longer matches the old ciphertext and reports zero.
+     */
+    private static int countUpdatedRows(int[] updateCounts) {
+        int updated = 0;
+        for (int count : updateCounts) {
+            if (count > 0) {
+                updated += count;
+            } else if (count == Statement.SUCCESS_NO_INFO) {
+                updated++;
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * Splits the cards into one slice per worker and re-encrypts the slices concurrently.
+     *
+     * @return Batch parameters: new ciphertext, card id, old ciphertext.
+     */
+    private List<Object[]> reEncryptInParallel(List<StoredCardNumber> cards) {
+        if (cards.isEmpty()) {
+            return List.of();
+        }
+        int sliceSize = (cards.size() + parallelism - 1) / parallelism;
+        List<Future<List<Object[]>>> futures = new ArrayList<>();
+        for (int from = 0; from < cards.size(); from += sliceSize) {
+            List<StoredCardNumber> slice = cards.subList(from, Math.min(from + sliceSize, cards.size()));
+            Callable<List<Object[]>> task = () -> slice.stream()
+                    .map(card -> new Object[]{cardNumberEncryptor.reEncrypt(card.cardNumber()), card.id(), card.cardNumber()})
+                    .toList();
+            futures.add(workers.submit(task));
+        }
+
+        List<Object[]> updates = new ArrayList<>(cards.size());
+        try {
+            for (Future<List<Object[]>> future : futures) {
+                updates.addAll(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while re-encrypting card numbers", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to re-encrypt card numbers", e.getCause());
+        }
+        return updates;
+    }
+
+    private void pause() {
+        if (pauseMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(pauseMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private enum BatchOutcome {
+        IN_PROGRESS, COMPLETED, ALREADY_COMPLETED, LOCKED_BY_ANOTHER_NODE
+    }
+
+    private record Checkpoint(UUID lastCardId, boolean completed) {
+    }
+
+    private record StoredCardNumber(UUID id, String cardNumber) {
+    }
+}
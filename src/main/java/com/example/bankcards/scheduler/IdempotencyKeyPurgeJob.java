@@ -0,0 +1,42 @@
+package com.example.bankcards.scheduler;
+
+import com.example.bankcards.repository.IdempotencyRecordRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Deletes expired idempotency keys in small batches.
+ * <p>
+ * Each batch is its own short transaction and skips rows locked by another node,
+ * so the purge never holds long locks and can run on several instances at once. The number of purged rows
+ * and the latency of each batch are published as {@code idempotency.purge.deleted} and {@code idempotency.purge.batch}.
+ */
+@Component
+public class IdempotencyKeyPurgeJob {
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final BatchDeleteRunner batchDeleteRunner;
+
+    @Value("${app.idempotency.purge.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.idempotency.purge.max-batches:100}")
+    private int maxBatches;
+
+    public IdempotencyKeyPurgeJob(IdempotencyRecordRepository idempotencyRecordRepository, MeterRegistry meterRegistry) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.batchDeleteRunner = new BatchDeleteRunner(meterRegistry, "idempotency.purge", "idempotency keys",
+                "IDEMPOTENCY_PURGE");
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.purge.interval-ms:600000}",
+            initialDelayString = "${app.idempotency.purge.interval-ms:600000}")
+    public void purgeExpiredKeys() {
+        Instant now = Instant.now();
+        batchDeleteRunner.run(batchSize, maxBatches,
+                () -> idempotencyRecordRepository.deleteExpiredBatch(now, batchSize));
+    }
+}
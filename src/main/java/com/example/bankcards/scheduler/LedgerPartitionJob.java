@@ -0,0 +1,61 @@
+package com.example.bankcards.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+
+/**
+ * Creates the monthly partitions of the {@code transactions} ledger ahead of time.
+ * <p>
+ * Rows that arrive for a month without a partition land in {@code transactions_default};
+ * creating partitions in advance keeps the default partition empty, so old months can be
+ * detached or archived as whole tables. The migration creates the current and next month,
+ * and {@code create_ledger_partition} moves any rows that still reached the default partition
+ * into the new month's partition in the same transaction.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LedgerPartitionJob {
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.ledger.partitions.months-ahead:2}")
+    private int monthsAhead;
+
+    /**
+     * Ensures partitions exist for the current month and the configured number of months ahead.
+     * Runs once on startup and then daily. Safe to run on several nodes at the same time.
+     * A failure is rethrown, so it stops the startup instead of leaving a month in the default partition.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.ledger.partitions.cron:0 0 3 * * *}", zone = "UTC")
+    public void createUpcomingPartitions() {
+        YearMonth currentMonth = YearMonth.now(ZoneOffset.UTC);
+        for (int i = 0; i <= monthsAhead; i++) {
+            createPartitionIfMissing(currentMonth.plusMonths(i));
+        }
+    }
+
+    private void createPartitionIfMissing(YearMonth month) {
+        Long movedRows;
+        try {
+            movedRows = jdbcTemplate.queryForObject("SELECT create_ledger_partition(?)", Long.class, month.atDay(1));
+        } catch (DataAccessException e) {
+            log.error("LEDGER_PARTITION_FAIL: [month={}]. Reason: {}", month, e.getMessage());
+            throw new IllegalStateException("Failed to create the ledger partition for " + month, e);
+        }
+        if (movedRows != null && movedRows > 0) {
+            log.warn("LEDGER_PARTITION_ROWS_MOVED: [month={}, rows={}]. Rows were moved out of transactions_default.",
+                    month, movedRows);
+        }
+    }
+}
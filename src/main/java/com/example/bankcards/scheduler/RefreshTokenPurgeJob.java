@@ -0,0 +1,42 @@
+package com.example.bankcards.scheduler;
+
+import com.example.bankcards.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Deletes expired refresh tokens in small batches.
+ * <p>
+ * Expired tokens are otherwise removed only when a client presents them, so abandoned sessions would stay
+ * in the table forever. Each batch is its own short transaction and skips rows locked by another node,
+ * so the purge can run on several instances at once. The number of purged rows and the latency of each
+ * batch are published as {@code refresh_token.purge.deleted} and {@code refresh_token.purge.batch}.
+ */
+@Component
+public class RefreshTokenPurgeJob {
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final BatchDeleteRunner batchDeleteRunner;
+
+    @Value("${app.refresh-token.purge.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.refresh-token.purge.max-batches:100}")
+    private int maxBatches;
+
+    public RefreshTokenPurgeJob(RefreshTokenRepository refreshTokenRepository, MeterRegistry meterRegistry) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.batchDeleteRunner = new BatchDeleteRunner(meterRegistry, "refresh_token.purge", "refresh tokens",
+                "REFRESH_TOKEN_PURGE");
+    }
+
+    @Scheduled(fixedDelayString = "${app.refresh-token.purge.interval-ms:600000}",
+            initialDelayString = "${app.refresh-token.purge.interval-ms:600000}")
+    public void purgeExpiredTokens() {
+        Instant now = Instant.now();
+        batchDeleteRunner.run(batchSize, maxBatches, () -> refreshTokenRepository.deleteExpiredBatch(now, batchSize));
+    }
+}
@@ -1,8 +1,11 @@
 package com.example.bankcards.security;
 
 import com.example.bankcards.entity.User;
+import io.jsonwebtoken.Claims;
 import org.springframework.security.core.Authentication;
 
+import java.util.Optional;
+
 /**
  * Service interface for JSON Web Token (JWT) operations.
  * Defines the contract for generating, validating, and parsing tokens.
@@ -33,6 +36,25 @@ public interface JwtService {
      */
     boolean isTokenValid(String token);
 
+    /**
+     * Verifies the signature and expiration of a JWT and returns its claims in a single pass.
+     * Invalid tokens are reported as an empty result instead of an exception.
+     *
+     * @param token The JWT string.
+     * @return The verified claims, or an empty Optional if the token is invalid.
+     */
+    Optional<Claims> parseVerifiedClaims(String token);
+
+    /**
+     * Verifies the signature and expiration of a JWT and classifies the outcome.
+     * An expired token is detected without throwing. Rejected tokens are counted and logged
+     * as periodic totals rather than one entry per request.
+     *
+     * @param token The JWT string.
+     * @return The status, with the verified claims when the token is valid.
+     */
+    TokenValidationResult validate(String token);
+
     /**
      * Generates a JWT access token for the given user.
      *
@@ -41,4 +63,13 @@ public interface JwtService {
      * @return a signed JWT access token as a String.
      */
     String generateAccessTokenForUser(User user);
+
+    /**
+     * Builds a detached principal from the claims of a verified access token, without a database lookup.
+     *
+     * @param claims The verified claims.
+     * @return The principal, or an empty Optional if the token does not carry the user ID, roles
+     *         and security version (for example, a token issued before these claims were added).
+     */
+    Optional<User> toPrincipal(Claims claims);
 }
@@ -0,0 +1,52 @@
+package com.example.bankcards.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Optional;
+
+/**
+ * The outcome of validating an access token: its status and, for a valid token, the verified claims.
+ *
+ * @param status The validation status.
+ * @param claims The verified claims, or null unless the status is {@link Status#VALID}.
+ */
+public record TokenValidationResult(Status status, Claims claims) {
+    private static final TokenValidationResult EXPIRED = new TokenValidationResult(Status.EXPIRED, null);
+    private static final TokenValidationResult MALFORMED = new TokenValidationResult(Status.MALFORMED, null);
+    private static final TokenValidationResult BAD_SIGNATURE = new TokenValidationResult(Status.BAD_SIGNATURE, null);
+
+    public enum Status {
+        /** The signature is correct and the token has not expired. */
+        VALID,
+        /** The signature is correct, but the token has expired. */
+        EXPIRED,
+        /** The token cannot be parsed or is not a signed JWT. */
+        MALFORMED,
+        /** The token was not signed with the application key. */
+        BAD_SIGNATURE
+    }
+
+    public static TokenValidationResult valid(Claims claims) {
+        return new TokenValidationResult(Status.VALID, claims);
+    }
+
+    /**
+     * Returns the shared result of an invalid status.
+     */
+    public static TokenValidationResult invalid(Status status) {
+        return switch (status) {
+            case EXPIRED -> EXPIRED;
+            case MALFORMED -> MALFORMED;
+            case BAD_SIGNATURE -> BAD_SIGNATURE;
+            case VALID -> throw new IllegalArgumentException("A valid result needs claims");
+        };
+    }
+
+    public boolean isValid() {
+        return status == Status.VALID;
+    }
+
+    public Optional<Claims> verifiedClaims() {
+        return Optional.ofNullable(claims);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.bankcards.security;
+
+/**
+ * Published when data that authentication relies on (enabled flag, roles, security version)
+ * changes for a user, so that cached copies of the user can be dropped.
+ *
+ * @param username The username of the changed user.
+ */
+public record UserSecurityChangedEvent(String username) {
+}
@@ -0,0 +1,88 @@
+package com.example.bankcards.security.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Builds the password encoder and picks the BCrypt work factor.
+ * <p>
+ * Hashes are stored in the {@code {bcrypt}$2a$...} format of {@link DelegatingPasswordEncoder}. Hashes written
+ * before the prefix was introduced are still verified with BCrypt, and {@code upgradeEncoding} reports them, as well
+ * as hashes with a lower work factor, so that they are rehashed on the next successful login.
+ */
+@Slf4j
+public final class BCryptPasswordEncoderFactory {
+    public static final String BCRYPT_ID = "bcrypt";
+    static final int MAX_BCRYPT_STRENGTH = 31;
+    private static final int CALIBRATION_SAMPLES = 3;
+    private static final String CALIBRATION_PASSWORD = "calibration-password";
+
+    private BCryptPasswordEncoderFactory() {
+    }
+
+    /**
+     * Creates the delegating encoder that hashes new passwords with BCrypt of the given strength.
+     *
+     * @param strength The BCrypt work factor (log2 of the number of rounds).
+     * @return The delegating encoder.
+     */
+    public static PasswordEncoder create(int strength) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(BCRYPT_ID, Map.of(BCRYPT_ID, bcrypt));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
+    }
+
+    /**
+     * Measures BCrypt on this machine and returns the highest strength whose hash still fits into the target
+     * latency. The result is never below {@code minStrength}, which is also the strength that is measured:
+     * each additional step doubles the cost, so higher strengths are extrapolated.
+     *
+     * @param minStrength   The lowest acceptable strength.
+     * @param maxStrength   The highest acceptable strength.
+     * @param targetLatency The time a single hash may take.
+     * @return The calibrated strength.
+     */
+    public static int calibrateStrength(int minStrength, int maxStrength, Duration targetLatency) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minStrength);
+        probe.encode(CALIBRATION_PASSWORD);
+        long[] samples = new long[CALIBRATION_SAMPLES];
+        for (int i = 0; i < samples.length; i++) {
+            long start = System.nanoTime();
+            probe.encode(CALIBRATION_PASSWORD);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        long probeNanos = samples[samples.length / 2];
+        int strength = strengthFor(probeNanos, minStrength, maxStrength, targetLatency.toNanos());
+        log.info("PASSWORD_HASHING_CALIBRATED: [strength={}, probeStrength={}, probeMs={}, targetMs={}].",
+                strength, minStrength, Duration.ofNanos(probeNanos).toMillis(), targetLatency.toMillis());
+        return strength;
+    }
+
+    /**
+     * Extrapolates a measured hash time to higher strengths, doubling it per step.
+     *
+     * @param probeNanos    The measured time of one hash at {@code probeStrength}.
+     * @param probeStrength The strength that was measured, also the lowest result.
+     * @param maxStrength   The highest result.
+     * @param targetNanos   The time a single hash may take.
+     * @return The highest strength whose estimated time does not exceed the target.
+     */
+    static int strengthFor(long probeNanos, int probeStrength, int maxStrength, long targetNanos) {
+        int limit = Math.min(maxStrength, MAX_BCRYPT_STRENGTH);
+        int strength = probeStrength;
+        long estimate = Math.max(1, probeNanos);
+        while (strength < limit && estimate <= targetNanos / 2) {
+            strength++;
+            estimate *= 2;
+        }
+        return strength;
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.bankcards.security.impl;
+
+import com.example.bankcards.exception.ServiceOverloadedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs password hashing and verification of the delegate encoder on a small dedicated pool.
+ * <p>
+ * BCrypt is deliberately slow. On the request thread, a login burst would occupy every worker and starve
+ * unrelated endpoints. Here the number of hashing threads is a fixed share of the cores, so hashing can use
+ * at most that share of the CPU. Requests wait in a bounded queue. Once the queue is full, new requests are
+ * rejected with {@link ServiceOverloadedException} (503 with Retry-After) instead of waiting.
+ */
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long retryAfterSeconds;
+
+    /**
+     * @param delegate          The encoder that does the actual hashing.
+     * @param threads           The number of hashing threads.
+     * @param queueCapacity     How many hashing requests may wait for a thread.
+     * @param retryAfterSeconds The delay suggested to rejected clients.
+     */
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, long retryAfterSeconds) {
+        this.delegate = delegate;
+        this.retryAfterSeconds = retryAfterSeconds;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        log.info("PASSWORD_HASHING_POOL: [threads={}, queueCapacity={}].", threads, queueCapacity);
+    }
+
+    /**
+     * Computes the number of hashing threads for a share of the available cores, at least one.
+     */
+    public static int threadsForCpuShare(double cpuShare) {
+        return Math.max(1, (int) Math.floor(Runtime.getRuntime().availableProcessors() * cpuShare));
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T run(Callable<T> task) {
+        try {
+            return executor.submit(task).get();
+        } catch (RejectedExecutionException e) {
+            log.warn("PASSWORD_HASHING_REJECTED: [queued={}].", queuedRequests());
+            throw new ServiceOverloadedException("Too many authentication requests, please retry later.", retryAfterSeconds);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    /**
+     * The number of hashing requests waiting for a thread.
+     */
+    int queuedRequests() {
+        return executor.getQueue().size();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
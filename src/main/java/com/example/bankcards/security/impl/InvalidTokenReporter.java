@@ -0,0 +1,55 @@
+package com.example.bankcards.security.impl;
+
+import com.example.bankcards.security.TokenValidationResult.Status;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Counts rejected access tokens and logs the totals at most once per interval, without stack traces.
+ * A fleet of clients holding expired tokens therefore produces one line per interval instead of one per request.
+ */
+@Slf4j
+class InvalidTokenReporter {
+    private final long intervalNanos;
+    private final LongSupplier nanoClock;
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder malformed = new LongAdder();
+    private final LongAdder badSignature = new LongAdder();
+    private final AtomicLong windowStart;
+
+    InvalidTokenReporter(Duration interval) {
+        this(interval, System::nanoTime);
+    }
+
+    InvalidTokenReporter(Duration interval, LongSupplier nanoClock) {
+        this.intervalNanos = interval.toNanos();
+        this.nanoClock = nanoClock;
+        this.windowStart = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    /**
+     * Counts a rejected token and, if the interval has elapsed, logs and resets the totals.
+     */
+    void record(Status status) {
+        switch (status) {
+            case EXPIRED -> expired.increment();
+            case MALFORMED -> malformed.increment();
+            case BAD_SIGNATURE -> badSignature.increment();
+            case VALID -> {
+                return;
+            }
+        }
+        long start = windowStart.get();
+        long now = nanoClock.getAsLong();
+        // Итоги за окно пишет только тот поток, который успел сдвинуть начало окна
+        if (now - start >= intervalNanos && windowStart.compareAndSet(start, now)) {
+            log.warn("INVALID_ACCESS_TOKENS: [expired={}, malformed={}, badSignature={}, periodSeconds={}].",
+                    expired.sumThenReset(), malformed.sumThenReset(), badSignature.sumThenReset(),
+                    Duration.ofNanos(now - start).toSeconds());
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package com.example.bankcards.security.impl;
 
+import com.example.bankcards.security.TokenValidationResult.Status;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.web.AuthenticationEntryPoint;
@@ -25,7 +27,20 @@ public class JwtAuthEntryPoint implements AuthenticationEntryPoint {
     public void commence(HttpServletRequest request, HttpServletResponse response,
                          AuthenticationException authException) throws IOException,
             ServletException {
-        log.error("Unauthorized error: {}", authException.getMessage());
+        String message = authException.getMessage();
+        if (request.getAttribute(JwtAuthFilter.TOKEN_STATUS_ATTRIBUTE) instanceof Status tokenStatus) {
+            // Отклонённые токены уже посчитаны в JwtServiceImpl, отдельная запись на каждый запрос не нужна
+            log.debug("Unauthorized: access token is {}", tokenStatus);
+            if (tokenStatus == Status.EXPIRED) {
+                message = "Access token expired";
+                response.setHeader(HttpHeaders.WWW_AUTHENTICATE,
+                        "Bearer error=\"invalid_token\", error_description=\"The access token expired\"");
+            } else {
+                response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+            }
+        } else {
+            log.error("Unauthorized error: {}", message);
+        }
 
         response.setContentType(MediaType.APPLICATION_JSON_VALUE);
         response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
@@ -33,7 +48,7 @@ public class JwtAuthEntryPoint implements AuthenticationEntryPoint {
         final Map<String, Object> body = new HashMap<>();
         body.put("status", HttpServletResponse.SC_UNAUTHORIZED);
         body.put("error", "Unauthorized");
-        body.put("message", authException.getMessage());
+        body.put("message", message);
         body.put("path", request.getServletPath());
 
         objectMapper.writeValue(response.getOutputStream(), body);
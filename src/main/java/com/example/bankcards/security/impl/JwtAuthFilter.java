@@ -1,12 +1,18 @@
 package com.example.bankcards.security.impl;
 
+import com.example.bankcards.entity.User;
 import com.example.bankcards.security.JwtService;
+import com.example.bankcards.security.TokenValidationResult;
+import com.example.bankcards.security.TokenValidationResult.Status;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -19,14 +25,47 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Authenticates requests that carry a bearer token. The time to verify and parse the token is published
+ * as {@code jwt.validation} with a {@code result} tag ({@code valid}, {@code expired}, {@code malformed}
+ * or {@code bad_signature}). The status of a rejected token is kept in the {@link #TOKEN_STATUS_ATTRIBUTE}
+ * request attribute for {@link JwtAuthEntryPoint}.
+ */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class JwtAuthFilter extends OncePerRequestFilter {
+    static final String TOKEN_STATUS_ATTRIBUTE = JwtAuthFilter.class.getName() + ".TOKEN_STATUS";
+
     private final JwtService jwtUtils;
     private final UserDetailsServiceImpl userDetailsService;
     private final JwtAuthEntryPoint unauthorizedHandler;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+    private final Map<Status, Timer> validationTimers = new EnumMap<>(Status.class);
+
+    /**
+     * When enabled, the principal is built from the token claims and revocation is checked in memory,
+     * so authenticated requests do not load the user from the database.
+     */
+    @Value("${app.jwt.stateless-principal:false}")
+    private boolean statelessPrincipal;
+
+    public JwtAuthFilter(JwtService jwtUtils, UserDetailsServiceImpl userDetailsService,
+                         JwtAuthEntryPoint unauthorizedHandler, TokenRevocationRegistry tokenRevocationRegistry,
+                         MeterRegistry meterRegistry) {
+        this.jwtUtils = jwtUtils;
+        this.userDetailsService = userDetailsService;
+        this.unauthorizedHandler = unauthorizedHandler;
+        this.tokenRevocationRegistry = tokenRevocationRegistry;
+        for (Status status : Status.values()) {
+            validationTimers.put(status, validationTimer(meterRegistry, status.name().toLowerCase(Locale.ROOT)));
+        }
+    }
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request,
@@ -34,16 +73,19 @@ public class JwtAuthFilter extends OncePerRequestFilter {
                                     @NonNull FilterChain filterChain) throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.isTokenValid(jwt)) {
-                String username = jwtUtils.getUsernameFromToken(jwt);
-
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            // The signature is verified once; the subject comes from the same parsed claims.
+            TokenValidationResult result = jwt != null ? validate(jwt) : null;
+            if (result != null && result.isValid()) {
+                UserDetails userDetails = resolvePrincipal(result.claims());
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                         userDetails, null, userDetails.getAuthorities());
 
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
+            } else if (result != null) {
+                // Запрос продолжается анонимно; точка входа по статусу подскажет клиенту обновить токен
+                request.setAttribute(TOKEN_STATUS_ATTRIBUTE, result.status());
             }
         } catch (UsernameNotFoundException e) {
             log.warn("Authentication failed for JWT: User '{}' not found or is inactive.", e.getMessage());
@@ -57,6 +99,38 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private TokenValidationResult validate(String jwt) {
+        long start = System.nanoTime();
+        TokenValidationResult result = jwtUtils.validate(jwt);
+        validationTimers.get(result.status()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return result;
+    }
+
+    /**
+     * Takes the principal from the claims in stateless mode, falling back to the database
+     * for tokens that do not carry the required claims.
+     */
+    private UserDetails resolvePrincipal(Claims claims) {
+        if (statelessPrincipal) {
+            Optional<User> principal = jwtUtils.toPrincipal(claims);
+            if (principal.isPresent()) {
+                User user = principal.get();
+                if (tokenRevocationRegistry.isRevoked(user.getId(), user.getSecurityVersion())) {
+                    throw new UsernameNotFoundException(user.getUsername());
+                }
+                return user;
+            }
+        }
+        return userDetailsService.loadUserByUsername(claims.getSubject());
+    }
+
+    private static Timer validationTimer(MeterRegistry meterRegistry, String result) {
+        return Timer.builder("jwt.validation")
+                .description("Time to verify and parse an access token")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
         if (StringUtils.hasText(headerAuth) && headerAuth.startsWith("Bearer ")) {
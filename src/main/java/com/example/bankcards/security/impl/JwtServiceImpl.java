@@ -1,12 +1,13 @@
 package com.example.bankcards.security.impl;
 
 import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.Role;
 import com.example.bankcards.security.JwtService;
+import com.example.bankcards.security.TokenValidationResult;
+import com.example.bankcards.security.TokenValidationResult.Status;
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.MalformedJwtException;
-import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
@@ -19,31 +20,61 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 public class JwtServiceImpl implements JwtService {
+    static final String USER_ID_CLAIM = "uid";
+    static final String ROLES_CLAIM = "roles";
+    static final String SECURITY_VERSION_CLAIM = "ver";
+    private static final Duration INVALID_TOKEN_LOG_INTERVAL = Duration.ofMinutes(1);
+
     @Value("${app.jwt.secret}")
     private String jwtSecretString;
     @Value("${app.jwt.expirationMs}")
     private Long accessTokenDurationMs;
 
     private SecretKey key;
-
+    /**
+     * Built once: a JwtParser is immutable and thread-safe, so every request reuses it.
+     */
+    private JwtParser jwtParser;
+    /**
+     * Verifies only the signature: its clock is fixed at the epoch, so an expired token is returned
+     * instead of throwing ExpiredJwtException, and {@link #validate} compares the expiration itself.
+     * Tokens issued here carry no "nbf" claim, which this clock would reject.
+     */
+    private JwtParser signatureParser;
+    private final InvalidTokenReporter invalidTokenReporter = new InvalidTokenReporter(INVALID_TOKEN_LOG_INTERVAL);
 
     @PostConstruct
     public void init() {
         byte[] keyBytes = Decoders.BASE64.decode(jwtSecretString);
         this.key = Keys.hmacShaKeyFor(keyBytes);
+        this.jwtParser = Jwts.parser()
+                .verifyWith(key)
+                .build();
+        this.signatureParser = Jwts.parser()
+                .verifyWith(key)
+                .clock(() -> new Date(0))
+                .build();
     }
 
     @Override
     public String generateAccessToken(Authentication authentication) {
         UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
-        return buildToken(userPrincipal.getUsername(), getRoles(userPrincipal.getAuthorities()));
+        if (userPrincipal instanceof User user) {
+            return generateAccessTokenForUser(user);
+        }
+        return buildToken(userPrincipal.getUsername(), getRoles(userPrincipal.getAuthorities()), Map.of());
     }
 
     @Override
@@ -52,35 +83,71 @@ public class JwtServiceImpl implements JwtService {
     }
 
     private Claims getClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(key)
-                .build()
+        return jwtParser
                 .parseSignedClaims(token)
                 .getPayload();
     }
 
     @Override
     public boolean isTokenValid(String token) {
+        return validate(token).isValid();
+    }
+
+    @Override
+    public Optional<Claims> parseVerifiedClaims(String token) {
+        return validate(token).verifiedClaims();
+    }
+
+    @Override
+    public TokenValidationResult validate(String token) {
+        TokenValidationResult result = classify(token);
+        if (!result.isValid()) {
+            invalidTokenReporter.record(result.status());
+        }
+        return result;
+    }
+
+    private TokenValidationResult classify(String token) {
+        Claims claims;
         try {
-            getClaims(token);
-            return true;
-        } catch (ExpiredJwtException expiredJwtException) {
-            log.error("ExpiredJwtException", expiredJwtException);
-        } catch (UnsupportedJwtException exception) {
-            log.error("UnsupportedJwtException", exception);
-        } catch (MalformedJwtException exception) {
-            log.error("MalformedJwtException", exception);
+            claims = signatureParser.parseSignedClaims(token).getPayload();
         } catch (SignatureException exception) {
-            log.error("SignatureException ", exception);
-        } catch (Exception exception) {
-            log.error("Invalid token", exception);
+            return TokenValidationResult.invalid(Status.BAD_SIGNATURE);
+        } catch (RuntimeException exception) {
+            // Битый base64/JSON, неподписанный токен, пустая строка и т.п.
+            log.debug("Malformed token: {}", exception.getMessage());
+            return TokenValidationResult.invalid(Status.MALFORMED);
+        }
+        Date expiration = claims.getExpiration();
+        if (expiration != null && expiration.getTime() <= System.currentTimeMillis()) {
+            return TokenValidationResult.invalid(Status.EXPIRED);
         }
-        return false;
+        return TokenValidationResult.valid(claims);
     }
 
     @Override
     public String generateAccessTokenForUser(User user) {
-        return buildToken(user.getUsername(), getRoles(user.getAuthorities()));
+        return buildToken(user.getUsername(), getRoles(user.getAuthorities()), Map.of(
+                USER_ID_CLAIM, user.getId().toString(),
+                SECURITY_VERSION_CLAIM, user.getSecurityVersion()));
+    }
+
+    @Override
+    public Optional<User> toPrincipal(Claims claims) {
+        String userId = claims.get(USER_ID_CLAIM, String.class);
+        Number securityVersion = claims.get(SECURITY_VERSION_CLAIM, Number.class);
+        List<?> roles = claims.get(ROLES_CLAIM, List.class);
+        if (userId == null || securityVersion == null || roles == null) {
+            return Optional.empty();
+        }
+        User user = new User();
+        user.setId(UUID.fromString(userId));
+        user.setUsername(claims.getSubject());
+        user.setSecurityVersion(securityVersion.longValue());
+        user.setRoles(roles.stream()
+                .map(role -> Role.valueOf(role.toString()))
+                .collect(Collectors.toSet()));
+        return Optional.of(user);
     }
 
     /**
@@ -99,9 +166,10 @@ public class JwtServiceImpl implements JwtService {
      *
      * @param username The subject of the token.
      * @param roles    The list of roles to include as a claim.
+     * @param claims   Additional claims, such as the user ID and security version.
      * @return A string representation of the JWT.
      */
-    private String buildToken(String username, List<String> roles) {
+    private String buildToken(String username, List<String> roles, Map<String, ?> claims) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + accessTokenDurationMs);
 
@@ -109,7 +177,8 @@ public class JwtServiceImpl implements JwtService {
                 .subject(username)
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .claim("roles", roles)
+                .claim(ROLES_CLAIM, roles)
+                .claims(claims)
                 .signWith(key)
                 .compact();
     }
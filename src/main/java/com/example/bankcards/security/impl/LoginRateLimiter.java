@@ -0,0 +1,104 @@
+package com.example.bankcards.security.impl;
+
+import com.example.bankcards.exception.TooManyRequestsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * In-memory token-bucket limiter for login attempts, keyed by username and by client IP.
+ * <p>
+ * Every attempt takes one token from the bucket of its username and then one from the bucket of its IP.
+ * An attempt rejected by the username bucket does not touch the IP bucket, so hammering one account
+ * does not use up the attempts of other users behind the same address.
+ * Buckets refill continuously, so a client may burst up to the capacity and then continue at the refill rate.
+ * Buckets are kept in a bounded cache and dropped after a period without attempts.
+ * The limits are per instance.
+ */
+@Slf4j
+@Component
+public class LoginRateLimiter {
+    private static final String USERNAME_PREFIX = "u:";
+    private static final String IP_PREFIX = "ip:";
+
+    private final boolean enabled;
+    private final int usernameCapacity;
+    private final double usernameRefillPerSecond;
+    private final int ipCapacity;
+    private final double ipRefillPerSecond;
+    private final Cache<String, TokenBucket> buckets;
+
+    public LoginRateLimiter(@Value("${app.security.login-rate-limit.enabled:true}") boolean enabled,
+                            @Value("${app.security.login-rate-limit.username-capacity:5}") int usernameCapacity,
+                            @Value("${app.security.login-rate-limit.username-refill-per-minute:5}") int usernameRefillPerMinute,
+                            @Value("${app.security.login-rate-limit.ip-capacity:20}") int ipCapacity,
+                            @Value("${app.security.login-rate-limit.ip-refill-per-minute:20}") int ipRefillPerMinute,
+                            @Value("${app.security.login-rate-limit.max-tracked-keys:100000}") long maxTrackedKeys) {
+        this.enabled = enabled;
+        this.usernameCapacity = usernameCapacity;
+        this.usernameRefillPerSecond = usernameRefillPerMinute / 60.0;
+        this.ipCapacity = ipCapacity;
+        this.ipRefillPerSecond = ipRefillPerMinute / 60.0;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxTrackedKeys)
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+    }
+
+    /**
+     * Takes a token for the username and, if that succeeds, one for the IP address.
+     *
+     * @param username The login identifier from the request.
+     * @param clientIp The client address; behind trusted proxies, the one resolved from {@code X-Forwarded-For}.
+     * @throws TooManyRequestsException if either bucket is empty.
+     */
+    public void checkLoginAttempt(String username, String clientIp) {
+        if (!enabled) {
+            return;
+        }
+        consume(USERNAME_PREFIX + username.toLowerCase(Locale.ROOT), usernameCapacity, usernameRefillPerSecond);
+        consume(IP_PREFIX + clientIp, ipCapacity, ipRefillPerSecond);
+    }
+
+    private void consume(String key, int capacity, double refillPerSecond) {
+        TokenBucket bucket = buckets.get(key, k -> new TokenBucket(capacity, refillPerSecond));
+        long retryAfterSeconds = bucket.tryConsume();
+        if (retryAfterSeconds > 0) {
+            log.warn("LOGIN_RATE_LIMITED: [key={}, retryAfterSeconds={}].", key, retryAfterSeconds);
+            throw new TooManyRequestsException("Too many login attempts, please retry later.", retryAfterSeconds);
+        }
+    }
+
+    private static final class TokenBucket {
+        private final int capacity;
+        private final double refillPerNano;
+        private double tokens;
+        private long lastRefillNanos;
+
+        private TokenBucket(int capacity, double refillPerSecond) {
+            this.capacity = capacity;
+            this.refillPerNano = refillPerSecond / 1_000_000_000.0;
+            this.tokens = capacity;
+            this.lastRefillNanos = System.nanoTime();
+        }
+
+        /**
+         * @return 0 if a token was taken, otherwise the number of seconds until the next token.
+         */
+        private synchronized long tryConsume() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * refillPerNano);
+            lastRefillNanos = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return Math.max(1, (long) Math.ceil((1 - tokens) / refillPerNano / 1_000_000_000.0));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.bankcards.security.impl;
+
+import com.example.bankcards.dto.UserSecurityVersion;
+import com.example.bankcards.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory set of users whose earlier access tokens are revoked.
+ * <p>
+ * For every such user the registry keeps the minimum security version an access token must carry.
+ * A lookup is a single hash map read, so the JWT filter can check revocation on every request
+ * without touching the database. Only users whose version was ever bumped are stored, which keeps
+ * the map small. It is rebuilt from {@code users.security_version} on startup.
+ * <p>
+ * The registry is local to one instance: other instances learn about a revocation on their next
+ * restart, so the access token lifetime bounds how long a revoked token can still be used there.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenRevocationRegistry {
+    private final UserRepository userRepository;
+    private final Map<UUID, Long> minimumVersions = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadFromDatabase() {
+        for (UserSecurityVersion version : userRepository.findRevokedSecurityVersions()) {
+            minimumVersions.merge(version.userId(), version.securityVersion(), Math::max);
+        }
+        log.info("TOKEN_REVOCATION_REGISTRY_LOADED: [users={}].", minimumVersions.size());
+    }
+
+    /**
+     * Tells whether a token issued for the given user and security version has been revoked.
+     *
+     * @param userId          The user ID from the token.
+     * @param securityVersion The security version from the token.
+     * @return true if the token must be rejected.
+     */
+    public boolean isRevoked(UUID userId, long securityVersion) {
+        Long minimumVersion = minimumVersions.get(userId);
+        return minimumVersion != null && securityVersion < minimumVersion;
+    }
+
+    /**
+     * Revokes every token of the user that carries a version lower than the given one.
+     * Inside a transaction the registry is updated only after commit, so a rolled back change
+     * does not revoke anything.
+     *
+     * @param userId          The user ID.
+     * @param securityVersion The new security version of the user.
+     */
+    public void revokeBefore(UUID userId, long securityVersion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    minimumVersions.merge(userId, securityVersion, Math::max);
+                }
+            });
+        } else {
+            minimumVersions.merge(userId, securityVersion, Math::max);
+        }
+    }
+}
@@ -1,37 +1,124 @@
 package com.example.bankcards.security.impl;
 
+import com.example.bankcards.dto.response.UserCacheStatsResponse;
+import com.example.bankcards.entity.User;
 import com.example.bankcards.repository.UserRepository;
-
-import org.springframework.transaction.annotation.Transactional;;
-import lombok.RequiredArgsConstructor;
+import com.example.bankcards.security.UserSecurityChangedEvent;
+import com.example.bankcards.util.cache.NonPinningCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
 
 /**
  * Service implementation for loading user-specific data for Spring Security.
+ * <p>
+ * Loaded users are kept in a bounded Caffeine cache with a TTL, so repeated requests of the same user
+ * do not query the database. Entries are evicted after commit when a {@link UserSecurityChangedEvent}
+ * is published; the TTL bounds how long other instances may keep a stale copy.
+ * <p>
+ * As a {@link UserDetailsPasswordService}, it lets the authentication provider store a new hash
+ * when the password encoder reports that the stored one uses outdated settings.
  */
+@Slf4j
 @Service
-@RequiredArgsConstructor
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
+    private final NonPinningCache<String, User> cache;
+
+    public UserDetailsServiceImpl(UserRepository userRepository,
+                                  @Value("${app.security.user-cache.enabled:true}") boolean cacheEnabled,
+                                  @Value("${app.security.user-cache.maximum-size:10000}") long maximumSize,
+                                  @Value("${app.security.user-cache.ttl-ms:60000}") long ttlMs) {
+        this.userRepository = userRepository;
+        this.cache = cacheEnabled
+                ? new NonPinningCache<>(Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats())
+                : null;
+    }
 
     /**
      * Locates the user based on the username.
      * Our User entity already implements UserDetails, so we can return it directly.
+     * The method is deliberately not transactional: a cache hit must not take a database connection.
      *
      * @param username the username identifying the user whose data is required.
      * @return a fully populated user record (never {@code null}).
      * @throws UsernameNotFoundException if the user could not be found.
      */
     @Override
-    @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        return userRepository.findByUsernameWithRoles(username)
-                .orElseThrow(() ->
-                        new UsernameNotFoundException("User Not Found with username: " + username));
+        User user = cache != null ? cache.get(username, this::findUser) : findUser(username);
+        if (user == null) {
+            throw new UsernameNotFoundException("User Not Found with username: " + username);
+        }
+        return user;
+    }
+
+    /**
+     * Stores the rehashed password of a user who has just logged in successfully.
+     * The cached copy is dropped right away: a reader that caches the old hash in between still verifies
+     * the same password and only causes one more rehash.
+     *
+     * @param user        The authenticated user.
+     * @param newPassword The new password hash.
+     * @return The user with the new password hash.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePassword(user.getUsername(), newPassword);
+        if (cache != null) {
+            cache.invalidate(user.getUsername());
+        }
+        if (user instanceof User entity) {
+            entity.setPassword(newPassword);
+        }
+        log.info("PASSWORD_REHASHED: [username={}].", user.getUsername());
+        return user;
+    }
 
+    /**
+     * Drops the cached user once the transaction that changed it has committed.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserSecurityChanged(UserSecurityChangedEvent event) {
+        if (cache != null) {
+            cache.invalidate(event.username());
+            log.info("USER_CACHE_EVICT: [username={}].", event.username());
+        }
+    }
+
+    /**
+     * Returns the hit and miss statistics of the user cache.
+     */
+    public UserCacheStatsResponse getCacheStats() {
+        if (cache == null) {
+            return new UserCacheStatsResponse(false, 0, 0, 0, 0, 0);
+        }
+        CacheStats stats = cache.stats();
+        return new UserCacheStatsResponse(true, cache.estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.hitRate(), stats.evictionCount());
+    }
+
+    /**
+     * Roles are fetched by the query itself, so the returned user can be used outside a transaction.
+     * Returns null for unknown or inactive users, which Caffeine does not cache.
+     */
+    private User findUser(String username) {
+        return userRepository.findByUsernameWithRoles(username).orElse(null);
     }
 }
@@ -4,6 +4,7 @@ import com.example.bankcards.dto.request.CreateCardRequest;
 import com.example.bankcards.dto.request.UpdateProfileRequest;
 import com.example.bankcards.dto.request.UpdateUserRolesRequest;
 import com.example.bankcards.dto.response.CardResponse;
+import com.example.bankcards.dto.response.CursorPage;
 import com.example.bankcards.dto.response.UserDetailResponse;
 import com.example.bankcards.dto.response.UserResponseDto;
 import com.example.bankcards.entity.enums.CardStatus;
@@ -54,6 +55,35 @@ public interface AdminService {
      */
     Page<CardResponse> findCardsByStatus(CardStatus status, Pageable pageable);
 
+    /**
+     * Finds all cards with keyset pagination, ordered by expiration date and ID, without a count query.
+     *
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param size   The requested page size; capped at 100.
+     * @return A page of card DTOs with a cursor for the next page.
+     */
+    CursorPage<CardResponse> findAllCards(String cursor, int size);
+
+    /**
+     * Finds all cards of a user, including inactive ones, with keyset pagination.
+     *
+     * @param userId The ID of the user.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param size   The requested page size; capped at 100.
+     * @return A page of card DTOs with a cursor for the next page.
+     */
+    CursorPage<CardResponse> findAllCardsByUserId(UUID userId, String cursor, int size);
+
+    /**
+     * Finds all cards with a specific status with keyset pagination.
+     *
+     * @param status The status to filter by.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param size   The requested page size; capped at 100.
+     * @return A page of card DTOs with a cursor for the next page.
+     */
+    CursorPage<CardResponse> findCardsByStatus(CardStatus status, String cursor, int size);
+
     /**
      * Activates a card.
      *
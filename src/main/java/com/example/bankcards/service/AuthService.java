@@ -26,14 +26,16 @@ public interface AuthService {
 
     /**
      * Logs out the user by invalidating their refresh token.
+     *
+     * @param refreshToken The refresh token of the session to end, or null to end all sessions of the user.
      */
-    void logoutUser();
+    void logoutUser(String refreshToken);
 
     /**
      * Refreshes an expired access token using a valid refresh token.
      *
      * @param request DTO containing the refresh token.
-     * @return A response DTO containing a new access token and the original refresh token.
+     * @return A response DTO containing a new access token and the refresh token that replaces the presented one.
      */
     TokenRefreshResponse refreshToken(TokenRefreshRequest request);
 }
@@ -3,6 +3,8 @@ package com.example.bankcards.service;
 import com.example.bankcards.dto.request.CreateCardRequest;
 import com.example.bankcards.dto.request.TransferRequest;
 import com.example.bankcards.dto.response.CardResponse;
+import com.example.bankcards.dto.response.CursorPage;
+import com.example.bankcards.dto.response.TransactionHistoryResponse;
 import com.example.bankcards.dto.response.TransactionResponse;
 import com.example.bankcards.entity.enums.CardStatus;
 import org.springframework.data.domain.Page;
@@ -27,6 +29,17 @@ public interface CardService {
      */
     Page<CardResponse> findMyCards(UUID userId, Pageable pageable);
 
+    /**
+     * Finds active cards of a user with keyset pagination, ordered by expiration date and ID.
+     * Unlike {@link #findMyCards(UUID, Pageable)} it runs no count query.
+     *
+     * @param userId The ID of the user whose cards to find.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param size   The requested page size; capped at 100.
+     * @return A page of card DTOs with a cursor for the next page.
+     */
+    CursorPage<CardResponse> findMyCards(UUID userId, String cursor, int size);
+
     /**
      * Finds a single active card by its ID, ensuring it belongs to the specified user.
      *
@@ -57,9 +70,34 @@ public interface CardService {
 
     /**
      * Performs a money transfer between two active cards belonging to the same user.
+     * The transfer is retried a bounded number of times if the database aborts it
+     * because of a deadlock or serialization failure.
      *
      * @param request DTO containing transfer details (fromCardId, toCardId, amount).
      * @param userId  The ID of the user performing the transfer.
      */
     TransactionResponse transferBetweenMyCards(TransferRequest request, UUID userId);
+
+    /**
+     * Performs a money transfer guarded by a client-supplied idempotency key.
+     * A repeated request with the same key returns the stored result of the first one
+     * without moving money again; reusing the key for a different transfer is rejected.
+     *
+     * @param request        DTO containing transfer details (fromCardId, toCardId, amount).
+     * @param userId         The ID of the user performing the transfer.
+     * @param idempotencyKey The value of the Idempotency-Key header, or null if none was sent.
+     */
+    TransactionResponse transferBetweenMyCards(TransferRequest request, UUID userId, String idempotencyKey);
+
+    /**
+     * Returns the ledger entries of an active card owned by the user, newest first.
+     * Uses keyset pagination, so reading any page costs the same regardless of its depth.
+     *
+     * @param cardId The ID of the card.
+     * @param userId The ID of the owning user.
+     * @param cursor The cursor returned with the previous page, or null for the first page.
+     * @param size   The maximum number of entries to return.
+     * @return A page of ledger entries with a cursor for the next page.
+     */
+    CursorPage<TransactionHistoryResponse> findMyCardTransactions(UUID cardId, UUID userId, String cursor, int size);
 }
@@ -1,6 +1,6 @@
 package com.example.bankcards.service;
 
-import com.example.bankcards.entity.RefreshToken;
+import com.example.bankcards.dto.RefreshTokenEntry;
 
 import java.util.Optional;
 import java.util.UUID;
@@ -8,39 +8,60 @@ import java.util.UUID;
 /**
  * Service interface for managing refresh tokens.
  * Defines the contract for creating, retrieving, and verifying refresh tokens.
+ * A user has one session per device; only a digest of each token is stored.
  */
 public interface RefreshTokenService {
     /**
      * Finds a refresh token by its token string.
+     * A token that was already replaced by rotation is treated as leaked, and its session is revoked.
      *
      * @param token The token string.
-     * @return An Optional containing the RefreshToken entity.
+     * @return An Optional containing the stored token.
+     * @throws com.example.bankcards.exception.TokenRefreshException if the token was already used.
      */
-    Optional<RefreshToken> findByToken(String token);
+    Optional<RefreshTokenEntry> findByToken(String token);
 
     /**
-     * Creates and persists a new refresh token for a given user.
-     * If a token for the user already exists, it will be replaced.
+     * Creates a new refresh token for a device of the user.
+     * If the device already has a session, its token is replaced; sessions of other devices are kept.
      *
-     * @param userId The ID of the user for whom the token is created.
-     * @return The created RefreshToken entity.
+     * @param userId   The ID of the user for whom the token is created.
+     * @param deviceId The device of the session.
+     * @return The token value to hand out to the client.
      */
-    RefreshToken createRefreshToken(UUID userId);
+    String createRefreshToken(UUID userId, String deviceId);
+
+    /**
+     * Replaces the token of a session with a new one.
+     *
+     * @param token The current token of the session.
+     * @return The new token value to hand out to the client.
+     * @throws com.example.bankcards.exception.TokenRefreshException if the token was rotated in the meantime.
+     */
+    String rotateRefreshToken(RefreshTokenEntry token);
 
     /**
      * Verifies if a refresh token has expired.
      *
-     * @param token The RefreshToken entity to check.
-     * @return The same RefreshToken entity if it's not expired.
-     * @throws RuntimeException (or a custom exception) if the token is expired.
+     * @param token The stored token to check.
+     * @return The same token if it's not expired.
+     * @throws com.example.bankcards.exception.TokenRefreshException if the token is expired.
+     */
+    RefreshTokenEntry verifyExpiration(RefreshTokenEntry token);
+
+    /**
+     * Deletes a single session of the user, identified by its current token.
+     *
+     * @param userId The ID of the user.
+     * @param token  The token string of the session.
      */
-    RefreshToken verifyExpiration(RefreshToken token);
+    void deleteByToken(UUID userId, String token);
 
     /**
-     * Deletes the refresh token associated with a user.
-     * Useful for logout functionality.
+     * Deletes all sessions of a user.
+     * Useful for logout from every device and for locking the account.
      *
-     * @param userId The ID of the user whose token should be deleted.
+     * @param userId The ID of the user whose tokens should be deleted.
      */
     void deleteByUserId(UUID userId);
 }
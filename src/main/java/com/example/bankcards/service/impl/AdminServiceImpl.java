@@ -1,9 +1,11 @@
 package com.example.bankcards.service.impl;
 
+import com.example.bankcards.dto.CardSummary;
 import com.example.bankcards.dto.request.CreateCardRequest;
 import com.example.bankcards.dto.request.UpdateProfileRequest;
 import com.example.bankcards.dto.request.UpdateUserRolesRequest;
 import com.example.bankcards.dto.response.CardResponse;
+import com.example.bankcards.dto.response.CursorPage;
 import com.example.bankcards.dto.response.UserDetailResponse;
 import com.example.bankcards.dto.response.UserResponseDto;
 import com.example.bankcards.entity.Card;
@@ -15,6 +17,8 @@ import com.example.bankcards.exception.ResourceNotFoundException;
 import com.example.bankcards.mapper.UserProfileMapper;
 import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.UserSecurityChangedEvent;
+import com.example.bankcards.security.impl.TokenRevocationRegistry;
 import com.example.bankcards.service.AdminService;
 import com.example.bankcards.service.RefreshTokenService;
 import com.example.bankcards.service.query.CardQueryService;
@@ -25,6 +29,7 @@ import com.example.bankcards.util.encryption.HashUtil;
 import com.example.bankcards.util.masking.CardMaskingUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -54,6 +59,8 @@ public class AdminServiceImpl implements AdminService {
     private final UserQueryService userQueryService;
     private final UserProfileMapper userProfileMapper;
     private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -92,7 +99,7 @@ public class AdminServiceImpl implements AdminService {
     public Page<CardResponse> findAllCards(Pageable pageable) {
         log.info("ADMIN_FIND_ALL_CARDS: [pageNumber={}, pageSize={}].",
                 pageable.getPageNumber(), pageable.getPageSize());
-        return cardRepository.findAll(pageable).map(cardMapper::toCardResponse);
+        return cardRepository.findAllSummaries(pageable).map(cardMapper::toCardResponse);
     }
 
     @Override
@@ -100,7 +107,7 @@ public class AdminServiceImpl implements AdminService {
     public Page<CardResponse> findAllCardsByUserId(UUID userId, Pageable pageable) {
         log.info("ADMIN_FIND_CARDS_BY_USER: [userId={}, pageNumber={}, pageSize={}].",
                 userId, pageable.getPageNumber(), pageable.getPageSize());
-        return cardRepository.findAllByOwnerId(userId, pageable).map(cardMapper::toCardResponse);
+        return cardRepository.findSummariesByOwnerId(userId, pageable).map(cardMapper::toCardResponse);
     }
 
     @Override
@@ -108,7 +115,37 @@ public class AdminServiceImpl implements AdminService {
     public Page<CardResponse> findCardsByStatus(CardStatus status, Pageable pageable) {
         log.info("ADMIN_FIND_CARDS_BY_STATUS: [status={}, pageNumber={}, pageSize={}].",
                 status, pageable.getPageNumber(), pageable.getPageSize());
-        return cardRepository.findAllByStatus(status, pageable).map(cardMapper::toCardResponse);
+        return cardRepository.findSummariesByStatus(status, pageable).map(cardMapper::toCardResponse);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<CardResponse> findAllCards(String cursor, int size) {
+        log.info("ADMIN_FIND_ALL_CARDS_BY_CURSOR: [size={}].", size);
+        int pageSize = CardCursorPager.pageSize(size);
+        CardCursorPager.Position after = CardCursorPager.decode(cursor);
+        return CardCursorPager.toPage(cardRepository.findAllSummariesAfter(
+                after.expirationDate(), after.id(), CardCursorPager.lookAhead(pageSize)), pageSize, cardMapper);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<CardResponse> findAllCardsByUserId(UUID userId, String cursor, int size) {
+        log.info("ADMIN_FIND_CARDS_BY_USER_BY_CURSOR: [userId={}, size={}].", userId, size);
+        int pageSize = CardCursorPager.pageSize(size);
+        CardCursorPager.Position after = CardCursorPager.decode(cursor);
+        return CardCursorPager.toPage(cardRepository.findSummariesByOwnerIdAfter(
+                userId, after.expirationDate(), after.id(), CardCursorPager.lookAhead(pageSize)), pageSize, cardMapper);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<CardResponse> findCardsByStatus(CardStatus status, String cursor, int size) {
+        log.info("ADMIN_FIND_CARDS_BY_STATUS_BY_CURSOR: [status={}, size={}].", status, size);
+        int pageSize = CardCursorPager.pageSize(size);
+        CardCursorPager.Position after = CardCursorPager.decode(cursor);
+        return CardCursorPager.toPage(cardRepository.findSummariesByStatusAfter(
+                status, after.expirationDate(), after.id(), CardCursorPager.lookAhead(pageSize)), pageSize, cardMapper);
     }
 
     @Override
@@ -168,6 +205,8 @@ public class AdminServiceImpl implements AdminService {
                 userId, request.roles());
         User user = userQueryService.findByIdOrThrow(userId);
         user.setRoles(request.roles());
+        revokeAccessTokens(user);
+        eventPublisher.publishEvent(new UserSecurityChangedEvent(user.getUsername()));
         return userMapper.toUserResponseDto(userRepository.save(user));
     }
 
@@ -177,6 +216,8 @@ public class AdminServiceImpl implements AdminService {
         log.info("ADMIN_LOCK_USER: [userId={}].", userId);
         User user = userQueryService.findByIdOrThrow(userId);
         user.setEnabled(false);
+        revokeAccessTokens(user);
+        eventPublisher.publishEvent(new UserSecurityChangedEvent(user.getUsername()));
         refreshTokenService.deleteByUserId(userId);
         log.info("ADMIN_LOCK_USER: Refresh token for user {} has been deleted.", userId);
         return userMapper.toUserResponseDto(userRepository.save(user));
@@ -188,6 +229,7 @@ public class AdminServiceImpl implements AdminService {
         log.info("ADMIN_UNLOCK_USER: [userId={}].", userId);
         User user = userQueryService.findByIdOrThrow(userId);
         user.setEnabled(true);
+        eventPublisher.publishEvent(new UserSecurityChangedEvent(user.getUsername()));
         return userMapper.toUserResponseDto(userRepository.save(user));
     }
 
@@ -199,20 +241,11 @@ public class AdminServiceImpl implements AdminService {
         User user = userRepository.findByIdWithDetails(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
 
-        UserDetailResponse response = userMapper.toUserDetailResponse(user);
-
-        List<CardResponse> cardResponses = user.getCards().stream()
+        List<CardResponse> cardResponses = cardRepository.findSummariesByOwnerIdIn(List.of(userId)).stream()
                 .map(cardMapper::toCardResponse)
                 .toList();
 
-        return new UserDetailResponse(
-                response.id(),
-                response.username(),
-                response.roles(),
-                response.isActive(),
-                response.profile(),
-                cardResponses
-        );
+        return userMapper.toUserDetailResponse(user, cardResponses);
     }
 
     @Override
@@ -229,13 +262,14 @@ public class AdminServiceImpl implements AdminService {
         }
 
         List<UUID> userIds = users.stream().map(User::getId).toList();
-        List<Card> cards = cardRepository.findAllByOwnerIdIn(userIds);
+        List<CardSummary> cards = cardRepository.findSummariesByOwnerIdIn(userIds);
 
-        Map<UUID, List<Card>> cardsByOwnerId = cards.stream()
-                .collect(Collectors.groupingBy(card -> card.getOwner().getId()));
+        Map<UUID, List<CardResponse>> cardsByOwnerId = cards.stream()
+                .collect(Collectors.groupingBy(CardSummary::ownerId,
+                        Collectors.mapping(cardMapper::toCardResponse, Collectors.toList())));
 
         List<UserDetailResponse> dtos = users.stream().map(user -> {
-            List<Card> userCards = cardsByOwnerId.getOrDefault(user.getId(), Collections.emptyList());
+            List<CardResponse> userCards = cardsByOwnerId.getOrDefault(user.getId(), Collections.emptyList());
             return userMapper.toUserDetailResponse(user, userCards);
         }).toList();
 
@@ -260,4 +294,13 @@ public class AdminServiceImpl implements AdminService {
         User updatedUser = userRepository.save(user);
         return userMapper.toUserDetailResponse(updatedUser);
     }
+
+    /**
+     * Bumps the security version of the user, so access tokens issued so far are rejected.
+     */
+    private void revokeAccessTokens(User user) {
+        user.setSecurityVersion(user.getSecurityVersion() + 1);
+        tokenRevocationRegistry.revokeBefore(user.getId(), user.getSecurityVersion());
+        log.info("ADMIN_REVOKE_ACCESS_TOKENS: [userId={}, securityVersion={}].", user.getId(), user.getSecurityVersion());
+    }
 }
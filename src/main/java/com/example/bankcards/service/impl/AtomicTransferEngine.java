@@ -0,0 +1,125 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.dto.TransferBalances;
+import com.example.bankcards.dto.request.TransferRequest;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.exception.InsufficientFundsException;
+import com.example.bankcards.exception.InvalidOperationException;
+import com.example.bankcards.exception.ResourceNotFoundException;
+import com.example.bankcards.exception.UnauthorizedOperationException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A transfer engine that never loads {@code Card} entities.
+ * <p>
+ * The debit and the credit are guarded {@code UPDATE ... RETURNING balance} statements, so every
+ * business rule is checked by the database while it takes the row lock, and the card number is
+ * never decrypted on the write path. The two rows are updated in the same UUID order the JPA engine
+ * locks them in, which keeps opposing transfers deadlock-free.
+ * <p>
+ * If a guard rejects the update, one extra read finds out which rule was broken and raises
+ * the same exception the JPA engine would.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.transfer.engine", havingValue = "atomic")
+class AtomicTransferEngine implements TransferEngine {
+    private static final String DEBIT_SQL = "UPDATE cards SET balance = balance - ? " +
+            "WHERE id = ? AND user_id = ? AND active = true AND status = ? AND balance >= ? RETURNING balance";
+    private static final String CREDIT_SQL = "UPDATE cards SET balance = balance + ? " +
+            "WHERE id = ? AND user_id = ? AND active = true RETURNING balance";
+    private static final String CARD_STATE_SQL = "SELECT user_id, status, balance FROM cards WHERE id = ? AND active = true";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public TransferBalances transfer(TransferRequest request, UUID userId) {
+        UUID fromCardId = request.fromCardId();
+        UUID toCardId = request.toCardId();
+        BigDecimal amount = request.amount();
+
+        if (fromCardId.equals(toCardId)) {
+            throw new InvalidOperationException("Source and destination cards cannot be the same.");
+        }
+
+        BigDecimal fromBalance;
+        BigDecimal toBalance;
+        // PostgreSQL orders UUIDs byte by byte, which matches the order of their canonical string form.
+        if (fromCardId.toString().compareTo(toCardId.toString()) < 0) {
+            fromBalance = debit(request, userId);
+            toBalance = credit(request, userId);
+        } else {
+            toBalance = credit(request, userId);
+            fromBalance = debit(request, userId);
+        }
+        return new TransferBalances(fromCardId, fromBalance, toCardId, toBalance);
+    }
+
+    private BigDecimal debit(TransferRequest request, UUID userId) {
+        List<BigDecimal> balance = jdbcTemplate.queryForList(DEBIT_SQL, BigDecimal.class,
+                request.amount(), request.fromCardId(), userId, CardStatus.ACTIVE.name(), request.amount());
+        if (balance.isEmpty()) {
+            throw diagnoseRejectedTransfer(request, userId);
+        }
+        return balance.get(0);
+    }
+
+    private BigDecimal credit(TransferRequest request, UUID userId) {
+        List<BigDecimal> balance = jdbcTemplate.queryForList(CREDIT_SQL, BigDecimal.class,
+                request.amount(), request.toCardId(), userId);
+        if (balance.isEmpty()) {
+            throw diagnoseRejectedTransfer(request, userId);
+        }
+        return balance.get(0);
+    }
+
+    /**
+     * Re-reads both cards to explain why a guarded update matched no row.
+     * The checks run in the same order as in the JPA engine.
+     */
+    private RuntimeException diagnoseRejectedTransfer(TransferRequest request, UUID userId) {
+        CardState fromCard = findCardState(request.fromCardId());
+        CardState toCard = findCardState(request.toCardId());
+
+        if (fromCard == null) {
+            return new ResourceNotFoundException("Active card", "id", request.fromCardId());
+        }
+        if (toCard == null) {
+            return new ResourceNotFoundException("Active card", "id", request.toCardId());
+        }
+        if (!fromCard.ownerId().equals(userId) || !toCard.ownerId().equals(userId)) {
+            return new UnauthorizedOperationException("User does not own one or both of the cards involved in the transfer.");
+        }
+        if (!CardStatus.ACTIVE.name().equals(fromCard.status())) {
+            return new InvalidOperationException("Source card is not active.");
+        }
+        if (fromCard.balance().compareTo(request.amount()) < 0) {
+            return new InsufficientFundsException(fromCard.balance(), request.amount());
+        }
+        // The card changed between the rejected update and this read; let the retry executor run the transfer again.
+        log.warn("TRANSFER_ATOMIC_RACE: [fromCardId={}, toCardId={}]. Reason: Card state changed during transfer.",
+                request.fromCardId(), request.toCardId());
+        return new ConcurrencyFailureException("Card state changed during transfer, retrying.");
+    }
+
+    private CardState findCardState(UUID cardId) {
+        List<CardState> states = jdbcTemplate.query(CARD_STATE_SQL, (rs, rowNum) -> new CardState(
+                rs.getObject("user_id", UUID.class),
+                rs.getString("status"),
+                rs.getBigDecimal("balance")), cardId);
+        return states.isEmpty() ? null : states.get(0);
+    }
+
+    record CardState(UUID ownerId, String status, BigDecimal balance) {
+    }
+}
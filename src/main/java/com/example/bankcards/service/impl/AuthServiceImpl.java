@@ -1,12 +1,12 @@
 package com.example.bankcards.service.impl;
 
+import com.example.bankcards.dto.RefreshTokenEntry;
 import com.example.bankcards.dto.request.LoginRequest;
 import com.example.bankcards.dto.request.RegistrationRequest;
 import com.example.bankcards.dto.request.TokenRefreshRequest;
 import com.example.bankcards.dto.response.JwtResponse;
 import com.example.bankcards.dto.response.TokenRefreshResponse;
 import com.example.bankcards.dto.response.UserResponseDto;
-import com.example.bankcards.entity.RefreshToken;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.entity.enums.Role;
 import com.example.bankcards.exception.DuplicateResourceException;
@@ -23,6 +23,8 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -32,12 +34,19 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 public class AuthServiceImpl implements AuthService {
+    /**
+     * The device of clients that do not send a device ID; the same value V014 assigned to existing sessions,
+     * so such clients keep a single session that every login replaces.
+     */
+    private static final String DEFAULT_DEVICE_ID = "legacy";
+
     private final  UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
     private final RefreshTokenService refreshTokenService;
     private final UserMapper userMapper;
+    private final UserDetailsService userDetailsService;
 
     @Override
     public UserResponseDto registerUser(RegistrationRequest request) {
@@ -59,35 +68,47 @@ public class AuthServiceImpl implements AuthService {
 
     @Override
     public JwtResponse loginUser(LoginRequest request) {
-        log.info("LOGIN_ATTEMPT: [username={}].", request.identifier());
+        log.atInfo().addKeyValue("username", request.identifier()).log("LOGIN_ATTEMPT");
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(request.identifier(), request.password()));
 
         SecurityContextHolder.getContext().setAuthentication(authentication);
         User userPrincipal = (User) authentication.getPrincipal();
         String accessToken = jwtService.generateAccessToken(authentication);
-        String refreshToken = refreshTokenService.createRefreshToken(userPrincipal.getId()).getToken();
+        String deviceId = request.deviceId() != null && !request.deviceId().isBlank()
+                ? request.deviceId()
+                : DEFAULT_DEVICE_ID;
+        String refreshToken = refreshTokenService.createRefreshToken(userPrincipal.getId(), deviceId);
         Set<String> roles = userPrincipal.getAuthorities().stream()
                 .map(GrantedAuthority::getAuthority)
                 .collect(Collectors.toSet());
 
-        log.info("LOGIN_SUCCESS: [userId={}, username={}].", userPrincipal.getId(), userPrincipal.getUsername());
+        log.atInfo()
+                .addKeyValue("userId", userPrincipal.getId())
+                .addKeyValue("username", userPrincipal.getUsername())
+                .log("LOGIN_SUCCESS");
         return new JwtResponse(
                 accessToken,
                 refreshToken,
                 userPrincipal.getId(),
                 userPrincipal.getUsername(),
-                roles
+                roles,
+                deviceId
         );
     }
 
     @Override
-    public void logoutUser() {
+    public void logoutUser(String refreshToken) {
         Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         if (principal instanceof User userPrincipal) {
             log.info("LOGOUT_ATTEMPT: [userId={}, username={}].", userPrincipal.getId(), userPrincipal.getUsername());
-            refreshTokenService.deleteByUserId(userPrincipal.getId());
-            log.info("LOGOUT_SUCCESS: [userId={}]. Refresh token deleted.", userPrincipal.getId());
+            if (refreshToken != null && !refreshToken.isBlank()) {
+                refreshTokenService.deleteByToken(userPrincipal.getId(), refreshToken);
+                log.info("LOGOUT_SUCCESS: [userId={}]. Session ended.", userPrincipal.getId());
+            } else {
+                refreshTokenService.deleteByUserId(userPrincipal.getId());
+                log.info("LOGOUT_SUCCESS: [userId={}]. All sessions ended.", userPrincipal.getId());
+            }
         }else {
             log.warn("LOGOUT_FAIL: Principal is not an instance of User. Type: {}",
                     principal != null ? principal.getClass().getName() : "null");
@@ -100,17 +121,26 @@ public class AuthServiceImpl implements AuthService {
         log.info("TOKEN_REFRESH_ATTEMPT: [refreshToken=...{}].", request.refreshToken().substring(request.refreshToken().length() - 4));
         String requestRefreshToken = request.refreshToken();
 
-        return refreshTokenService.findByToken(requestRefreshToken)
+        RefreshTokenEntry token = refreshTokenService.findByToken(requestRefreshToken)
                 .map(refreshTokenService::verifyExpiration)
-                .map(RefreshToken::getUser)
-                .map(user -> {
-                    String newAccessToken = jwtService.generateAccessTokenForUser(user);
-                    log.info("TOKEN_REFRESH_SUCCESS: [userId={}]. New access token generated.", user.getId());
-                    return new TokenRefreshResponse(newAccessToken, requestRefreshToken);
-                })
                 .orElseThrow(() ->{
                     log.warn("TOKEN_REFRESH_FAIL: Refresh token not found in database.");
                     return new TokenRefreshException("Refresh token is not in database!");
                 });
+        // Пользователь берётся из кэша UserDetailsService; заблокированный пользователь не найден
+        User user = loadActiveUser(token.username());
+        String newRefreshToken = refreshTokenService.rotateRefreshToken(token);
+        String newAccessToken = jwtService.generateAccessTokenForUser(user);
+        log.info("TOKEN_REFRESH_SUCCESS: [userId={}, deviceId={}]. New access token generated.", user.getId(), token.deviceId());
+        return new TokenRefreshResponse(newAccessToken, newRefreshToken);
+    }
+
+    private User loadActiveUser(String username) {
+        try {
+            return (User) userDetailsService.loadUserByUsername(username);
+        } catch (UsernameNotFoundException e) {
+            log.warn("TOKEN_REFRESH_FAIL: [username={}]. Reason: User is not active.", username);
+            throw new TokenRefreshException("User of the refresh token is not active!");
+        }
     }
 }
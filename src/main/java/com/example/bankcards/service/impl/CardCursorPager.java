@@ -0,0 +1,81 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.dto.CardSummary;
+import com.example.bankcards.dto.response.CardResponse;
+import com.example.bankcards.dto.response.CursorPage;
+import com.example.bankcards.exception.InvalidOperationException;
+import com.example.bankcards.mapper.CardMapper;
+import com.example.bankcards.util.pagination.CursorCodec;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Shared keyset logic of the card cursor listings, which are ordered by (expiration date, id).
+ * The first page seeks from a position before any real card, so one query serves every page.
+ */
+final class CardCursorPager {
+    static final int MAX_PAGE_SIZE = 100;
+    private static final Position START = new Position(LocalDate.of(1, 1, 1), new UUID(0, 0));
+
+    private CardCursorPager() {
+    }
+
+    static int pageSize(int size) {
+        return Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+    }
+
+    /**
+     * A request for one page plus one look-ahead row, which tells whether there is a next page.
+     */
+    static Pageable lookAhead(int pageSize) {
+        return PageRequest.of(0, pageSize + 1);
+    }
+
+    /**
+     * Decodes the position after which the page starts.
+     *
+     * @throws InvalidOperationException if the cursor is malformed.
+     */
+    static Position decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return START;
+        }
+        String[] keyset = CursorCodec.decode(cursor, 2);
+        try {
+            return new Position(YearMonth.parse(keyset[0]).atDay(1), UUID.fromString(keyset[1]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidOperationException("Invalid pagination cursor.");
+        }
+    }
+
+    /**
+     * Cuts the look-ahead row off and builds the cursor of the next page from the last returned card.
+     */
+    static CursorPage<CardResponse> toPage(List<CardSummary> rows, int pageSize, CardMapper cardMapper) {
+        boolean hasNext = rows.size() > pageSize;
+        List<CardSummary> pageRows = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            CardSummary last = pageRows.get(pageRows.size() - 1);
+            nextCursor = CursorCodec.encode(last.expirationDate().toString(), last.id().toString());
+        }
+        return new CursorPage<>(
+                pageRows.stream().map(cardMapper::toCardResponse).toList(),
+                pageSize,
+                nextCursor,
+                hasNext
+        );
+    }
+
+    /**
+     * A keyset position. The expiration date is the stored column value, the first day of the month.
+     */
+    record Position(LocalDate expirationDate, UUID id) {
+    }
+}
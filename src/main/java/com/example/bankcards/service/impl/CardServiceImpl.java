@@ -1,51 +1,84 @@
 package com.example.bankcards.service.impl;
 
-import com.example.bankcards.dto.LockedCards;
+import com.example.bankcards.config.datasource.ReadYourWritesRegistry;
+import com.example.bankcards.dto.CardSummary;
+import com.example.bankcards.dto.TransferBalances;
 import com.example.bankcards.dto.request.TransferRequest;
 import com.example.bankcards.dto.response.CardResponse;
+import com.example.bankcards.dto.response.CursorPage;
+import com.example.bankcards.dto.response.TransactionHistoryResponse;
 import com.example.bankcards.dto.response.TransactionResponse;
 import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardTransaction;
 import com.example.bankcards.entity.enums.CardStatus;
-import com.example.bankcards.exception.InsufficientFundsException;
+import com.example.bankcards.entity.enums.TransactionType;
 import com.example.bankcards.exception.InvalidOperationException;
 import com.example.bankcards.exception.ResourceNotFoundException;
-import com.example.bankcards.exception.UnauthorizedOperationException;
 import com.example.bankcards.mapper.CardMapper;
+import com.example.bankcards.mapper.TransactionMapper;
 import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.CardTransactionRepository;
 import com.example.bankcards.service.CardService;
 import com.example.bankcards.service.query.CardQueryService;
+import com.example.bankcards.util.pagination.CursorCodec;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Slf4j
 @Service("userCardService")
 @RequiredArgsConstructor
 public class CardServiceImpl implements CardService {
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+
     private final CardRepository cardRepository;
     private final CardMapper cardMapper;
     private final CardQueryService cardQueryService;
+    private final TransferRetryExecutor transferRetryExecutor;
+    private final TransferEngine transferEngine;
+    private final CardTransactionRepository cardTransactionRepository;
+    private final TransactionMapper transactionMapper;
+    private final IdempotencyStore idempotencyStore;
+    private final ReadYourWritesRegistry readYourWritesRegistry;
+    private final TransferMetrics transferMetrics;
 
     @Override
     @Transactional(readOnly = true)
     public Page<CardResponse> findMyCards(UUID userId, Pageable pageable) {
         log.info("FIND_MY_CARDS: [userId={}].", userId);
-        Page<Card> cards = cardRepository.findAllByOwnerIdAndActiveTrue(userId, pageable);
+        Page<CardSummary> cards = cardRepository.findSummariesByOwnerIdAndActiveTrue(userId, pageable);
         return cards.map(cardMapper::toCardResponse);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<CardResponse> findMyCards(UUID userId, String cursor, int size) {
+        log.info("FIND_MY_CARDS_BY_CURSOR: [userId={}].", userId);
+        int pageSize = CardCursorPager.pageSize(size);
+        CardCursorPager.Position after = CardCursorPager.decode(cursor);
+        List<CardSummary> rows = cardRepository.findSummariesByOwnerIdAndActiveTrueAfter(
+                userId, after.expirationDate(), after.id(), CardCursorPager.lookAhead(pageSize));
+        return CardCursorPager.toPage(rows, pageSize, cardMapper);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public CardResponse findMyCardById(UUID cardId, UUID userId) {
         log.info("FIND_MY_CARD_BY_ID: [userId={}, cardId={}].", userId, cardId);
-        Card card = cardQueryService.findActiveByIdAndOwnerOrThrow(cardId, userId);
+        CardSummary card = cardRepository.findSummaryByIdAndOwnerIdAndActiveTrue(cardId, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Active card for user", "id", cardId));
         return cardMapper.toCardResponse(card);
     }
 
@@ -72,69 +105,143 @@ public class CardServiceImpl implements CardService {
     @Transactional(readOnly = true)
     public BigDecimal getMyCardBalance(UUID cardId, UUID userId) {
         log.info("GET_MY_CARD_BALANCE: [userId={}, cardId={}].", userId, cardId);
-        Card card = cardRepository.findByIdAndOwnerIdAndActiveTrue(cardId, userId)
+        return cardRepository.findBalanceByIdAndOwnerIdAndActiveTrue(cardId, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Active card", "id", cardId));
-        return card.getBalance();
     }
 
     @Override
-    @Transactional
     public TransactionResponse transferBetweenMyCards(TransferRequest request, UUID userId) {
-        log.info("TRANSFER_START: [userId={}, fromCardId={}, toCardId={}, amount={}].",
-                userId, request.fromCardId(), request.toCardId(), request.amount());
-
-        LockedCards cards = findAndLockActiveCardsForTransfer(request.fromCardId(), request.toCardId());
-        validateTransfer(request, cards.fromCard(), cards.toCard(), userId);
-        LockedCards updatedCards = executeTransfer(request.amount(), cards.fromCard(), cards.toCard());
-
-        log.info("TRANSFER_SUCCESS: [userId={}].", userId);
-
-        return cardMapper.toTransactionResponseDto(updatedCards.fromCard(), updatedCards.toCard());
+        return transferBetweenMyCards(request, userId, null);
     }
 
     /**
-     * Finds and applies a pessimistic lock on both ACTIVE cards involved in a transfer.
+     * The transaction is managed by {@link TransferRetryExecutor}: each retry after a deadlock
+     * or serialization failure runs in a fresh transaction.
+     * A replayed idempotency key is answered before any card row is locked.
+     * After the commit, the user's reads are pinned to the primary, see {@link ReadYourWritesRegistry}.
+     * The duration and outcome are published by {@link TransferMetrics}.
      */
-    private LockedCards findAndLockActiveCardsForTransfer(UUID fromCardId, UUID toCardId) {
-        Card fromCard = cardQueryService.findActiveByIdWithLockOrThrow(fromCardId);
-        Card toCard = cardQueryService.findActiveByIdWithLockOrThrow(toCardId);
-        return new LockedCards(fromCard, toCard);
+    @Override
+    public TransactionResponse transferBetweenMyCards(TransferRequest request, UUID userId, String idempotencyKey) {
+        return transferMetrics.record(() -> transfer(request, userId, idempotencyKey));
     }
 
-    /**
-     * Validates a transfer operation based on business rules for a user's own cards.
-     */
-    private void validateTransfer(TransferRequest request, Card fromCard, Card toCard, UUID userId) {
-        if (fromCard.getId().equals(toCard.getId())) {
-            throw new InvalidOperationException("Source and destination cards cannot be the same.");
+    private TransactionResponse transfer(TransferRequest request, UUID userId, String idempotencyKey) {
+        log.atInfo()
+                .addKeyValue("userId", userId)
+                .addKeyValue("fromCardId", request.fromCardId())
+                .addKeyValue("toCardId", request.toCardId())
+                .addKeyValue("amount", request.amount())
+                .log("TRANSFER_START");
+
+        if (idempotencyKey != null) {
+            Optional<TransactionResponse> storedResponse = idempotencyStore.findStoredResponse(userId, idempotencyKey, request);
+            if (storedResponse.isPresent()) {
+                log.info("TRANSFER_REPLAY: [userId={}]. Returning stored result for idempotency key.", userId);
+                return storedResponse.get();
+            }
         }
 
-        if (!fromCard.getOwner().getId().equals(userId) || !toCard.getOwner().getId().equals(userId)) {
-            throw new UnauthorizedOperationException("User does not own one or both of the cards involved in the transfer.");
+        TransactionResponse response;
+        try {
+            response = transferRetryExecutor.execute(() -> {
+                TransferBalances balances = transferEngine.transfer(request, userId);
+                recordLedgerEntries(request.amount(), balances);
+                TransactionResponse result = cardMapper.toTransactionResponseDto(balances);
+                if (idempotencyKey != null) {
+                    idempotencyStore.save(userId, idempotencyKey, request, result);
+                }
+                return result;
+            });
+        } catch (DataIntegrityViolationException e) {
+            if (idempotencyKey == null) {
+                throw e;
+            }
+            // A concurrent request with the same key committed first; this transfer was rolled back.
+            log.info("TRANSFER_REPLAY: [userId={}]. Concurrent request with the same idempotency key won.", userId);
+            return idempotencyStore.findStoredResponse(userId, idempotencyKey, request).orElseThrow(() -> e);
         }
 
-        if (fromCard.getStatus() != CardStatus.ACTIVE) {
-            throw new InvalidOperationException("Source card is not active.");
-        }
+        // Балансы после перевода читаются с primary, пока реплика не догонит
+        readYourWritesRegistry.pin(userId);
+        log.atInfo().addKeyValue("userId", userId).log("TRANSFER_SUCCESS");
 
-        if (fromCard.getBalance().compareTo(request.amount()) < 0) {
-            throw new InsufficientFundsException(fromCard.getBalance(), request.amount());
-        }
+        return response;
     }
 
     /**
-     * Executes the actual balance change and saves the cards.
+     * Appends the DEBIT and CREDIT entries of a transfer to the ledger
+     * in the same transaction as the balance change.
      */
-    private LockedCards  executeTransfer(BigDecimal amount, Card fromCard, Card toCard) {
-        fromCard.setBalance(fromCard.getBalance().subtract(amount));
-        toCard.setBalance(toCard.getBalance().add(amount));
+    private void recordLedgerEntries(BigDecimal amount, TransferBalances balances) {
+        UUID transferId = UUID.randomUUID();
+        Instant createdAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
+
+        cardTransactionRepository.saveAll(List.of(
+                CardTransaction.builder()
+                        .transferId(transferId)
+                        .cardId(balances.fromCardId())
+                        .counterpartyCardId(balances.toCardId())
+                        .type(TransactionType.DEBIT)
+                        .amount(amount)
+                        .balanceAfter(balances.fromBalance())
+                        .createdAt(createdAt)
+                        .build(),
+                CardTransaction.builder()
+                        .transferId(transferId)
+                        .cardId(balances.toCardId())
+                        .counterpartyCardId(balances.fromCardId())
+                        .type(TransactionType.CREDIT)
+                        .amount(amount)
+                        .balanceAfter(balances.toBalance())
+                        .createdAt(createdAt)
+                        .build()
+        ));
+    }
 
-        List<Card> savedCards = cardRepository.saveAll(List.of(fromCard, toCard));
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<TransactionHistoryResponse> findMyCardTransactions(UUID cardId, UUID userId, String cursor, int size) {
+        log.info("FIND_MY_CARD_TRANSACTIONS: [userId={}, cardId={}].", userId, cardId);
+        if (!cardRepository.existsByIdAndOwnerIdAndActiveTrue(cardId, userId)) {
+            throw new ResourceNotFoundException("Active card for user", "id", cardId);
+        }
 
-        Card savedFromCard = savedCards.stream().filter(c -> c.getId().equals(fromCard.getId())).findFirst().orElse(fromCard);
-        Card savedToCard = savedCards.stream().filter(c -> c.getId().equals(toCard.getId())).findFirst().orElse(toCard);
+        int pageSize = Math.min(Math.max(size, 1), MAX_HISTORY_PAGE_SIZE);
+        List<CardTransaction> entries = findLedgerPage(cardId, cursor, pageSize + 1);
 
-        return new LockedCards(savedFromCard, savedToCard);
+        boolean hasNext = entries.size() > pageSize;
+        List<CardTransaction> pageEntries = hasNext ? entries.subList(0, pageSize) : entries;
+        String nextCursor = null;
+        if (hasNext) {
+            CardTransaction last = pageEntries.get(pageEntries.size() - 1);
+            nextCursor = CursorCodec.encode(last.getCreatedAt().toString(), last.getId().toString());
+        }
 
+        return new CursorPage<>(
+                pageEntries.stream().map(transactionMapper::toTransactionHistoryResponse).toList(),
+                pageSize,
+                nextCursor,
+                hasNext
+        );
+    }
+
+    /**
+     * Fetches one page (plus one look-ahead row) of ledger entries, seeking past the cursor if present.
+     */
+    private List<CardTransaction> findLedgerPage(UUID cardId, String cursor, int limit) {
+        if (cursor == null || cursor.isBlank()) {
+            return cardTransactionRepository.findLatestByCardId(cardId, limit);
+        }
+        String[] keyset = CursorCodec.decode(cursor, 2);
+        Instant createdAt;
+        UUID id;
+        try {
+            createdAt = Instant.parse(keyset[0]);
+            id = UUID.fromString(keyset[1]);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidOperationException("Invalid pagination cursor.");
+        }
+        return cardTransactionRepository.findByCardIdBefore(cardId, createdAt, id, limit);
     }
 }
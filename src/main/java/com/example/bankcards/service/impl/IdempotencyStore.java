@@ -0,0 +1,145 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.dto.request.TransferRequest;
+import com.example.bankcards.dto.response.TransactionResponse;
+import com.example.bankcards.entity.IdempotencyRecord;
+import com.example.bankcards.exception.DuplicateResourceException;
+import com.example.bankcards.exception.InvalidOperationException;
+import com.example.bankcards.repository.IdempotencyRecordRepository;
+import com.example.bankcards.util.cache.LruCache;
+import com.example.bankcards.util.encryption.HashUtil;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Stores the outcome of transfers made with an Idempotency-Key header.
+ * A bounded in-memory LRU cache sits in front of the unique-indexed {@code idempotency_keys} table,
+ * so most replays are answered without touching the database and none of them take row locks.
+ */
+@Slf4j
+@Component
+class IdempotencyStore {
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final LruCache<String, StoredResponse> cache;
+    private final long ttlMs;
+
+    IdempotencyStore(IdempotencyRecordRepository idempotencyRecordRepository,
+                     ObjectMapper objectMapper,
+                     @Value("${app.idempotency.cache-size:10000}") int cacheSize,
+                     @Value("${app.idempotency.ttl-ms:86400000}") long ttlMs) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        this.cache = new LruCache<>(cacheSize);
+        this.ttlMs = ttlMs;
+    }
+
+    /**
+     * Returns the stored response of an earlier transfer made with the same key.
+     *
+     * @throws DuplicateResourceException if the key was already used for a different transfer.
+     */
+    Optional<TransactionResponse> findStoredResponse(UUID userId, String idempotencyKey, TransferRequest request) {
+        validateKey(idempotencyKey);
+        String cacheKey = cacheKey(userId, idempotencyKey);
+        Instant now = Instant.now();
+
+        StoredResponse stored = cache.get(cacheKey);
+        if (stored == null || stored.expiresAt().isBefore(now)) {
+            stored = idempotencyRecordRepository.findByUserIdAndIdempotencyKey(userId, idempotencyKey)
+                    .filter(record -> record.getExpiresAt().isAfter(now))
+                    .map(record -> new StoredResponse(record.getRequestHash(),
+                            deserialize(record.getResponseBody()), record.getExpiresAt()))
+                    .orElse(null);
+            if (stored == null) {
+                cache.remove(cacheKey);
+                return Optional.empty();
+            }
+            cache.put(cacheKey, stored);
+        }
+
+        if (!stored.requestHash().equals(hash(request))) {
+            log.warn("IDEMPOTENCY_KEY_REUSED: [userId={}]. Reason: Key was used for a different request.", userId);
+            throw new DuplicateResourceException("Idempotency key", "value", idempotencyKey);
+        }
+        return Optional.of(stored.response());
+    }
+
+    /**
+     * Persists the response of a transfer under its idempotency key.
+     * Must be called inside the transfer's transaction: if two requests with the same key race,
+     * the unique index rejects the second one and its transfer is rolled back.
+     * An expired record for the same key that has not been purged yet is deleted first,
+     * otherwise it would collide with the new one on the unique index.
+     * The cache is only populated once the transaction has committed.
+     */
+    void save(UUID userId, String idempotencyKey, TransferRequest request, TransactionResponse response) {
+        Instant now = Instant.now();
+        idempotencyRecordRepository.deleteExpired(userId, idempotencyKey, now);
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setUserId(userId);
+        record.setIdempotencyKey(idempotencyKey);
+        record.setRequestHash(hash(request));
+        record.setResponseBody(serialize(response));
+        record.setCreatedAt(now);
+        record.setExpiresAt(now.plusMillis(ttlMs));
+        idempotencyRecordRepository.saveAndFlush(record);
+
+        StoredResponse stored = new StoredResponse(record.getRequestHash(), response, record.getExpiresAt());
+        String cacheKey = cacheKey(userId, idempotencyKey);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.put(cacheKey, stored);
+                }
+            });
+        } else {
+            cache.put(cacheKey, stored);
+        }
+    }
+
+    private void validateKey(String idempotencyKey) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new InvalidOperationException("Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters long.");
+        }
+    }
+
+    private String cacheKey(UUID userId, String idempotencyKey) {
+        return userId + ":" + idempotencyKey;
+    }
+
+    private String hash(TransferRequest request) {
+        return HashUtil.sha256(request.fromCardId() + "|" + request.toCardId() + "|" + request.amount().toPlainString());
+    }
+
+    private String serialize(TransactionResponse response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize transfer response", e);
+        }
+    }
+
+    private TransactionResponse deserialize(String responseBody) {
+        try {
+            return objectMapper.readValue(responseBody, TransactionResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to deserialize stored transfer response", e);
+        }
+    }
+
+    private record StoredResponse(String requestHash, TransactionResponse response, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.dto.LockedCards;
+import com.example.bankcards.dto.TransferBalances;
+import com.example.bankcards.dto.request.TransferRequest;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.exception.InsufficientFundsException;
+import com.example.bankcards.exception.InvalidOperationException;
+import com.example.bankcards.exception.UnauthorizedOperationException;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.service.query.CardQueryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The default transfer engine: locks both cards as entities, validates them in Java
+ * and lets Hibernate write the new balances.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.transfer.engine", havingValue = "jpa", matchIfMissing = true)
+class JpaTransferEngine implements TransferEngine {
+    private final CardRepository cardRepository;
+    private final CardQueryService cardQueryService;
+
+    @Override
+    public TransferBalances transfer(TransferRequest request, UUID userId) {
+        LockedCards cards = cardQueryService.findActivePairWithLockOrThrow(request.fromCardId(), request.toCardId());
+        validateTransfer(request, cards.fromCard(), cards.toCard(), userId);
+        LockedCards updatedCards = executeTransfer(request.amount(), cards.fromCard(), cards.toCard());
+        return new TransferBalances(
+                updatedCards.fromCard().getId(), updatedCards.fromCard().getBalance(),
+                updatedCards.toCard().getId(), updatedCards.toCard().getBalance());
+    }
+
+    /**
+     * Validates a transfer operation based on business rules for a user's own cards.
+     */
+    private void validateTransfer(TransferRequest request, Card fromCard, Card toCard, UUID userId) {
+        if (fromCard.getId().equals(toCard.getId())) {
+            throw new InvalidOperationException("Source and destination cards cannot be the same.");
+        }
+
+        if (!fromCard.getOwner().getId().equals(userId) || !toCard.getOwner().getId().equals(userId)) {
+            throw new UnauthorizedOperationException("User does not own one or both of the cards involved in the transfer.");
+        }
+
+        if (fromCard.getStatus() != CardStatus.ACTIVE) {
+            throw new InvalidOperationException("Source card is not active.");
+        }
+
+        if (fromCard.getBalance().compareTo(request.amount()) < 0) {
+            throw new InsufficientFundsException(fromCard.getBalance(), request.amount());
+        }
+    }
+
+    /**
+     * Executes the actual balance change and saves the cards.
+     */
+    private LockedCards executeTransfer(BigDecimal amount, Card fromCard, Card toCard) {
+        fromCard.setBalance(fromCard.getBalance().subtract(amount));
+        toCard.setBalance(toCard.getBalance().add(amount));
+
+        List<Card> savedCards = cardRepository.saveAll(List.of(fromCard, toCard));
+
+        Card savedFromCard = savedCards.stream().filter(c -> c.getId().equals(fromCard.getId())).findFirst().orElse(fromCard);
+        Card savedToCard = savedCards.stream().filter(c -> c.getId().equals(toCard.getId())).findFirst().orElse(toCard);
+
+        return new LockedCards(savedFromCard, savedToCard);
+    }
+}
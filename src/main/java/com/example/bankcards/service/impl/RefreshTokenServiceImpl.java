@@ -1,70 +1,127 @@
 package com.example.bankcards.service.impl;
 
-import com.example.bankcards.entity.RefreshToken;
-import com.example.bankcards.exception.ResourceNotFoundException;
+import com.example.bankcards.dto.RefreshTokenEntry;
 import com.example.bankcards.exception.TokenRefreshException;
 import com.example.bankcards.repository.RefreshTokenRepository;
-import com.example.bankcards.repository.UserRepository;
 import com.example.bankcards.service.RefreshTokenService;
-import com.example.bankcards.service.query.UserQueryService;
+import com.example.bankcards.util.cache.NonPinningCache;
+import com.example.bankcards.util.encryption.HashUtil;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import jakarta.transaction.Transactional;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Predicate;
 
+/**
+ * Refresh tokens are stored as SHA-256 digests, so a database dump does not contain usable tokens.
+ * <p>
+ * A user has one session per device. Login upserts the session of the device, and every refresh
+ * rotates its token with a conditional update; the replaced digest is kept, so a second use of an old
+ * token is detected and revokes the session.
+ * <p>
+ * Lookups go through a bounded Caffeine cache keyed by the digest, and a rotated token is written
+ * through, so a refresh usually does not select from the database. A stale cache entry cannot be used
+ * to refresh: the rotation only succeeds while the token is still current in the database.
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class RefreshTokenServiceImpl implements RefreshTokenService {
 
     private final RefreshTokenRepository refreshTokenRepository;
-    private final UserQueryService userQueryService;
+    private final NonPinningCache<String, RefreshTokenEntry> cache;
 
     @Value("${app.jwt.refreshExpirationMs}")
     private Long refreshTokenDurationMs;
 
+    public RefreshTokenServiceImpl(RefreshTokenRepository refreshTokenRepository,
+                                   @Value("${app.refresh-token.cache.maximum-size:10000}") long maximumSize,
+                                   @Value("${app.refresh-token.cache.ttl-ms:300000}") long ttlMs) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.cache = new NonPinningCache<>(Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs)));
+    }
+
     @Override
-    public Optional<RefreshToken> findByToken(String token) {
-        return refreshTokenRepository.findByToken(token);
+    public Optional<RefreshTokenEntry> findByToken(String token) {
+        String tokenHash = HashUtil.sha256(token);
+        RefreshTokenEntry entry = cache.get(tokenHash,
+                hash -> refreshTokenRepository.findEntryByTokenHash(hash).orElse(null));
+        if (entry == null) {
+            revokeIfReused(tokenHash);
+        }
+        return Optional.ofNullable(entry);
     }
 
     @Override
     @Transactional
-    public RefreshToken createRefreshToken(UUID userId) {
-        deleteByUserId(userId);
-        log.info("CREATE_REFRESH_TOKEN: [userId={}].", userId);
-        RefreshToken refreshToken = new RefreshToken();
-
-        refreshToken.setUser(userQueryService.findByIdOrThrow(userId));
-        refreshToken.setExpiryDate(Instant.now().plusMillis(refreshTokenDurationMs));
-        refreshToken.setToken(UUID.randomUUID().toString());
-        RefreshToken savedToken = refreshTokenRepository.save(refreshToken);
-        log.info("CREATE_REFRESH_TOKEN_SUCCESS: [userId={}, tokenId={}].", userId, savedToken.getId());
-        return savedToken;
+    public String createRefreshToken(UUID userId, String deviceId) {
+        log.atDebug().addKeyValue("userId", userId).addKeyValue("deviceId", deviceId).log("CREATE_REFRESH_TOKEN");
+        String token = UUID.randomUUID().toString();
+        refreshTokenRepository.upsertSession(userId, deviceId, HashUtil.sha256(token),
+                Instant.now().plusMillis(refreshTokenDurationMs));
+        log.atInfo().addKeyValue("userId", userId).addKeyValue("deviceId", deviceId).log("CREATE_REFRESH_TOKEN_SUCCESS");
+        return token;
     }
 
     @Override
-    @Transactional
-    public RefreshToken verifyExpiration(RefreshToken token) {
-        log.info("VERIFY_REFRESH_TOKEN_EXPIRATION: [tokenId={}].", token.getId());
-        if (token.getExpiryDate().isBefore(Instant.now())) {
-            refreshTokenRepository.delete(token);
-            log.warn("VERIFY_REFRESH_TOKEN_FAIL: [tokenId={}]. Reason: Token expired. Token deleted.", token.getId());
-            throw new TokenRefreshException(token.getToken(), "Token has expired!");
+    @Transactional(dontRollbackOn = TokenRefreshException.class)
+    public String rotateRefreshToken(RefreshTokenEntry token) {
+        String newToken = UUID.randomUUID().toString();
+        String newTokenHash = HashUtil.sha256(newToken);
+        int rotated = refreshTokenRepository.rotateTokenHash(token.tokenHash(), newTokenHash);
+        evictToken(token.tokenHash());
+        if (rotated == 0) {
+            // Токен уже заменён другим запросом: считаем это повторным использованием
+            revokeIfReused(token.tokenHash());
+            throw new TokenRefreshException("Refresh token has already been used!");
+        }
+        RefreshTokenEntry rotatedEntry = new RefreshTokenEntry(token.tokenId(), newTokenHash, token.userId(),
+                token.username(), token.deviceId(), token.expiryDate());
+        afterCommit(() -> cache.put(newTokenHash, rotatedEntry));
+        log.atInfo()
+                .addKeyValue("tokenId", token.tokenId())
+                .addKeyValue("deviceId", token.deviceId())
+                .log("ROTATE_REFRESH_TOKEN_SUCCESS");
+        return newToken;
+    }
+
+    @Override
+    @Transactional(dontRollbackOn = TokenRefreshException.class)
+    public RefreshTokenEntry verifyExpiration(RefreshTokenEntry token) {
+        log.atDebug().addKeyValue("tokenId", token.tokenId()).log("VERIFY_REFRESH_TOKEN_EXPIRATION");
+        if (token.expiryDate().isBefore(Instant.now())) {
+            refreshTokenRepository.deleteById(token.tokenId());
+            evictToken(token.tokenHash());
+            log.warn("VERIFY_REFRESH_TOKEN_FAIL: [tokenId={}]. Reason: Token expired. Token deleted.", token.tokenId());
+            throw new TokenRefreshException("Refresh token has expired!");
         }
         return token;
     }
 
+    @Override
+    @Transactional
+    public void deleteByToken(UUID userId, String token) {
+        String tokenHash = HashUtil.sha256(token);
+        int deletedCount = refreshTokenRepository.deleteByUserIdAndTokenHash(userId, tokenHash);
+        evictToken(tokenHash);
+        log.info("DELETE_REFRESH_TOKEN_SESSION: [userId={}]. Deleted {} session(s).", userId, deletedCount);
+    }
+
     @Override
     @Transactional
     public void deleteByUserId(UUID userId) {
         log.info("DELETE_REFRESH_TOKEN: [userId={}].", userId);
         int deletedCount = refreshTokenRepository.deleteByUserId(userId); // Исправлено имя метода
+        evictUser(userId);
         if (deletedCount > 0) {
             log.info("DELETE_REFRESH_TOKEN_SUCCESS: [userId={}]. Deleted {} token(s).", userId, deletedCount);
         } else {
@@ -72,4 +129,49 @@ public class RefreshTokenServiceImpl implements RefreshTokenService {
         }
 
     }
+
+    /**
+     * Revokes the session whose previous token is presented again.
+     *
+     * @throws TokenRefreshException if such a session existed.
+     */
+    private void revokeIfReused(String tokenHash) {
+        int revoked = refreshTokenRepository.deleteByPreviousTokenHash(tokenHash);
+        if (revoked > 0) {
+            log.warn("REFRESH_TOKEN_REUSE_DETECTED: [revokedSessions={}].", revoked);
+            throw new TokenRefreshException("Refresh token has already been used! The session has been revoked.");
+        }
+    }
+
+    /**
+     * Evicts a token right away and once more after commit, in case a concurrent
+     * lookup cached it again while the transaction was still open.
+     */
+    private void evictToken(String tokenHash) {
+        cache.invalidate(tokenHash);
+        afterCommit(() -> cache.invalidate(tokenHash));
+    }
+
+    /**
+     * Evicts all sessions of a user. The cache is keyed by digest, so this scans the bounded cache
+     * instead of selecting the user's digests before the delete.
+     */
+    private void evictUser(UUID userId) {
+        Predicate<RefreshTokenEntry> ofUser = cached -> cached.userId().equals(userId);
+        cache.asMap().values().removeIf(ofUser);
+        afterCommit(() -> cache.asMap().values().removeIf(ofUser));
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
 }
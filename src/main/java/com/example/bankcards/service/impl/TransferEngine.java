@@ -0,0 +1,23 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.dto.TransferBalances;
+import com.example.bankcards.dto.request.TransferRequest;
+
+import java.util.UUID;
+
+/**
+ * Applies the balance change of a transfer between two cards of the same user.
+ * Implementations run inside the caller's transaction and signal every rule violation
+ * with the same exceptions, so they can be swapped via {@code app.transfer.engine}.
+ */
+interface TransferEngine {
+
+    /**
+     * Debits the source card and credits the destination card.
+     *
+     * @param request The transfer details.
+     * @param userId  The ID of the user who must own both cards.
+     * @return The balances of both cards after the transfer.
+     */
+    TransferBalances transfer(TransferRequest request, UUID userId);
+}
@@ -0,0 +1,70 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.exception.InsufficientFundsException;
+import com.example.bankcards.exception.InvalidOperationException;
+import com.example.bankcards.exception.ResourceNotFoundException;
+import com.example.bankcards.exception.UnauthorizedOperationException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Publishes the latency and outcome of card transfers.
+ * <p>
+ * {@code transfer.duration} is tagged with the transfer engine and the outcome: {@code success},
+ * {@code insufficient_funds}, {@code rejected} (another business rule failed) or {@code error}.
+ * Insufficient-funds rejections are also counted by {@code transfer.insufficient_funds}.
+ */
+@Component
+class TransferMetrics {
+    private final Timer successTimer;
+    private final Timer insufficientFundsTimer;
+    private final Timer rejectedTimer;
+    private final Timer errorTimer;
+    private final Counter insufficientFundsCounter;
+
+    TransferMetrics(MeterRegistry meterRegistry, @Value("${app.transfer.engine:jpa}") String engine) {
+        this.successTimer = durationTimer(meterRegistry, engine, "success");
+        this.insufficientFundsTimer = durationTimer(meterRegistry, engine, "insufficient_funds");
+        this.rejectedTimer = durationTimer(meterRegistry, engine, "rejected");
+        this.errorTimer = durationTimer(meterRegistry, engine, "error");
+        this.insufficientFundsCounter = Counter.builder("transfer.insufficient_funds")
+                .description("Transfers rejected because the source card balance was too low")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs the transfer and records its duration under the tag of its outcome.
+     */
+    <T> T record(Supplier<T> transfer) {
+        long start = System.nanoTime();
+        Timer timer = errorTimer;
+        try {
+            T result = transfer.get();
+            timer = successTimer;
+            return result;
+        } catch (InsufficientFundsException e) {
+            timer = insufficientFundsTimer;
+            insufficientFundsCounter.increment();
+            throw e;
+        } catch (InvalidOperationException | UnauthorizedOperationException | ResourceNotFoundException e) {
+            timer = rejectedTimer;
+            throw e;
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static Timer durationTimer(MeterRegistry meterRegistry, String engine, String outcome) {
+        return Timer.builder("transfer.duration")
+                .description("Time to execute a card transfer, including retries")
+                .tag("engine", engine)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.bankcards.service.impl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs a money transfer in its own transaction and retries it a bounded number of times
+ * when the database aborts it because of a deadlock, a lock timeout or a serialization failure.
+ * Every attempt starts a fresh transaction, so no state leaks from an aborted attempt.
+ */
+@Slf4j
+@Component
+class TransferRetryExecutor {
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long backoffMs;
+
+    TransferRetryExecutor(PlatformTransactionManager transactionManager,
+                          @Value("${app.transfer.retry.max-attempts:3}") int maxAttempts,
+                          @Value("${app.transfer.retry.backoff-ms:25}") long backoffMs) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffMs = Math.max(0, backoffMs);
+    }
+
+    <T> T execute(Supplier<T> action) {
+        int attempt = 1;
+        while (true) {
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= maxAttempts) {
+                    log.error("TRANSFER_RETRY_EXHAUSTED: [attempts={}]. Reason: {}", attempt, e.getMessage());
+                    throw e;
+                }
+                log.warn("TRANSFER_RETRY: [attempt={}, maxAttempts={}]. Reason: {}", attempt, maxAttempts, e.getMessage());
+                backOff(attempt);
+                attempt++;
+            }
+        }
+    }
+
+    /**
+     * Sleeps with a linearly growing delay plus jitter, so that competing transfers do not retry in lockstep.
+     */
+    private void backOff(int attempt) {
+        if (backoffMs == 0) {
+            return;
+        }
+        long delay = backoffMs * attempt + ThreadLocalRandom.current().nextLong(backoffMs + 1);
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to retry a transfer", e);
+        }
+    }
+}
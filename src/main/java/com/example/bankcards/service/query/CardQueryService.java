@@ -1,26 +1,37 @@
 package com.example.bankcards.service.query;
 
+import com.example.bankcards.dto.LockedCards;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.exception.ResourceNotFoundException;
 import com.example.bankcards.repository.CardRepository;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.UUID;
 
 /**
  * A specialized service for querying Card entities.
  * Provides methods for both user and admin contexts.
+ * <p>
+ * The time spent in {@code SELECT ... FOR UPDATE}, which is mostly waiting for row locks held by concurrent
+ * transfers, is published as {@code card.lock.wait} with a {@code query} tag ({@code single} or {@code pair}).
  */
 @Service
-@RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class CardQueryService {
 
     private final CardRepository cardRepository;
+    private final Timer singleLockTimer;
+    private final Timer pairLockTimer;
 
-
+    public CardQueryService(CardRepository cardRepository, MeterRegistry meterRegistry) {
+        this.cardRepository = cardRepository;
+        this.singleLockTimer = lockTimer(meterRegistry, "single");
+        this.pairLockTimer = lockTimer(meterRegistry, "pair");
+    }
 
     /**
      * Finds any card by its ID or throws a ResourceNotFoundException.
@@ -54,7 +65,36 @@ public class CardQueryService {
      */
     @Transactional
     public Card findActiveByIdWithLockOrThrow(UUID cardId) {
-        return cardRepository.findActiveByIdWithLock(cardId)
+        return singleLockTimer.record(() -> cardRepository.findActiveByIdWithLock(cardId))
+                .orElseThrow(() -> new ResourceNotFoundException("Active card", "id", cardId));
+    }
+
+    /**
+     * Finds and locks both ACTIVE cards of a transfer with one ordered query,
+     * or throws a ResourceNotFoundException if either of them is missing.
+     *
+     * @param fromCardId The ID of the source card.
+     * @param toCardId   The ID of the destination card.
+     * @return The locked source and destination cards.
+     */
+    @Transactional
+    public LockedCards findActivePairWithLockOrThrow(UUID fromCardId, UUID toCardId) {
+        List<Card> lockedCards = pairLockTimer.record(
+                () -> cardRepository.findAllActiveByIdsWithLock(List.of(fromCardId, toCardId)));
+        return new LockedCards(pickOrThrow(lockedCards, fromCardId), pickOrThrow(lockedCards, toCardId));
+    }
+
+    private static Timer lockTimer(MeterRegistry meterRegistry, String query) {
+        return Timer.builder("card.lock.wait")
+                .description("Time to select and lock cards for update")
+                .tag("query", query)
+                .register(meterRegistry);
+    }
+
+    private Card pickOrThrow(List<Card> cards, UUID cardId) {
+        return cards.stream()
+                .filter(card -> card.getId().equals(cardId))
+                .findFirst()
                 .orElseThrow(() -> new ResourceNotFoundException("Active card", "id", cardId));
     }
 }
@@ -0,0 +1,43 @@
+package com.example.bankcards.util.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A small thread-safe, size-bounded cache that evicts the least recently used entry
+ * once its capacity is reached.
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the values.
+ */
+public class LruCache<K, V> {
+    private final Map<K, V> entries;
+
+    /**
+     * @param maxSize The maximum number of entries kept in memory.
+     */
+    public LruCache(int maxSize) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public synchronized V get(K key) {
+        return entries.get(key);
+    }
+
+    public synchronized void put(K key, V value) {
+        entries.put(key, value);
+    }
+
+    public synchronized void remove(K key) {
+        entries.remove(key);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.bankcards.util.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * A Caffeine cache whose misses are loaded by the calling thread outside of any lock.
+ * <p>
+ * {@code Cache.get(key, loader)} runs the loader inside {@code ConcurrentHashMap.compute}, which holds a monitor.
+ * A virtual thread that blocks on JDBC while holding a monitor pins its carrier thread, so a few loaders waiting
+ * for a pooled connection can occupy every carrier while the threads that hold the connections cannot run.
+ * Here the map only stores an incomplete future for the key; the thread that stored it runs the loader and
+ * completes the future, and concurrent readers of the same key wait on that future. A load is still done once
+ * per key, and an invalidation during the load removes the pending future, so its result is not cached.
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the values. A loader returning null leaves nothing in the cache.
+ */
+public class NonPinningCache<K, V> {
+    private final AsyncCache<K, V> cache;
+
+    public NonPinningCache(Caffeine<Object, Object> builder) {
+        this.cache = builder.buildAsync();
+    }
+
+    /**
+     * Returns the cached value, loading it in the calling thread on a miss.
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        CompletableFuture<V> pending = new CompletableFuture<>();
+        CompletableFuture<V> future = cache.get(key, (k, executor) -> pending);
+        if (future == pending) {
+            try {
+                pending.complete(loader.apply(key));
+            } catch (RuntimeException | Error e) {
+                pending.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public void put(K key, V value) {
+        cache.synchronous().put(key, value);
+    }
+
+    public void invalidate(K key) {
+        cache.synchronous().invalidate(key);
+    }
+
+    /**
+     * A view of the completed entries; removing from it invalidates them.
+     */
+    public ConcurrentMap<K, V> asMap() {
+        return cache.synchronous().asMap();
+    }
+
+    public CacheStats stats() {
+        return cache.synchronous().stats();
+    }
+
+    public long estimatedSize() {
+        return cache.synchronous().estimatedSize();
+    }
+}
@@ -1,29 +1,87 @@
 package com.example.bankcards.util.encryption;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
 import jakarta.persistence.AttributeConverter;
 import jakarta.persistence.Converter;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.IvParameterSpec;
-import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.SecureRandom;
+import java.util.Arrays;
 import java.util.Base64;
-
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encrypts card numbers before they are written and decrypts them when they are read.
+ * <p>
+ * Two stored formats are supported:
+ * <ul>
+ *     <li>{@code v<version>:Base64(IV || ciphertext || tag)} - AES-GCM with the key of that version
+ *     from the {@link EncryptionKeyRing}. Written whenever an active key version is configured.</li>
+ *     <li>{@code Base64(IV || ciphertext)} - the legacy AES/CBC format with {@code app.encryption.key}.
+ *     Always readable; written only while no active key version is configured.</li>
+ * </ul>
+ * {@code Cipher.getInstance} involves a provider lookup, so ciphers are kept in small pools and only
+ * re-initialised with a fresh IV on each call. Pools are used instead of a ThreadLocal so that the
+ * number of ciphers stays bounded regardless of how many (possibly virtual) threads call the converter.
+ * <p>
+ * The time of every call is published as {@code card_number.encrypt} and {@code card_number.decrypt}.
+ */
 @Component
 @Converter
 @Slf4j
 public class CardNumberEncryptor implements AttributeConverter<String, String> {
 
-    private static final String ALGORITHM = "AES/CBC/PKCS5Padding";
-    private static final int IV_LENGTH_BYTE = 16;
-    private final SecretKeySpec secretKey;
+    private static final String CBC_ALGORITHM = "AES/CBC/PKCS5Padding";
+    private static final String GCM_ALGORITHM = "AES/GCM/NoPadding";
+    private static final int CBC_IV_LENGTH_BYTE = 16;
+    private static final int GCM_IV_LENGTH_BYTE = 12;
+    private static final int GCM_TAG_LENGTH_BIT = 128;
+    private static final String VERSION_PREFIX = "v";
+    private static final char VERSION_SEPARATOR = ':';
+    private static final int CIPHER_POOL_SIZE = 64;
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+
+    private final EncryptionKeyRing keyRing;
+    private final BlockingQueue<Cipher> cbcCipherPool = new ArrayBlockingQueue<>(CIPHER_POOL_SIZE);
+    private final BlockingQueue<Cipher> gcmCipherPool = new ArrayBlockingQueue<>(CIPHER_POOL_SIZE);
+    private final Timer encryptTimer;
+    private final Timer decryptTimer;
+
+    @Autowired
+    public CardNumberEncryptor(EncryptionKeyRing keyRing, MeterRegistry meterRegistry) {
+        this.keyRing = keyRing;
+        this.encryptTimer = Timer.builder("card_number.encrypt")
+                .description("Time to encrypt a card number")
+                .register(meterRegistry);
+        this.decryptTimer = Timer.builder("card_number.decrypt")
+                .description("Time to decrypt a card number")
+                .register(meterRegistry);
+    }
 
-    public CardNumberEncryptor(@Value("${app.encryption.key}") String key) {
-        this.secretKey = new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), "AES");
+    /**
+     * Creates an encryptor whose timings are not published, e.g. for migrations and tests.
+     */
+    public CardNumberEncryptor(EncryptionKeyRing keyRing) {
+        // Пустой составной реестр создаёт no-op таймеры
+        this(keyRing, new CompositeMeterRegistry());
+    }
+
+    /**
+     * Creates an encryptor that reads and writes only the legacy AES/CBC format.
+     */
+    public CardNumberEncryptor(String key) {
+        this(EncryptionKeyRing.legacyOnly(key));
     }
 
     @Override
@@ -31,26 +89,19 @@ public class CardNumberEncryptor implements AttributeConverter<String, String> {
         if (attribute == null) {
             return null;
         }
+        long start = System.nanoTime();
         try {
-            byte[] iv = new byte[IV_LENGTH_BYTE];
-            SecureRandom random = new SecureRandom();
-            random.nextBytes(iv);
-            IvParameterSpec ivParameterSpec = new IvParameterSpec(iv);
-
-            Cipher cipher = Cipher.getInstance(ALGORITHM);
-            cipher.init(Cipher.ENCRYPT_MODE, secretKey, ivParameterSpec);
-
-            byte[] encryptedValue = cipher.doFinal(attribute.getBytes(StandardCharsets.UTF_8));
-
-            byte[] finalCipherBytes = new byte[iv.length + encryptedValue.length];
-            System.arraycopy(iv, 0, finalCipherBytes, 0, iv.length);
-            System.arraycopy(encryptedValue, 0, finalCipherBytes, iv.length, encryptedValue.length);
-
-            return Base64.getEncoder().encodeToString(finalCipherBytes);
-
+            byte[] plainBytes = attribute.getBytes(StandardCharsets.UTF_8);
+            Integer activeVersion = keyRing.activeVersion();
+            if (activeVersion == null) {
+                return encryptCbc(plainBytes);
+            }
+            return VERSION_PREFIX + activeVersion + VERSION_SEPARATOR + encryptGcm(plainBytes, activeVersion);
         } catch (Exception e) {
             log.error("Error during encryption: {}", e.getMessage(), e);
             throw new IllegalStateException("Failed to encrypt data", e);
+        } finally {
+            encryptTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         }
     }
 
@@ -59,27 +110,114 @@ public class CardNumberEncryptor implements AttributeConverter<String, String> {
         if (dbData == null) {
             return null;
         }
+        long start = System.nanoTime();
         try {
-            byte[] fullCipherBytes = Base64.getDecoder().decode(dbData);
+            int separator = versionSeparatorIndex(dbData);
+            byte[] decryptedBytes = separator < 0
+                    ? decryptCbc(Base64.getDecoder().decode(dbData))
+                    : decryptGcm(Base64.getDecoder().decode(dbData.substring(separator + 1)),
+                    Integer.parseInt(dbData.substring(VERSION_PREFIX.length(), separator)));
+            return new String(decryptedBytes, StandardCharsets.UTF_8);
+        } catch (Exception e) {
+            log.error("Error during decryption: {}", e.getMessage(), e);
+            throw new IllegalStateException("Failed to decrypt data", e);
+        } finally {
+            decryptTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
 
-            byte[] iv = new byte[IV_LENGTH_BYTE];
-            System.arraycopy(fullCipherBytes, 0, iv, 0, iv.length);
-            IvParameterSpec ivParameterSpec = new IvParameterSpec(iv);
+    /**
+     * Tells whether a stored value was written with something other than the active key version.
+     *
+     * @param dbData The stored ciphertext.
+     * @return true if the value should be re-encrypted with the active key.
+     */
+    public boolean needsReEncryption(String dbData) {
+        Integer activeVersion = keyRing.activeVersion();
+        return dbData != null && activeVersion != null
+                && !dbData.startsWith(VERSION_PREFIX + activeVersion + VERSION_SEPARATOR);
+    }
 
-            int encryptedValueLength = fullCipherBytes.length - IV_LENGTH_BYTE;
-            byte[] encryptedValue = new byte[encryptedValueLength];
-            System.arraycopy(fullCipherBytes, IV_LENGTH_BYTE, encryptedValue, 0, encryptedValueLength);
+    /**
+     * Decrypts a stored value with whatever key it was written with and encrypts it with the active key.
+     *
+     * @param dbData The stored ciphertext.
+     * @return The ciphertext in the current format.
+     */
+    public String reEncrypt(String dbData) {
+        return convertToDatabaseColumn(convertToEntityAttribute(dbData));
+    }
 
-            Cipher cipher = Cipher.getInstance(ALGORITHM);
-            cipher.init(Cipher.DECRYPT_MODE, secretKey, ivParameterSpec);
+    private String encryptCbc(byte[] plainBytes) throws GeneralSecurityException {
+        byte[] iv = new byte[CBC_IV_LENGTH_BYTE];
+        SECURE_RANDOM.nextBytes(iv);
+        Cipher cipher = borrow(cbcCipherPool, CBC_ALGORITHM);
+        try {
+            cipher.init(Cipher.ENCRYPT_MODE, keyRing.legacyKey(), new IvParameterSpec(iv));
+            return Base64.getEncoder().encodeToString(encryptInto(cipher, iv, plainBytes));
+        } finally {
+            cbcCipherPool.offer(cipher);
+        }
+    }
 
-            byte[] decryptedBytes = cipher.doFinal(encryptedValue);
-            return new String(decryptedBytes, StandardCharsets.UTF_8);
+    private String encryptGcm(byte[] plainBytes, int version) throws GeneralSecurityException {
+        byte[] iv = new byte[GCM_IV_LENGTH_BYTE];
+        SECURE_RANDOM.nextBytes(iv);
+        Cipher cipher = borrow(gcmCipherPool, GCM_ALGORITHM);
+        try {
+            cipher.init(Cipher.ENCRYPT_MODE, keyRing.key(version), new GCMParameterSpec(GCM_TAG_LENGTH_BIT, iv));
+            return Base64.getEncoder().encodeToString(encryptInto(cipher, iv, plainBytes));
+        } finally {
+            gcmCipherPool.offer(cipher);
+        }
+    }
 
-        } catch (Exception e) {
-            log.error("Error during decryption: {}", e.getMessage(), e);
-            throw new IllegalStateException("Failed to decrypt data", e);
+    /**
+     * Writes the IV and the ciphertext into one buffer, so no intermediate arrays are copied.
+     */
+    private static byte[] encryptInto(Cipher cipher, byte[] iv, byte[] plainBytes) throws GeneralSecurityException {
+        byte[] output = new byte[iv.length + cipher.getOutputSize(plainBytes.length)];
+        System.arraycopy(iv, 0, output, 0, iv.length);
+        int outputLength = iv.length + cipher.doFinal(plainBytes, 0, plainBytes.length, output, iv.length);
+        return outputLength == output.length ? output : Arrays.copyOf(output, outputLength);
+    }
+
+    private byte[] decryptCbc(byte[] fullCipherBytes) throws GeneralSecurityException {
+        Cipher cipher = borrow(cbcCipherPool, CBC_ALGORITHM);
+        try {
+            // IV and ciphertext are read in place from the decoded buffer by offset and length.
+            cipher.init(Cipher.DECRYPT_MODE, keyRing.legacyKey(), new IvParameterSpec(fullCipherBytes, 0, CBC_IV_LENGTH_BYTE));
+            return cipher.doFinal(fullCipherBytes, CBC_IV_LENGTH_BYTE, fullCipherBytes.length - CBC_IV_LENGTH_BYTE);
+        } finally {
+            cbcCipherPool.offer(cipher);
         }
+    }
+
+    private byte[] decryptGcm(byte[] fullCipherBytes, int version) throws GeneralSecurityException {
+        Cipher cipher = borrow(gcmCipherPool, GCM_ALGORITHM);
+        try {
+            cipher.init(Cipher.DECRYPT_MODE, keyRing.key(version),
+                    new GCMParameterSpec(GCM_TAG_LENGTH_BIT, fullCipherBytes, 0, GCM_IV_LENGTH_BYTE));
+            return cipher.doFinal(fullCipherBytes, GCM_IV_LENGTH_BYTE, fullCipherBytes.length - GCM_IV_LENGTH_BYTE);
+        } finally {
+            gcmCipherPool.offer(cipher);
+        }
+    }
+
+    /**
+     * Returns the index of the separator after the key version, or -1 for the legacy format.
+     * Legacy values are plain Base64, which never contains ':'.
+     */
+    private static int versionSeparatorIndex(String dbData) {
+        return dbData.startsWith(VERSION_PREFIX) ? dbData.indexOf(VERSION_SEPARATOR) : -1;
+    }
 
+    /**
+     * Takes a cipher from the pool or creates one. Ciphers are returned with {@code offer},
+     * which simply drops them if the pool is already full.
+     */
+    private static Cipher borrow(BlockingQueue<Cipher> pool, String algorithm) throws GeneralSecurityException {
+        Cipher cipher = pool.poll();
+        return cipher != null ? cipher : Cipher.getInstance(algorithm);
     }
 }
@@ -0,0 +1,69 @@
+package com.example.bankcards.util.encryption;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The set of AES keys that card numbers may be encrypted with.
+ * <p>
+ * Every versioned ciphertext carries the version of its key, so a new key can be made active
+ * while values written with older keys stay readable until they are re-encrypted.
+ */
+public class EncryptionKeyRing {
+    private final SecretKeySpec legacyKey;
+    private final Map<Integer, SecretKeySpec> keys;
+    private final Integer activeVersion;
+
+    public EncryptionKeyRing(EncryptionProperties properties) {
+        this.legacyKey = properties.key() != null ? toAesKey(properties.key()) : null;
+        Map<Integer, SecretKeySpec> versionedKeys = new HashMap<>();
+        if (properties.keys() != null) {
+            properties.keys().forEach((version, key) -> versionedKeys.put(version, toAesKey(key)));
+        }
+        this.keys = Collections.unmodifiableMap(versionedKeys);
+        this.activeVersion = properties.activeVersion();
+        if (activeVersion != null && !keys.containsKey(activeVersion)) {
+            throw new IllegalStateException("No encryption key configured for active version " + activeVersion);
+        }
+    }
+
+    /**
+     * Creates a key ring that only knows the legacy key and keeps writing the legacy format.
+     */
+    public static EncryptionKeyRing legacyOnly(String key) {
+        return new EncryptionKeyRing(new EncryptionProperties(key, null, Map.of()));
+    }
+
+    /**
+     * @return The version new values are encrypted with, or null if the legacy format is still written.
+     */
+    public Integer activeVersion() {
+        return activeVersion;
+    }
+
+    public SecretKeySpec key(int version) {
+        SecretKeySpec key = keys.get(version);
+        if (key == null) {
+            throw new IllegalStateException("Unknown encryption key version " + version);
+        }
+        return key;
+    }
+
+    public SecretKeySpec legacyKey() {
+        if (legacyKey == null) {
+            throw new IllegalStateException("Legacy encryption key is not configured");
+        }
+        return legacyKey;
+    }
+
+    private static SecretKeySpec toAesKey(String key) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        if (keyBytes.length != 16 && keyBytes.length != 24 && keyBytes.length != 32) {
+            throw new IllegalStateException("AES key must be 16, 24 or 32 bytes long");
+        }
+        return new SecretKeySpec(keyBytes, "AES");
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.bankcards.util.encryption;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.Map;
+
+/**
+ * Card number encryption keys.
+ *
+ * @param key           The legacy AES/CBC key. Still needed to read values written before key versioning.
+ * @param activeVersion The key version used for new AES-GCM ciphertexts, or null to keep writing the legacy format.
+ * @param keys          The AES-GCM key ring: key version to key (16, 24 or 32 bytes).
+ */
+@ConfigurationProperties(prefix = "app.encryption")
+public record EncryptionProperties(
+        String key,
+        Integer activeVersion,
+        Map<Integer, String> keys
+) {
+}
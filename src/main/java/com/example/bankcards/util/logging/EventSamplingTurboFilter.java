@@ -0,0 +1,66 @@
+package com.example.bankcards.util.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps only every N-th INFO (or lower) event of the configured high-rate events and drops the rest
+ * before a logging event is even created.
+ * <p>
+ * An event is identified by the start of its message format up to the first colon, for example
+ * {@code FIND_MY_CARDS} in {@code "FIND_MY_CARDS: [userId={}]."}, or by the whole message of a key-value
+ * event such as {@code log.atInfo().addKeyValue("userId", id).log("FIND_MY_CARDS")}.
+ * Warnings and errors are never sampled.
+ * Configured in {@code logback-spring.xml}:
+ * <pre>{@code
+ * <turboFilter class="com.example.bankcards.util.logging.EventSamplingTurboFilter">
+ *     <event>FIND_MY_CARDS</event>
+ *     <sampleEvery>100</sampleEvery>
+ * </turboFilter>
+ * }</pre>
+ */
+public class EventSamplingTurboFilter extends TurboFilter {
+    private final List<String> events = new CopyOnWriteArrayList<>();
+    private final AtomicLong counter = new AtomicLong();
+    private int sampleEvery = 1;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (sampleEvery <= 1 || format == null || level == null || level.isGreaterOrEqual(Level.WARN)) {
+            return FilterReply.NEUTRAL;
+        }
+        if (!isSampledEvent(format)) {
+            return FilterReply.NEUTRAL;
+        }
+        // Один счётчик на все события: выборка равномерна по времени, а не по каждому событию отдельно
+        return counter.getAndIncrement() % sampleEvery == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    /**
+     * Compares the format with each event in place: this runs for every log call, so it must not allocate.
+     */
+    private boolean isSampledEvent(String format) {
+        for (String event : events) {
+            if (format.startsWith(event)
+                    && (format.length() == event.length() || format.charAt(event.length()) == ':')) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void addEvent(String event) {
+        events.add(event.trim());
+    }
+
+    public void setSampleEvery(int sampleEvery) {
+        this.sampleEvery = sampleEvery;
+    }
+}
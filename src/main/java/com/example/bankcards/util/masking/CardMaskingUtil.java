@@ -21,10 +21,32 @@ public class CardMaskingUtil {
      * @return A masked string representation of the card number. Returns null if the input is null.
      */
     public static String maskCardNumber(String cardNumber) {
-        if (cardNumber == null) {
+        return maskLastFourDigits(lastFourDigits(cardNumber));
+    }
+
+    /**
+     * Builds the masked representation from the last four digits alone.
+     *
+     * @param lastFourDigits The last four digits of the card number.
+     * @return A masked string in the format "**** **** **** 1234". Returns null if the input is null.
+     */
+    public static String maskLastFourDigits(String lastFourDigits) {
+        if (lastFourDigits == null) {
             return null;
         }
-        String lastFourDigits = cardNumber.substring(cardNumber.length() - 4);
         return MASKED_PREFIX + lastFourDigits;
     }
+
+    /**
+     * Extracts the last four digits of a card number.
+     *
+     * @param cardNumber The full card number.
+     * @return The last four characters of the card number. Returns null if the input is null.
+     */
+    public static String lastFourDigits(String cardNumber) {
+        if (cardNumber == null) {
+            return null;
+        }
+        return cardNumber.substring(Math.max(0, cardNumber.length() - 4));
+    }
 }
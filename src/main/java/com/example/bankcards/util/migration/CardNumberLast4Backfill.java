@@ -0,0 +1,92 @@
+package com.example.bankcards.util.migration;
+
+import com.example.bankcards.util.encryption.CardNumberEncryptor;
+import com.example.bankcards.util.masking.CardMaskingUtil;
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+import lombok.Setter;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+
+/**
+ * Liquibase task that fills {@code cards.card_number_last4} for rows created before the column existed.
+ * <p>
+ * The card number is encrypted, so the backfill cannot be written in SQL: each row is decrypted once here
+ * with the application key, passed in as the {@code encryptionKey} changelog parameter.
+ * Rows are processed in primary key order in fixed-size batches.
+ */
+@Setter
+public class CardNumberLast4Backfill implements CustomTaskChange {
+    private static final int BATCH_SIZE = 500;
+    private static final String SELECT_BATCH_SQL = "SELECT id, card_number FROM cards " +
+            "WHERE card_number_last4 IS NULL AND id > ? ORDER BY id LIMIT " + BATCH_SIZE;
+    private static final String UPDATE_SQL = "UPDATE cards SET card_number_last4 = ? WHERE id = ?";
+
+    private String encryptionKey;
+    private int updatedRows;
+
+    @Override
+    public void execute(Database database) throws CustomChangeException {
+        CardNumberEncryptor encryptor = null;
+        Connection connection = ((JdbcConnection) database.getConnection()).getUnderlyingConnection();
+        UUID lastId = new UUID(0, 0);
+        try (PreparedStatement select = connection.prepareStatement(SELECT_BATCH_SQL);
+             PreparedStatement update = connection.prepareStatement(UPDATE_SQL)) {
+            int batchRows;
+            do {
+                batchRows = 0;
+                select.setObject(1, lastId);
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        if (encryptor == null) {
+                            encryptor = createEncryptor();
+                        }
+                        lastId = rs.getObject("id", UUID.class);
+                        String cardNumber = encryptor.convertToEntityAttribute(rs.getString("card_number"));
+                        update.setString(1, CardMaskingUtil.lastFourDigits(cardNumber));
+                        update.setObject(2, lastId);
+                        update.addBatch();
+                        batchRows++;
+                    }
+                }
+                update.executeBatch();
+                updatedRows += batchRows;
+            } while (batchRows == BATCH_SIZE);
+        } catch (SQLException e) {
+            throw new CustomChangeException("Failed to backfill card_number_last4", e);
+        }
+    }
+
+    private CardNumberEncryptor createEncryptor() throws CustomChangeException {
+        if (encryptionKey == null || encryptionKey.isBlank() || encryptionKey.startsWith("${")) {
+            throw new CustomChangeException("encryptionKey parameter is required to decrypt existing card numbers");
+        }
+        return new CardNumberEncryptor(encryptionKey);
+    }
+
+    @Override
+    public String getConfirmationMessage() {
+        return "card_number_last4 backfilled for " + updatedRows + " cards";
+    }
+
+    @Override
+    public void setUp() {
+    }
+
+    @Override
+    public void setFileOpener(ResourceAccessor resourceAccessor) {
+    }
+
+    @Override
+    public ValidationErrors validate(Database database) {
+        return new ValidationErrors();
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.bankcards.util.pagination;
+
+import com.example.bankcards.exception.InvalidOperationException;
+import lombok.experimental.UtilityClass;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * A utility class for building opaque continuation tokens for keyset pagination.
+ * A cursor is the URL-safe Base64 form of the sort-key values of the last returned row.
+ * Clients must treat it as an opaque string and pass it back unchanged.
+ */
+@UtilityClass
+public class CursorCodec {
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Encodes the keyset values of a row into a cursor.
+     *
+     * @param parts The sort-key values, in sort order.
+     * @return An opaque cursor string.
+     */
+    public static String encode(String... parts) {
+        String raw = String.join(SEPARATOR, parts);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor produced by {@link #encode(String...)}.
+     *
+     * @param cursor        The cursor received from the client.
+     * @param expectedParts The number of sort-key values the cursor must contain.
+     * @return The sort-key values, in sort order.
+     * @throws InvalidOperationException if the cursor is malformed.
+     */
+    public static String[] decode(String cursor, int expectedParts) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != expectedParts) {
+                throw new InvalidOperationException("Invalid pagination cursor.");
+            }
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new InvalidOperationException("Invalid pagination cursor.");
+        }
+    }
+}
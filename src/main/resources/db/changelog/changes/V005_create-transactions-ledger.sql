@@ -0,0 +1,26 @@
+CREATE TABLE transactions (
+                              id UUID NOT NULL,
+                              transfer_id UUID NOT NULL,
+                              card_id UUID NOT NULL,
+                              counterparty_card_id UUID NOT NULL,
+                              type VARCHAR(10) NOT NULL,
+                              amount NUMERIC(19, 2) NOT NULL,
+                              balance_after NUMERIC(19, 2) NOT NULL,
+                              created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+                              CONSTRAINT pk_transactions PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- Catches rows for months whose partition has not been created yet (see LedgerPartitionJob).
+CREATE TABLE transactions_default PARTITION OF transactions DEFAULT;
+
+CREATE INDEX idx_transactions_card_id_created_at ON transactions (card_id, created_at, id);
+
+CREATE FUNCTION forbid_transactions_mutation() RETURNS TRIGGER AS $$
+BEGIN
+    RAISE EXCEPTION 'The transactions ledger is append-only';
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_transactions_append_only
+    BEFORE UPDATE OR DELETE ON transactions
+    FOR EACH ROW EXECUTE FUNCTION forbid_transactions_mutation();
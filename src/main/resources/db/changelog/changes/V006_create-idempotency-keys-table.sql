@@ -0,0 +1,12 @@
+CREATE TABLE idempotency_keys (
+                                  id UUID PRIMARY KEY,
+                                  user_id UUID NOT NULL,
+                                  idempotency_key VARCHAR(100) NOT NULL,
+                                  request_hash VARCHAR(64) NOT NULL,
+                                  response_body TEXT NOT NULL,
+                                  created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+                                  expires_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE UNIQUE INDEX idx_idempotency_keys_user_key_unique ON idempotency_keys (user_id, idempotency_key);
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
@@ -0,0 +1 @@
+ALTER TABLE cards ADD COLUMN card_number_last4 VARCHAR(4);
@@ -0,0 +1 @@
+ALTER TABLE cards ALTER COLUMN card_number_last4 SET NOT NULL;
@@ -0,0 +1,7 @@
+CREATE TABLE reencryption_checkpoints (
+                       key_version INTEGER PRIMARY KEY,
+                       last_card_id UUID,
+                       processed_count BIGINT NOT NULL DEFAULT 0,
+                       completed BOOLEAN NOT NULL DEFAULT FALSE,
+                       updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now()
+);
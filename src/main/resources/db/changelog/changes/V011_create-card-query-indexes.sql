@@ -0,0 +1,19 @@
+-- Индексы под фактические формы запросов CardRepository.
+-- Колонки сортировки (expiration_date, id) входят в индекс, поэтому курсорные выборки
+-- читают строки в порядке индекса, а OFFSET-выборки по владельцу и статусу не сканируют всю таблицу.
+
+-- Карты пользователя: findSummariesByOwnerIdAndActiveTrue(After), count и exists по владельцу
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_cards_user_id_active_expiration_id
+    ON cards (user_id, expiration_date, id) WHERE active;
+
+-- Админские выборки по владельцу (включая неактивные), findSummariesByOwnerIdIn и проверка FK при удалении пользователя
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_cards_user_id_expiration_id
+    ON cards (user_id, expiration_date, id);
+
+-- Выборки по статусу
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_cards_status_expiration_id
+    ON cards (status, expiration_date, id);
+
+-- Курсорная выборка всех карт
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_cards_expiration_id
+    ON cards (expiration_date, id);
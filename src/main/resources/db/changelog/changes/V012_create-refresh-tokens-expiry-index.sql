@@ -0,0 +1,4 @@
+-- Индекс для пакетного удаления истекших refresh-токенов (RefreshTokenPurgeJob):
+-- выборка "expiry_date < now() LIMIT n" читает только истекшие строки, а не всю таблицу
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_refresh_tokens_expiry_date
+    ON refresh_tokens (expiry_date);
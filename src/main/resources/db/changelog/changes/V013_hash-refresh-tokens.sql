@@ -0,0 +1,8 @@
+-- Refresh-токены хранятся только как SHA-256 (hex) от значения, выданного клиенту.
+-- Существующие токены хешируются на месте, поэтому уже выданные токены продолжают работать.
+-- Уникальное ограничение переносится на переименованную колонку.
+ALTER TABLE refresh_tokens RENAME COLUMN token TO token_hash;
+
+UPDATE refresh_tokens SET token_hash = encode(sha256(convert_to(token_hash, 'UTF8')), 'hex');
+
+ALTER TABLE refresh_tokens ALTER COLUMN token_hash TYPE VARCHAR(64);
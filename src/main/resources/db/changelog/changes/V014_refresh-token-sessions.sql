@@ -0,0 +1,17 @@
+-- Несколько сессий на пользователя: по одному refresh-токену на устройство.
+-- Уникальность переносится с user_id на (user_id, device_id); этот же индекс обслуживает
+-- удаление всех сессий пользователя и upsert при входе (ON CONFLICT).
+ALTER TABLE refresh_tokens DROP CONSTRAINT IF EXISTS refresh_tokens_user_id_key;
+
+ALTER TABLE refresh_tokens ADD COLUMN device_id VARCHAR(100);
+UPDATE refresh_tokens SET device_id = 'legacy';
+ALTER TABLE refresh_tokens ALTER COLUMN device_id SET NOT NULL;
+
+CREATE UNIQUE INDEX uq_refresh_tokens_user_id_device_id ON refresh_tokens (user_id, device_id);
+
+-- Хеш предыдущего токена сессии после ротации: повторное предъявление старого токена
+-- означает его утечку, и сессия отзывается
+ALTER TABLE refresh_tokens ADD COLUMN previous_token_hash VARCHAR(64);
+
+CREATE INDEX idx_refresh_tokens_previous_token_hash ON refresh_tokens (previous_token_hash)
+    WHERE previous_token_hash IS NOT NULL;
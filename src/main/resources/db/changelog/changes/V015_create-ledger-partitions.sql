@@ -0,0 +1,41 @@
+-- Создаёт месячную партицию журнала transactions (границы в UTC) и возвращает число строк,
+-- перенесённых в неё из transactions_default. Если строки этого месяца уже попали в default,
+-- простой CREATE TABLE ... PARTITION OF невозможен: default отсоединяется, создаются партиция
+-- и новый пустой default, строки старого default переливаются через родительскую таблицу,
+-- старый default удаляется. Всё выполняется в одной транзакции вызывающего.
+CREATE FUNCTION create_ledger_partition(p_month DATE) RETURNS BIGINT AS $$
+DECLARE
+    v_from TIMESTAMP WITH TIME ZONE := date_trunc('month', p_month::TIMESTAMP) AT TIME ZONE 'UTC';
+    v_to TIMESTAMP WITH TIME ZONE := (date_trunc('month', p_month::TIMESTAMP) + INTERVAL '1 month') AT TIME ZONE 'UTC';
+    v_partition TEXT := 'transactions_' || to_char(p_month, 'YYYY_MM');
+    v_moved BIGINT;
+BEGIN
+    -- Узлы, создающие партиции одновременно, выполняются по очереди
+    PERFORM pg_advisory_xact_lock(hashtext('create_ledger_partition'));
+
+    IF to_regclass(v_partition) IS NOT NULL THEN
+        RETURN 0;
+    END IF;
+
+    SELECT count(*) INTO v_moved FROM transactions_default WHERE created_at >= v_from AND created_at < v_to;
+    IF v_moved = 0 THEN
+        EXECUTE format('CREATE TABLE %I PARTITION OF transactions FOR VALUES FROM (%L) TO (%L)',
+                       v_partition, v_from, v_to);
+        RETURN 0;
+    END IF;
+
+    ALTER TABLE transactions DETACH PARTITION transactions_default;
+    ALTER TABLE transactions_default RENAME TO transactions_default_detached;
+    EXECUTE format('CREATE TABLE %I PARTITION OF transactions FOR VALUES FROM (%L) TO (%L)',
+                   v_partition, v_from, v_to);
+    CREATE TABLE transactions_default PARTITION OF transactions DEFAULT;
+    -- INSERT не затрагивает триггер append-only (он срабатывает на UPDATE и DELETE)
+    INSERT INTO transactions SELECT * FROM transactions_default_detached;
+    DROP TABLE transactions_default_detached;
+    RETURN v_moved;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Партиции текущего и следующего месяцев существуют до того, как приложение примет первый запрос
+SELECT create_ledger_partition((now() AT TIME ZONE 'UTC')::DATE);
+SELECT create_ledger_partition(((now() AT TIME ZONE 'UTC') + INTERVAL '1 month')::DATE);
@@ -0,0 +1,101 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.dto.CardSummary;
+import com.example.bankcards.dto.response.CardResponse;
+import com.example.bankcards.dto.response.PagedResponse;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.mapper.CardMapper;
+import com.example.bankcards.mapper.CardMapperImpl;
+import com.example.bankcards.util.masking.CardMaskingUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Measures the steps that turn loaded cards into a response: masking the number, mapping a {@link Card}
+ * or a {@link CardSummary} with {@link CardMapper}, and wrapping a mapped page into {@link PagedResponse}.
+ * {@code mapPage} is the whole path of a paginated listing after the query returns.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CardMappingBenchmark {
+    private static final String CARD_NUMBER = "4111111111111111";
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private CardMapper cardMapper;
+    private Card card;
+    private CardSummary summary;
+    private Page<CardSummary> summaryPage;
+    private Page<CardResponse> responsePage;
+
+    @Setup
+    public void setUp() {
+        cardMapper = new CardMapperImpl();
+
+        card = new Card();
+        card.setId(UUID.randomUUID());
+        card.setCardNumber(CARD_NUMBER);
+        card.setExpirationDate(YearMonth.now().plusYears(3));
+        card.setStatus(CardStatus.ACTIVE);
+        card.setBalance(new BigDecimal("1234.56"));
+        summary = new CardSummary(card.getId(), UUID.randomUUID(), card.getCardNumberLast4(),
+                card.getExpirationDate(), card.getStatus(), card.getBalance());
+
+        List<CardSummary> content = IntStream.range(0, pageSize)
+                .mapToObj(i -> new CardSummary(UUID.randomUUID(), summary.ownerId(), String.format("%04d", i),
+                        summary.expirationDate(), CardStatus.ACTIVE, summary.balance()))
+                .toList();
+        summaryPage = new PageImpl<>(content, PageRequest.of(3, pageSize), 10_000);
+        responsePage = summaryPage.map(cardMapper::toCardResponse);
+    }
+
+    @Benchmark
+    public String maskCardNumber() {
+        return CardMaskingUtil.maskCardNumber(CARD_NUMBER);
+    }
+
+    @Benchmark
+    public CardResponse toCardResponseFromEntity() {
+        return cardMapper.toCardResponse(card);
+    }
+
+    @Benchmark
+    public CardResponse toCardResponseFromSummary() {
+        return cardMapper.toCardResponse(summary);
+    }
+
+    @Benchmark
+    public PagedResponse<CardResponse> pagedResponseFrom() {
+        return PagedResponse.from(responsePage);
+    }
+
+    @Benchmark
+    public PagedResponse<CardResponse> mapPage() {
+        return PagedResponse.from(summaryPage.map(cardMapper::toCardResponse));
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.util.encryption.CardNumberEncryptor;
+import com.example.bankcards.util.encryption.EncryptionKeyRing;
+import com.example.bankcards.util.encryption.EncryptionProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the pooled {@link CardNumberEncryptor} with the previous implementation, which called
+ * {@code Cipher.getInstance} and {@code new SecureRandom()} on every operation.
+ * {@code encryptGcm} and {@code decryptGcm} measure the versioned AES-GCM format written when a key version is active.
+ * Each nested class runs the same benchmarks with a different number of threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public abstract class CardNumberEncryptorBenchmark {
+    private static final String KEY = "1234567890123456";
+    private static final String GCM_KEY = "abcdefghijklmnopqrstuvwxyz012345";
+    private static final String CARD_NUMBER = "4111111111111111";
+
+    private LegacyCardNumberEncryptor legacyEncryptor;
+    private CardNumberEncryptor pooledEncryptor;
+    private String encryptedCardNumber;
+    private CardNumberEncryptor gcmEncryptor;
+    private String gcmEncryptedCardNumber;
+
+    @Setup
+    public void setUp() {
+        legacyEncryptor = new LegacyCardNumberEncryptor(KEY);
+        pooledEncryptor = new CardNumberEncryptor(KEY);
+        encryptedCardNumber = pooledEncryptor.convertToDatabaseColumn(CARD_NUMBER);
+        gcmEncryptor = new CardNumberEncryptor(new EncryptionKeyRing(
+                new EncryptionProperties(KEY, 1, Map.of(1, GCM_KEY))));
+        gcmEncryptedCardNumber = gcmEncryptor.convertToDatabaseColumn(CARD_NUMBER);
+    }
+
+    @Benchmark
+    public String encryptLegacy() {
+        return legacyEncryptor.encrypt(CARD_NUMBER);
+    }
+
+    @Benchmark
+    public String encryptPooled() {
+        return pooledEncryptor.convertToDatabaseColumn(CARD_NUMBER);
+    }
+
+    @Benchmark
+    public String decryptLegacy() {
+        return legacyEncryptor.decrypt(encryptedCardNumber);
+    }
+
+    @Benchmark
+    public String decryptPooled() {
+        return pooledEncryptor.convertToEntityAttribute(encryptedCardNumber);
+    }
+
+    @Benchmark
+    public String encryptGcm() {
+        return gcmEncryptor.convertToDatabaseColumn(CARD_NUMBER);
+    }
+
+    @Benchmark
+    public String decryptGcm() {
+        return gcmEncryptor.convertToEntityAttribute(gcmEncryptedCardNumber);
+    }
+
+    @Threads(1)
+    public static class OneThread extends CardNumberEncryptorBenchmark {
+    }
+
+    @Threads(8)
+    public static class EightThreads extends CardNumberEncryptorBenchmark {
+    }
+
+    @Threads(32)
+    public static class ThirtyTwoThreads extends CardNumberEncryptorBenchmark {
+    }
+
+    /**
+     * The encryptor as it was before cipher pooling, kept here as the baseline.
+     */
+    static class LegacyCardNumberEncryptor {
+        private static final String ALGORITHM = "AES/CBC/PKCS5Padding";
+        private static final int IV_LENGTH_BYTE = 16;
+        private final SecretKeySpec secretKey;
+
+        LegacyCardNumberEncryptor(String key) {
+            this.secretKey = new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), "AES");
+        }
+
+        String encrypt(String attribute) {
+            try {
+                byte[] iv = new byte[IV_LENGTH_BYTE];
+                new SecureRandom().nextBytes(iv);
+                Cipher cipher = Cipher.getInstance(ALGORITHM);
+                cipher.init(Cipher.ENCRYPT_MODE, secretKey, new IvParameterSpec(iv));
+                byte[] encryptedValue = cipher.doFinal(attribute.getBytes(StandardCharsets.UTF_8));
+                byte[] finalCipherBytes = new byte[iv.length + encryptedValue.length];
+                System.arraycopy(iv, 0, finalCipherBytes, 0, iv.length);
+                System.arraycopy(encryptedValue, 0, finalCipherBytes, iv.length, encryptedValue.length);
+                return Base64.getEncoder().encodeToString(finalCipherBytes);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        String decrypt(String dbData) {
+            try {
+                byte[] fullCipherBytes = Base64.getDecoder().decode(dbData);
+                byte[] iv = new byte[IV_LENGTH_BYTE];
+                System.arraycopy(fullCipherBytes, 0, iv, 0, iv.length);
+                int encryptedValueLength = fullCipherBytes.length - IV_LENGTH_BYTE;
+                byte[] encryptedValue = new byte[encryptedValueLength];
+                System.arraycopy(fullCipherBytes, IV_LENGTH_BYTE, encryptedValue, 0, encryptedValueLength);
+                Cipher cipher = Cipher.getInstance(ALGORITHM);
+                cipher.init(Cipher.DECRYPT_MODE, secretKey, new IvParameterSpec(iv));
+                return new String(cipher.doFinal(encryptedValue), StandardCharsets.UTF_8);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.bankcards.benchmark;
+
+import com.example.bankcards.util.encryption.HashUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link HashUtil#sha256} for the two inputs it hashes on hot paths:
+ * a card number (uniqueness check on card creation) and a refresh token (every refresh and logout).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HashUtilBenchmark {
+    private static final String CARD_NUMBER = "4111111111111111";
+    private static final String REFRESH_TOKEN = "0b7f3c2e-5d4a-4e8b-9f61-2a7c8d9e0f13";
+
+    @Benchmark
+    public String sha256CardNumber() {
+        return HashUtil.sha256(CARD_NUMBER);
+    }
+
+    @Benchmark
+    public String sha256RefreshToken() {
+        return HashUtil.sha256(REFRESH_TOKEN);
+    }
+}
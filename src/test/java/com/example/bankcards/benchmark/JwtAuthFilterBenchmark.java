@@ -0,0 +1,131 @@
+package com.example.bankcards.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.Role;
+import com.example.bankcards.security.impl.JwtAuthEntryPoint;
+import com.example.bankcards.security.impl.JwtAuthFilter;
+import com.example.bankcards.security.impl.JwtServiceImpl;
+import com.example.bankcards.security.impl.UserDetailsServiceImpl;
+import com.example.bankcards.security.impl.TokenRevocationRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-request cost of JWT authentication in {@link JwtAuthFilter}.
+ * <p>
+ * {@code legacyValidateThenParse} reproduces the previous behaviour: a new parser was built and the
+ * signature verified twice per request. The user lookup is stubbed, so only the token handling is measured;
+ * {@code authenticateRequestStateless} shows the cost of building the principal from the claims instead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthFilterBenchmark {
+    private static final String SECRET = "c2VjcmV0LWtleS1mb3ItamF2YS1hcHAtZm9yLXRlc3RpbmctcHJvamVjdA==";
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private JwtServiceImpl jwtService;
+    private JwtAuthFilter jwtAuthFilter;
+    private JwtAuthFilter statelessJwtAuthFilter;
+    private SecretKey key;
+    private String token;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        // Без конфигурации logback пишет DEBUG в консоль, что исказило бы замер
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        jwtService = new JwtServiceImpl();
+        ReflectionTestUtils.setField(jwtService, "jwtSecretString", SECRET);
+        ReflectionTestUtils.setField(jwtService, "accessTokenDurationMs", 3_600_000L);
+        jwtService.init();
+        key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setUsername("benchmark-user");
+        user.setPassword("not-used");
+        user.setRoles(Set.of(Role.ROLE_USER));
+        user.setEnabled(true);
+        token = jwtService.generateAccessTokenForUser(user);
+
+        UserDetailsServiceImpl userDetailsService = new UserDetailsServiceImpl(null, false, 0, 0) {
+            @Override
+            public UserDetails loadUserByUsername(String username) {
+                return user;
+            }
+        };
+        JwtAuthEntryPoint entryPoint = new JwtAuthEntryPoint(new ObjectMapper());
+        TokenRevocationRegistry revocationRegistry = new TokenRevocationRegistry(null);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        jwtAuthFilter = new JwtAuthFilter(jwtService, userDetailsService, entryPoint, revocationRegistry, meterRegistry);
+        statelessJwtAuthFilter = new JwtAuthFilter(jwtService, userDetailsService, entryPoint, revocationRegistry,
+                meterRegistry);
+        ReflectionTestUtils.setField(statelessJwtAuthFilter, "statelessPrincipal", true);
+
+        request = new MockHttpServletRequest("GET", "/api/cards/my");
+        request.addHeader("Authorization", "Bearer " + token);
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public String legacyValidateThenParse() {
+        Jwts.parser().verifyWith(key).build().parseSignedClaims(token);
+        return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload().getSubject();
+    }
+
+    @Benchmark
+    public Claims parseVerifiedClaims() {
+        return jwtService.parseVerifiedClaims(token).orElseThrow();
+    }
+
+    @Benchmark
+    public Object authenticateRequest() throws Exception {
+        return authenticate(jwtAuthFilter);
+    }
+
+    @Benchmark
+    public Object authenticateRequestStateless() throws Exception {
+        return authenticate(statelessJwtAuthFilter);
+    }
+
+    private Object authenticate(JwtAuthFilter filter) throws Exception {
+        filter.doFilter(request, response, NO_OP_CHAIN);
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        SecurityContextHolder.clearContext();
+        return principal;
+    }
+}
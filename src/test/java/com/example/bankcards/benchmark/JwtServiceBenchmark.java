@@ -0,0 +1,79 @@
+package com.example.bankcards.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.Role;
+import com.example.bankcards.security.impl.JwtServiceImpl;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link JwtServiceImpl} on its own: building an access token (every login and refresh)
+ * and parsing it back (every authenticated request), without the filter around it.
+ * See {@link JwtAuthFilterBenchmark} for the cost of the whole authentication step.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+    private static final String SECRET = "c2VjcmV0LWtleS1mb3ItamF2YS1hcHAtZm9yLXRlc3RpbmctcHJvamVjdA==";
+
+    private JwtServiceImpl jwtService;
+    private User user;
+    private String token;
+    private Claims claims;
+
+    @Setup
+    public void setUp() {
+        // Без конфигурации logback пишет DEBUG в консоль, что исказило бы замер
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        jwtService = new JwtServiceImpl();
+        ReflectionTestUtils.setField(jwtService, "jwtSecretString", SECRET);
+        ReflectionTestUtils.setField(jwtService, "accessTokenDurationMs", 3_600_000L);
+        jwtService.init();
+
+        user = new User();
+        user.setId(UUID.randomUUID());
+        user.setUsername("benchmark-user");
+        user.setPassword("not-used");
+        user.setRoles(Set.of(Role.ROLE_USER, Role.ROLE_ADMIN));
+        user.setEnabled(true);
+        token = jwtService.generateAccessTokenForUser(user);
+        claims = jwtService.parseVerifiedClaims(token).orElseThrow();
+    }
+
+    @Benchmark
+    public String buildToken() {
+        return jwtService.generateAccessTokenForUser(user);
+    }
+
+    @Benchmark
+    public Claims parseToken() {
+        return jwtService.parseVerifiedClaims(token).orElseThrow();
+    }
+
+    @Benchmark
+    public User toPrincipal() {
+        return jwtService.toPrincipal(claims).orElseThrow();
+    }
+}
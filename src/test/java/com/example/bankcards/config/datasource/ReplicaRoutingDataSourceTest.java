@@ -0,0 +1,59 @@
+package com.example.bankcards.config.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReplicaRoutingDataSourceTest {
+    private ReadYourWritesRegistry registry;
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setUp() {
+        registry = new ReadYourWritesRegistry(new ReplicaDataSourceProperties(true, null, null, null, 1, 60_000));
+        routingDataSource = new ReplicaRoutingDataSource(new SimpleDriverDataSource(), new SimpleDriverDataSource(),
+                registry::isPrimaryRequired);
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        registry.endRequest();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    @DisplayName("Read-only transactions should go to the replica and the rest to the primary")
+    void determineCurrentLookupKey_shouldRouteByReadOnlyFlag() {
+        assertEquals(ReplicaRoutingDataSource.Route.PRIMARY, routingDataSource.determineCurrentLookupKey());
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals(ReplicaRoutingDataSource.Route.REPLICA, routingDataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    @DisplayName("Reads of a user who has just written should stay on the primary")
+    void determineCurrentLookupKey_shouldUsePrimary_whenUserIsPinned() {
+        UUID userId = UUID.randomUUID();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        registry.pin(userId);
+        assertEquals(ReplicaRoutingDataSource.Route.PRIMARY, routingDataSource.determineCurrentLookupKey());
+
+        // Следующий запрос того же пользователя тоже читает с primary, другого - с реплики
+        registry.endRequest();
+        registry.beginRequest(userId);
+        assertEquals(ReplicaRoutingDataSource.Route.PRIMARY, routingDataSource.determineCurrentLookupKey());
+        registry.endRequest();
+        registry.beginRequest(UUID.randomUUID());
+        assertEquals(ReplicaRoutingDataSource.Route.REPLICA, routingDataSource.determineCurrentLookupKey());
+    }
+}
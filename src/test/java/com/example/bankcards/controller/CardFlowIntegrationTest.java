@@ -105,14 +105,41 @@ public class CardFlowIntegrationTest extends AbstractIntegrationTest {
         assertThat(initialCards.content()).extracting(CardResponse::balance)
                 .containsExactlyInAnyOrder(new BigDecimal("1000.00"), new BigDecimal("500.00"));
 
+        // === Шаг 5.1: Курсорная выдача отдаёт те же карты по одной на страницу ===
+        String firstScrollPage = mockMvc.perform(get("/api/cards/my/scroll")
+                        .header("Authorization", "Bearer " + userToken)
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.has_next").value(true))
+                .andReturn().getResponse().getContentAsString();
+
+        mockMvc.perform(get("/api/cards/my/scroll")
+                        .header("Authorization", "Bearer " + userToken)
+                        .param("size", "1")
+                        .param("cursor", objectMapper.readTree(firstScrollPage).get("next_cursor").asText()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.has_next").value(false));
+
         // === Шаг 6: Пользователь успешно переводит 200.50 ===
         TransferRequest transferRequest = new TransferRequest(card1Id, card2Id, new BigDecimal("200.50"));
         mockMvc.perform(post("/api/cards/my/transfer")
                         .header("Authorization", "Bearer " + userToken)
+                        .header("Idempotency-Key", "transfer-1")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(transferRequest)))
                 .andExpect(status().isOk());
 
+        // === Шаг 6.1: Повтор запроса с тем же Idempotency-Key не списывает деньги повторно ===
+        mockMvc.perform(post("/api/cards/my/transfer")
+                        .header("Authorization", "Bearer " + userToken)
+                        .header("Idempotency-Key", "transfer-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(transferRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.fromCard").value(799.50));
+
         // === Шаг 7: Пользователь проверяет новые балансы ===
         getCardsResult = mockMvc.perform(get("/api/cards/my")
                         .header("Authorization", "Bearer " + userToken))
@@ -130,6 +157,22 @@ public class CardFlowIntegrationTest extends AbstractIntegrationTest {
         assertThat(updatedCard1.balance()).isEqualByComparingTo("799.50");
         assertThat(updatedCard2.balance()).isEqualByComparingTo("700.50");
 
+        // === Шаг 7.1: Перевод записан в журнал транзакций обеих карт ===
+        mockMvc.perform(get("/api/cards/{cardId}/transactions", card1Id)
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].type").value("DEBIT"))
+                .andExpect(jsonPath("$.content[0].amount").value(200.50))
+                .andExpect(jsonPath("$.content[0].balanceAfter").value(799.50))
+                .andExpect(jsonPath("$.has_next").value(false));
+
+        mockMvc.perform(get("/api/cards/{cardId}/transactions", card2Id)
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].type").value("CREDIT"))
+                .andExpect(jsonPath("$.content[0].counterpartyCardId").value(card1Id.toString()));
+
         // === Шаг 8: Пользователь пытается перевести слишком много и получает ошибку ===
         TransferRequest failedRequest = new TransferRequest(card1Id, card2Id, new BigDecimal("800.00"));
         mockMvc.perform(post("/api/cards/my/transfer")
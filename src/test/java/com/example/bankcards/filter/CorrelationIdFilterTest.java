@@ -0,0 +1,50 @@
+package com.example.bankcards.filter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CorrelationIdFilterTest {
+
+    private final CorrelationIdFilter filter = new CorrelationIdFilter();
+
+    @Test
+    @DisplayName("A well-formed incoming correlation ID should be put into the MDC and echoed back")
+    void doFilter_shouldReuseIncomingId() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/cards/my");
+        request.addHeader(CorrelationIdFilter.HEADER, "client-42");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicReference<String> idDuringRequest = new AtomicReference<>();
+
+        filter.doFilter(request, response, (req, res) -> idDuringRequest.set(MDC.get(CorrelationIdFilter.MDC_KEY)));
+
+        assertEquals("client-42", idDuringRequest.get());
+        assertEquals("client-42", response.getHeader(CorrelationIdFilter.HEADER));
+        assertNull(MDC.get(CorrelationIdFilter.MDC_KEY));
+    }
+
+    @Test
+    @DisplayName("A missing or malformed correlation ID should be replaced with a generated one")
+    void doFilter_shouldGenerateId_whenHeaderIsMalformed() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/cards/my");
+        // Перевод строки позволил бы подделать строки лога
+        request.addHeader(CorrelationIdFilter.HEADER, "forged\nline");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicReference<String> idDuringRequest = new AtomicReference<>();
+
+        filter.doFilter(request, response, (req, res) -> idDuringRequest.set(MDC.get(CorrelationIdFilter.MDC_KEY)));
+
+        assertNotNull(idDuringRequest.get());
+        assertNotEquals("forged\nline", idDuringRequest.get());
+        assertEquals(idDuringRequest.get(), response.getHeader(CorrelationIdFilter.HEADER));
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.bankcards.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DbConcurrencyLimitFilterTest {
+
+    private DbConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new DbConcurrencyLimitFilter(new ObjectMapper().registerModule(new JavaTimeModule()), 1, 0, 3);
+    }
+
+    @Test
+    @DisplayName("A request beyond the limit should get 503 with Retry-After")
+    void doFilter_shouldReject_whenNoPermitIsAvailable() throws Exception {
+        MockHttpServletResponse nestedResponse = new MockHttpServletResponse();
+
+        // Второй запрос приходит, пока первый ещё держит единственное разрешение
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/cards/my"), new MockHttpServletResponse(),
+                (request, response) -> filter.doFilter(new MockHttpServletRequest("GET", "/api/cards/my"), nestedResponse,
+                        (nestedRequest, ignored) -> { }));
+
+        assertEquals(503, nestedResponse.getStatus());
+        assertEquals("3", nestedResponse.getHeader("Retry-After"));
+    }
+
+    @Test
+    @DisplayName("The permit should be returned after the request completes")
+    void doFilter_shouldReleasePermit_afterRequest() throws Exception {
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        MockHttpServletResponse second = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/cards/my"), first, (request, response) -> { });
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/cards/my"), second, (request, response) -> { });
+
+        assertEquals(200, first.getStatus());
+        assertEquals(200, second.getStatus());
+    }
+
+    @Test
+    @DisplayName("Requests outside the API should not be limited")
+    void doFilter_shouldSkipNonApiRequests() throws Exception {
+        MockHttpServletResponse nestedResponse = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/cards/my"), new MockHttpServletResponse(),
+                (request, response) -> filter.doFilter(new MockHttpServletRequest("GET", "/swagger-ui.html"), nestedResponse,
+                        (nestedRequest, ignored) -> { }));
+
+        assertEquals(200, nestedResponse.getStatus());
+    }
+
+    @Test
+    @DisplayName("Login and registration should not take a permit while hashing the password")
+    void doFilter_shouldSkipPasswordHashingEndpoints() throws Exception {
+        MockHttpServletResponse loginResponse = new MockHttpServletResponse();
+        MockHttpServletResponse cardsResponse = new MockHttpServletResponse();
+
+        // Пока вход ждёт пул BCrypt, запрос карт получает единственное разрешение
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/auth/login"), loginResponse,
+                (request, response) -> filter.doFilter(new MockHttpServletRequest("GET", "/api/cards/my"), cardsResponse,
+                        (nestedRequest, ignored) -> { }));
+
+        assertEquals(200, loginResponse.getStatus());
+        assertEquals(200, cardsResponse.getStatus());
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.bankcards.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Endpoints driven by the load test. The name is used in the traffic mix and in the report.
+ */
+public enum Endpoint {
+    CARDS("cards", "GET /api/cards/my"),
+    TRANSFER("transfer", "POST /api/cards/my/transfer"),
+    LOGIN("login", "POST /api/auth/login"),
+    REFRESH("refresh", "POST /api/auth/refresh");
+
+    private final String mixName;
+    private final String description;
+
+    Endpoint(String mixName, String description) {
+        this.mixName = mixName;
+        this.description = description;
+    }
+
+    public String mixName() {
+        return mixName;
+    }
+
+    public String description() {
+        return description;
+    }
+
+    public static Endpoint fromName(String name) {
+        return Arrays.stream(values())
+                .filter(endpoint -> endpoint.mixName.equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown endpoint in mix: " + name));
+    }
+}
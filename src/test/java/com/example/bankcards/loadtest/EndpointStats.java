@@ -0,0 +1,91 @@
+package com.example.bankcards.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram and outcome counters of one endpoint.
+ * <p>
+ * Latency is measured from the moment the request was scheduled to be sent, not from when it was actually sent,
+ * so a client that falls behind the arrival rate does not hide server-side queueing (coordinated omission).
+ */
+final class EndpointStats {
+    private final Histogram latencyMicros = new ConcurrentHistogram(3);
+    private final Map<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+
+    void recordResponse(long scheduledAtNanos, int status) {
+        latencyMicros.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduledAtNanos));
+        statusCounts.computeIfAbsent(status, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * Records a request that did not get an HTTP response: timeout, refused connection or a client error.
+     */
+    void recordFailure(long scheduledAtNanos) {
+        latencyMicros.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduledAtNanos));
+        failures.increment();
+    }
+
+    /**
+     * Records a request that was not sent because no idle session was available for it.
+     */
+    void recordSkipped() {
+        skipped.increment();
+    }
+
+    Result result(Endpoint endpoint, double measuredSeconds) {
+        Map<Integer, Long> statuses = new TreeMap<>();
+        statusCounts.forEach((status, count) -> statuses.put(status, count.sum()));
+        long successful = statuses.entrySet().stream()
+                .filter(entry -> entry.getKey() >= 200 && entry.getKey() < 300)
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+        Histogram snapshot = latencyMicros.copy();
+        return new Result(
+                endpoint.mixName(),
+                endpoint.description(),
+                snapshot.getTotalCount(),
+                successful,
+                failures.sum(),
+                skipped.sum(),
+                statuses,
+                snapshot.getTotalCount() / measuredSeconds,
+                successful / measuredSeconds,
+                toMillis(snapshot.getValueAtPercentile(50)),
+                toMillis(snapshot.getValueAtPercentile(99)),
+                toMillis(snapshot.getValueAtPercentile(99.9)),
+                toMillis(snapshot.getMaxValue()));
+    }
+
+    private static double toMillis(long micros) {
+        return micros / 1000.0;
+    }
+
+    /**
+     * Summary of one endpoint for the report. Latencies are in milliseconds, throughput in requests per second.
+     */
+    record Result(
+            String endpoint,
+            String request,
+            long completed,
+            long successful,
+            long failed,
+            long skipped,
+            Map<Integer, Long> statusCounts,
+            double throughput,
+            double successfulThroughput,
+            double p50Ms,
+            double p99Ms,
+            double p999Ms,
+            double maxMs
+    ) {
+    }
+}
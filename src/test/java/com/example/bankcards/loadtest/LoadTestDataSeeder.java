@@ -0,0 +1,96 @@
+package com.example.bankcards.loadtest;
+
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.Role;
+import com.example.bankcards.util.encryption.CardNumberEncryptor;
+import com.example.bankcards.util.encryption.HashUtil;
+import com.example.bankcards.util.masking.CardMaskingUtil;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Creates the users and cards the load test logs in with, the way {@code DataInitializer} creates the admin,
+ * but in JDBC batches: going through JPA would take minutes for a large dataset.
+ * <p>
+ * All users share one password, so BCrypt runs once instead of once per user. Card numbers are encrypted with
+ * the application's {@link CardNumberEncryptor}, so transfers that load cards as entities can decrypt them.
+ */
+final class LoadTestDataSeeder {
+    static final String PASSWORD = "load-test-password";
+    private static final int BATCH_SIZE = 1000;
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("1000000.00");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final CardNumberEncryptor cardNumberEncryptor;
+
+    LoadTestDataSeeder(JdbcTemplate jdbcTemplate, PasswordEncoder passwordEncoder, CardNumberEncryptor cardNumberEncryptor) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.cardNumberEncryptor = cardNumberEncryptor;
+    }
+
+    /**
+     * Seeds {@code users} users with {@code cardsPerUser} active cards each.
+     * Usernames and card numbers carry a random run prefix, so a run against an existing database does not
+     * collide with the data of earlier runs.
+     *
+     * @return The seeded users with the IDs of their cards.
+     */
+    List<SeededUser> seed(int users, int cardsPerUser) {
+        int runPrefix = ThreadLocalRandom.current().nextInt(100, 1000);
+        String passwordHash = passwordEncoder.encode(PASSWORD);
+        Date expirationDate = Date.valueOf(YearMonth.now().plusYears(3).atDay(1));
+
+        List<SeededUser> seededUsers = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            List<UUID> cardIds = new ArrayList<>(cardsPerUser);
+            for (int j = 0; j < cardsPerUser; j++) {
+                cardIds.add(UUID.randomUUID());
+            }
+            seededUsers.add(new SeededUser(UUID.randomUUID(), "load-" + runPrefix + "-" + i, cardIds));
+        }
+
+        long cardSequence = 0;
+        for (List<SeededUser> batch : batches(seededUsers)) {
+            jdbcTemplate.batchUpdate("INSERT INTO users (id, username, password) VALUES (?, ?, ?)",
+                    batch.stream().map(user -> new Object[]{user.id(), user.username(), passwordHash}).toList());
+            jdbcTemplate.batchUpdate("INSERT INTO user_roles (user_id, role) VALUES (?, ?)",
+                    batch.stream().map(user -> new Object[]{user.id(), Role.ROLE_USER.name()}).toList());
+
+            List<Object[]> cards = new ArrayList<>(batch.size() * cardsPerUser);
+            for (SeededUser user : batch) {
+                for (UUID cardId : user.cardIds()) {
+                    String cardNumber = "4" + runPrefix + String.format("%012d", cardSequence++);
+                    cards.add(new Object[]{cardId, cardNumberEncryptor.convertToDatabaseColumn(cardNumber),
+                            HashUtil.sha256(cardNumber), CardMaskingUtil.lastFourDigits(cardNumber), expirationDate,
+                            CardStatus.ACTIVE.name(), INITIAL_BALANCE, user.id()});
+                }
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO cards (id, card_number, card_number_hash, card_number_last4, " +
+                    "expiration_date, status, balance, active, user_id) VALUES (?, ?, ?, ?, ?, ?, ?, true, ?)", cards);
+        }
+        jdbcTemplate.execute("ANALYZE users");
+        jdbcTemplate.execute("ANALYZE cards");
+        return seededUsers;
+    }
+
+    private static <T> List<List<T>> batches(List<T> items) {
+        List<List<T>> batches = new ArrayList<>();
+        for (int from = 0; from < items.size(); from += BATCH_SIZE) {
+            batches.add(items.subList(from, Math.min(items.size(), from + BATCH_SIZE)));
+        }
+        return batches;
+    }
+
+    record SeededUser(UUID id, String username, List<UUID> cardIds) {
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.bankcards.loadtest;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import java.io.IOException;
+
+/**
+ * The PostgreSQL database the application under test runs against: either an existing one given by
+ * {@code --db-url}, or an embedded server started from the binaries bundled with {@code embedded-postgres},
+ * which needs neither Docker nor network access.
+ */
+final class LoadTestDatabase implements AutoCloseable {
+    private final EmbeddedPostgres embeddedPostgres;
+    private final String jdbcUrl;
+    private final String username;
+    private final String password;
+
+    private LoadTestDatabase(EmbeddedPostgres embeddedPostgres, String jdbcUrl, String username, String password) {
+        this.embeddedPostgres = embeddedPostgres;
+        this.jdbcUrl = jdbcUrl;
+        this.username = username;
+        this.password = password;
+    }
+
+    static LoadTestDatabase start(LoadTestSettings settings) throws IOException {
+        if (!settings.dbUrl().isBlank()) {
+            return new LoadTestDatabase(null, settings.dbUrl(), settings.dbUsername(), settings.dbPassword());
+        }
+        EmbeddedPostgres postgres = EmbeddedPostgres.builder()
+                // Соединений должно хватить на пул Hikari и на загрузку данных
+                .setServerConfig("max_connections", "200")
+                .start();
+        return new LoadTestDatabase(postgres, postgres.getJdbcUrl("postgres", "postgres"), "postgres", "postgres");
+    }
+
+    String jdbcUrl() {
+        return jdbcUrl;
+    }
+
+    String username() {
+        return username;
+    }
+
+    String password() {
+        return password;
+    }
+
+    boolean embedded() {
+        return embeddedPostgres != null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (embeddedPostgres != null) {
+            embeddedPostgres.close();
+        }
+    }
+}
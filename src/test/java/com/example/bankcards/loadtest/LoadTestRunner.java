@@ -0,0 +1,123 @@
+package com.example.bankcards.loadtest;
+
+import com.example.bankcards.BankCardsApi;
+import com.example.bankcards.loadtest.LoadTestDataSeeder.SeededUser;
+import com.example.bankcards.util.encryption.CardNumberEncryptor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * End-to-end load test: starts PostgreSQL and the application in this JVM, seeds users and cards,
+ * drives an open-model traffic mix against {@code /api/cards/my}, {@code /api/cards/my/transfer},
+ * {@code /api/auth/login} and {@code /api/auth/refresh}, and reports latency percentiles and throughput
+ * per endpoint. Runs without Docker or network access.
+ * <p>
+ * Run with {@code mvn -Pload-test test -Dloadtest.args="--rate=300 --users=10000"};
+ * see {@link LoadTestSettings} for the options.
+ */
+public final class LoadTestRunner {
+
+    private LoadTestRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.parse(args);
+        try (LoadTestDatabase database = LoadTestDatabase.start(settings);
+             ConfigurableApplicationContext context = startApplication(settings, database)) {
+            ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+            long seedStart = System.nanoTime();
+            List<SeededUser> users = new LoadTestDataSeeder(context.getBean(JdbcTemplate.class),
+                    context.getBean(PasswordEncoder.class), context.getBean(CardNumberEncryptor.class))
+                    .seed(settings.users(), settings.cardsPerUser());
+            System.out.printf("Seeded %d users and %d cards in %d ms%n", settings.users(),
+                    (long) settings.users() * settings.cardsPerUser(), (System.nanoTime() - seedStart) / 1_000_000);
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            ExecutorService httpExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+            try {
+                HttpClient httpClient = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .connectTimeout(Duration.ofSeconds(settings.requestTimeoutSeconds()))
+                        .executor(httpExecutor)
+                        .build();
+                LoadTestScenario scenario = new LoadTestScenario(httpClient, objectMapper,
+                        URI.create("http://localhost:" + port + "/"),
+                        Duration.ofSeconds(settings.requestTimeoutSeconds()), users);
+                scenario.openSessions(settings.sessions());
+
+                System.out.printf("Running %.1f req/s (%s arrivals) for %d s after %d s of warm-up, mix %s%n",
+                        settings.rate(), settings.arrival(), settings.durationSeconds(), settings.warmupSeconds(),
+                        settings.mix());
+                OpenModelLoadGenerator generator = new OpenModelLoadGenerator(scenario, settings);
+                Map<Endpoint, EndpointStats> stats = generator.run();
+                report(settings, database, stats, generator.maxInFlight(), objectMapper);
+            } finally {
+                httpExecutor.shutdownNow();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startApplication(LoadTestSettings settings, LoadTestDatabase database) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("spring.datasource.url", database.jdbcUrl());
+        properties.put("spring.datasource.username", database.username());
+        properties.put("spring.datasource.password", database.password());
+        properties.putAll(settings.springProperties());
+        return new SpringApplicationBuilder(BankCardsApi.class)
+                .profiles("prod", "loadtest")
+                .properties(properties)
+                .run();
+    }
+
+    private static void report(LoadTestSettings settings, LoadTestDatabase database, Map<Endpoint, EndpointStats> stats,
+                               int maxInFlight, ObjectMapper objectMapper) throws Exception {
+        List<EndpointStats.Result> results = stats.entrySet().stream()
+                .map(entry -> entry.getValue().result(entry.getKey(), settings.durationSeconds()))
+                .toList();
+
+        System.out.printf("%n%-30s %9s %9s %7s %7s %10s %9s %9s %9s %9s%n", "endpoint", "completed", "ok", "failed",
+                "skipped", "ok req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (EndpointStats.Result result : results) {
+            System.out.printf("%-30s %9d %9d %7d %7d %10.1f %9.2f %9.2f %9.2f %9.2f  %s%n", result.request(),
+                    result.completed(), result.successful(), result.failed(), result.skipped(),
+                    result.successfulThroughput(), result.p50Ms(), result.p99Ms(), result.p999Ms(), result.maxMs(),
+                    result.statusCounts());
+        }
+        System.out.printf("Max requests in flight: %d%n", maxInFlight);
+
+        if (settings.resultFile() != null) {
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("rate", settings.rate());
+            report.put("arrival", settings.arrival());
+            report.put("durationSeconds", settings.durationSeconds());
+            report.put("warmupSeconds", settings.warmupSeconds());
+            report.put("users", settings.users());
+            report.put("cardsPerUser", settings.cardsPerUser());
+            report.put("sessions", settings.sessions());
+            report.put("embeddedDatabase", database.embedded());
+            report.put("applicationProperties", settings.springProperties());
+            report.put("maxInFlight", maxInFlight);
+            report.put("endpoints", results);
+            Files.createDirectories(settings.resultFile().toAbsolutePath().getParent());
+            objectMapper.writeValue(settings.resultFile().toFile(), report);
+            System.out.printf("Report written to %s%n", settings.resultFile());
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.bankcards.loadtest;
+
+import com.example.bankcards.dto.request.LoginRequest;
+import com.example.bankcards.dto.request.TokenRefreshRequest;
+import com.example.bankcards.dto.request.TransferRequest;
+import com.example.bankcards.dto.response.JwtResponse;
+import com.example.bankcards.dto.response.TokenRefreshResponse;
+import com.example.bankcards.loadtest.LoadTestDataSeeder.SeededUser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Builds and sends the request of each {@link Endpoint} on behalf of the seeded users.
+ * <p>
+ * Sessions are logged in once before the run. Card listings and transfers use the access token of a random
+ * session. A refresh rotates the refresh token, and presenting an old one revokes the session, so a session is
+ * taken out of the idle queue for the duration of its refresh. Logins use a separate device ID, so they do not
+ * replace the sessions used by the other requests.
+ */
+final class LoadTestScenario {
+    private static final String SESSION_DEVICE_ID = "load-test-session";
+    private static final String LOGIN_DEVICE_ID = "load-test-login";
+    private static final BigDecimal TRANSFER_AMOUNT = new BigDecimal("0.01");
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final URI baseUri;
+    private final Duration requestTimeout;
+    private final List<SeededUser> users;
+    private final List<Session> sessions = new ArrayList<>();
+    private final Queue<Session> idleSessions = new ConcurrentLinkedQueue<>();
+
+    LoadTestScenario(HttpClient httpClient, ObjectMapper objectMapper, URI baseUri, Duration requestTimeout,
+                     List<SeededUser> users) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.baseUri = baseUri;
+        this.requestTimeout = requestTimeout;
+        this.users = users;
+    }
+
+    /**
+     * Logs in the first {@code count} seeded users, one request at a time.
+     */
+    void openSessions(int count) throws IOException, InterruptedException {
+        for (SeededUser user : users.subList(0, count)) {
+            HttpResponse<String> response = httpClient.send(loginRequest(user, SESSION_DEVICE_ID),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Login of " + user.username() + " failed with status "
+                        + response.statusCode() + ": " + response.body());
+            }
+            JwtResponse jwt = objectMapper.readValue(response.body(), JwtResponse.class);
+            Session session = new Session(user, jwt.accessToken(), jwt.refreshToken());
+            sessions.add(session);
+            idleSessions.add(session);
+        }
+    }
+
+    /**
+     * Sends the request of the endpoint asynchronously.
+     *
+     * @return The response, or null if the request was not sent because no session was idle.
+     */
+    CompletableFuture<HttpResponse<String>> send(Endpoint endpoint) {
+        return switch (endpoint) {
+            case CARDS -> sendAsync(authorized(randomSession(), "/api/cards/my?page=0&size=20").GET().build());
+            case TRANSFER -> sendAsync(transferRequest(randomSession()));
+            case LOGIN -> sendAsync(loginRequest(users.get(ThreadLocalRandom.current().nextInt(users.size())),
+                    LOGIN_DEVICE_ID));
+            case REFRESH -> refresh();
+        };
+    }
+
+    private CompletableFuture<HttpResponse<String>> refresh() {
+        Session session = idleSessions.poll();
+        if (session == null) {
+            return null;
+        }
+        HttpRequest request = jsonRequest("/api/auth/refresh", new TokenRefreshRequest(session.refreshToken)).build();
+        return sendAsync(request).whenComplete((response, error) -> {
+            if (response != null && response.statusCode() == 200) {
+                try {
+                    TokenRefreshResponse tokens = objectMapper.readValue(response.body(), TokenRefreshResponse.class);
+                    session.accessToken = tokens.accessToken();
+                    session.refreshToken = tokens.refreshToken();
+                    idleSessions.add(session);
+                } catch (JsonProcessingException e) {
+                    throw new IllegalStateException("Unreadable refresh response: " + response.body(), e);
+                }
+            }
+            // Сессия с неудачным обновлением могла быть отозвана; в очередь она не возвращается
+        });
+    }
+
+    private HttpRequest transferRequest(Session session) {
+        List<UUID> cardIds = session.user.cardIds();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(cardIds.size());
+        int to = (from + 1 + random.nextInt(cardIds.size() - 1)) % cardIds.size();
+        return authorized(session, "/api/cards/my/transfer")
+                .header("Content-Type", "application/json")
+                .header("Idempotency-Key", UUID.randomUUID().toString())
+                .POST(body(new TransferRequest(cardIds.get(from), cardIds.get(to), TRANSFER_AMOUNT)))
+                .build();
+    }
+
+    private HttpRequest loginRequest(SeededUser user, String deviceId) {
+        return jsonRequest("/api/auth/login", new LoginRequest(user.username(), LoadTestDataSeeder.PASSWORD, deviceId))
+                .build();
+    }
+
+    private HttpRequest.Builder authorized(Session session, String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(requestTimeout)
+                .header("Authorization", "Bearer " + session.accessToken);
+    }
+
+    private HttpRequest.Builder jsonRequest(String path, Object body) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .POST(body(body));
+    }
+
+    private HttpRequest.BodyPublisher body(Object body) {
+        try {
+            return HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Session randomSession() {
+        return sessions.get(ThreadLocalRandom.current().nextInt(sessions.size()));
+    }
+
+    private CompletableFuture<HttpResponse<String>> sendAsync(HttpRequest request) {
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * A logged-in user. Tokens are replaced by refreshes while other requests read them.
+     */
+    private static final class Session {
+        private final SeededUser user;
+        private volatile String accessToken;
+        private volatile String refreshToken;
+
+        private Session(SeededUser user, String accessToken, String refreshToken) {
+            this.user = user;
+            this.accessToken = accessToken;
+            this.refreshToken = refreshToken;
+        }
+    }
+}
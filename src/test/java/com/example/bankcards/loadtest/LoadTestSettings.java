@@ -0,0 +1,121 @@
+package com.example.bankcards.loadtest;
+
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Settings of one load test run, parsed from {@code --name=value} arguments.
+ * Arguments whose name contains a dot (for example {@code --app.transfer.engine=atomic}) are not load test
+ * settings; they are passed to the application as Spring properties.
+ *
+ * @param users              Number of seeded users.
+ * @param cardsPerUser       Number of seeded cards per user, at least 2 so that transfers have a destination.
+ * @param sessions           Number of users logged in before the run; cards, transfer and refresh requests use them.
+ * @param rate               Target arrival rate, requests per second over all endpoints.
+ * @param arrival            {@code poisson} for exponential inter-arrival times, {@code constant} for a fixed interval.
+ * @param mix                Relative weight of each endpoint in the traffic.
+ * @param warmupSeconds      Duration of the warm-up; its requests are sent but not recorded.
+ * @param durationSeconds    Duration of the measured part of the run.
+ * @param requestTimeoutSeconds Timeout of a single request.
+ * @param dbUrl              JDBC URL of an existing PostgreSQL database, or empty to start an embedded one.
+ * @param dbUsername         Database user for {@code dbUrl}.
+ * @param dbPassword         Database password for {@code dbUrl}.
+ * @param resultFile         Where the JSON report is written, or null to only print it.
+ * @param springProperties   Properties passed through to the application.
+ */
+public record LoadTestSettings(
+        int users,
+        int cardsPerUser,
+        int sessions,
+        double rate,
+        String arrival,
+        Map<Endpoint, Integer> mix,
+        int warmupSeconds,
+        int durationSeconds,
+        int requestTimeoutSeconds,
+        String dbUrl,
+        String dbUsername,
+        String dbPassword,
+        Path resultFile,
+        Map<String, Object> springProperties
+) {
+    private static final String DEFAULT_MIX = "cards:60,transfer:25,refresh:10,login:5";
+    private static final Set<String> OPTIONS = Set.of("users", "cards-per-user", "sessions", "rate", "arrival", "mix",
+            "warmup-seconds", "duration-seconds", "request-timeout-seconds", "db-url", "db-username", "db-password",
+            "result-file");
+
+    public LoadTestSettings {
+        if (cardsPerUser < 2) {
+            throw new IllegalArgumentException("cards-per-user must be at least 2");
+        }
+        if (sessions < 1 || sessions > users) {
+            throw new IllegalArgumentException("sessions must be between 1 and users");
+        }
+        if (rate <= 0) {
+            throw new IllegalArgumentException("rate must be positive");
+        }
+        if (!"poisson".equals(arrival) && !"constant".equals(arrival)) {
+            throw new IllegalArgumentException("arrival must be poisson or constant");
+        }
+    }
+
+    public static LoadTestSettings parse(String... args) {
+        Map<String, String> options = new HashMap<>();
+        Map<String, Object> springProperties = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            if (name.contains(".")) {
+                springProperties.put(name, value);
+            } else if (OPTIONS.contains(name)) {
+                options.put(name, value);
+            } else {
+                throw new IllegalArgumentException("Unknown load test option: " + name);
+            }
+        }
+        String resultFile = options.get("result-file");
+        return new LoadTestSettings(
+                Integer.parseInt(options.getOrDefault("users", "1000")),
+                Integer.parseInt(options.getOrDefault("cards-per-user", "5")),
+                Integer.parseInt(options.getOrDefault("sessions", "200")),
+                Double.parseDouble(options.getOrDefault("rate", "200")),
+                options.getOrDefault("arrival", "poisson"),
+                parseMix(options.getOrDefault("mix", DEFAULT_MIX)),
+                Integer.parseInt(options.getOrDefault("warmup-seconds", "15")),
+                Integer.parseInt(options.getOrDefault("duration-seconds", "60")),
+                Integer.parseInt(options.getOrDefault("request-timeout-seconds", "30")),
+                options.getOrDefault("db-url", ""),
+                options.getOrDefault("db-username", "postgres"),
+                options.getOrDefault("db-password", "postgres"),
+                resultFile == null || resultFile.isBlank() ? null : Path.of(resultFile),
+                springProperties);
+    }
+
+    /**
+     * Parses a mix such as {@code cards:60,transfer:25,refresh:10,login:5}. Endpoints that are not listed get no traffic.
+     */
+    static Map<Endpoint, Integer> parseMix(String mix) {
+        Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected endpoint:weight in mix, got: " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Mix weight must not be negative: " + entry);
+            }
+            weights.put(Endpoint.fromName(parts[0].trim()), weight);
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("Mix must have at least one positive weight");
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.bankcards.loadtest;
+
+import java.net.http.HttpResponse;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends requests at a target arrival rate regardless of how fast responses come back (an open workload model),
+ * as independent clients would. A closed loop of N virtual users slows down together with the server and
+ * understates its latency under overload; here a slow server accumulates requests in flight instead.
+ */
+final class OpenModelLoadGenerator {
+    private final LoadTestScenario scenario;
+    private final LoadTestSettings settings;
+    private final Endpoint[] endpoints;
+    private final int[] cumulativeWeights;
+    private final Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private int maxInFlight;
+
+    OpenModelLoadGenerator(LoadTestScenario scenario, LoadTestSettings settings) {
+        this.scenario = scenario;
+        this.settings = settings;
+        this.endpoints = settings.mix().keySet().toArray(Endpoint[]::new);
+        this.cumulativeWeights = new int[endpoints.length];
+        int total = 0;
+        for (int i = 0; i < endpoints.length; i++) {
+            total += settings.mix().get(endpoints[i]);
+            cumulativeWeights[i] = total;
+            stats.put(endpoints[i], new EndpointStats());
+        }
+    }
+
+    /**
+     * Runs the warm-up and the measured period, then waits for the requests still in flight.
+     *
+     * @return The statistics of each endpoint for the measured period.
+     */
+    Map<Endpoint, EndpointStats> run() throws InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double meanIntervalNanos = TimeUnit.SECONDS.toNanos(1) / settings.rate();
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(settings.warmupSeconds());
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(settings.durationSeconds());
+
+        double offsetNanos = 0;
+        for (long scheduledAt = start; scheduledAt < end; scheduledAt = start + (long) offsetNanos) {
+            long delay;
+            while ((delay = scheduledAt - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(delay);
+            }
+            dispatch(scheduledAt, scheduledAt >= measureFrom, pickEndpoint(random));
+            offsetNanos += "poisson".equals(settings.arrival())
+                    ? -Math.log(1 - random.nextDouble()) * meanIntervalNanos
+                    : meanIntervalNanos;
+        }
+
+        long drainDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(settings.requestTimeoutSeconds());
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+        return stats;
+    }
+
+    /**
+     * The largest number of requests that were waiting for a response at the same time.
+     */
+    int maxInFlight() {
+        return maxInFlight;
+    }
+
+    private void dispatch(long scheduledAt, boolean measured, Endpoint endpoint) {
+        EndpointStats endpointStats = stats.get(endpoint);
+        CompletableFuture<HttpResponse<String>> response = scenario.send(endpoint);
+        if (response == null) {
+            if (measured) {
+                endpointStats.recordSkipped();
+            }
+            return;
+        }
+        maxInFlight = Math.max(maxInFlight, inFlight.incrementAndGet());
+        response.whenComplete((result, error) -> {
+            inFlight.decrementAndGet();
+            if (!measured) {
+                return;
+            }
+            if (error != null) {
+                endpointStats.recordFailure(scheduledAt);
+            } else {
+                endpointStats.recordResponse(scheduledAt, result.statusCode());
+            }
+        });
+    }
+
+    private Endpoint pickEndpoint(ThreadLocalRandom random) {
+        int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return endpoints[i];
+            }
+        }
+        throw new IllegalStateException("Weight " + value + " is outside the mix");
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.AbstractIntegrationTest;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.util.encryption.HashUtil;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Imports cards with {@code saveAll} under the {@code prod} profile and checks through Hibernate statistics
+ * that the inserts are sent in JDBC batches rather than one statement per card.
+ */
+@ActiveProfiles("prod")
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class CardBatchInsertIntegrationTest extends AbstractIntegrationTest {
+    private static final int CARD_COUNT = 200;
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired
+    private CardRepository cardRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        owner = new User();
+        owner.setUsername("batch-owner");
+        owner.setPassword("not-used");
+        owner = userRepository.save(owner);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanUp();
+    }
+
+    @Test
+    @DisplayName("A bulk card import should be sent in batches of hibernate.jdbc.batch_size")
+    void saveAll_shouldBatchInserts() {
+        List<Card> cards = new ArrayList<>();
+        for (int i = 0; i < CARD_COUNT; i++) {
+            String cardNumber = String.format("4000%012d", i);
+            Card card = new Card();
+            card.setCardNumber(cardNumber);
+            card.setCardNumberHash(HashUtil.sha256(cardNumber));
+            card.setExpirationDate(YearMonth.now().plusYears(3));
+            card.setStatus(CardStatus.ACTIVE);
+            card.setBalance(BigDecimal.ZERO);
+            card.setOwner(owner);
+            cards.add(card);
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        transactionTemplate.executeWithoutResult(status -> cardRepository.saveAll(cards));
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(CARD_COUNT);
+        // Без пакетной записи было бы по одному выражению на карту
+        assertThat(statistics.getPrepareStatementCount()).isBetween(1L, (long) CARD_COUNT / BATCH_SIZE);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM cards", Long.class)).isEqualTo(CARD_COUNT);
+    }
+
+    private void cleanUp() {
+        jdbcTemplate.update("DELETE FROM refresh_tokens");
+        jdbcTemplate.update("DELETE FROM cards");
+        jdbcTemplate.update("DELETE FROM user_roles");
+        jdbcTemplate.update("DELETE FROM user_profiles");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+}
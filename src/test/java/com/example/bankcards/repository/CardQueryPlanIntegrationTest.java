@@ -0,0 +1,171 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.AbstractIntegrationTest;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.repository.StatementRecorder.RecordedStatement;
+import com.example.bankcards.util.encryption.HashUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Calls the {@link CardRepository} and {@link RefreshTokenRepository} queries on a seeded dataset of 1M cards,
+ * EXPLAINs the SQL Hibernate generated for each call with its bound parameters, and fails if any statement
+ * is planned as a sequential scan.
+ */
+public class CardQueryPlanIntegrationTest extends AbstractIntegrationTest {
+    private static final int USER_COUNT = 10_000;
+    private static final int CARD_COUNT = 1_000_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private CardRepository cardRepository;
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private UUID ownerId;
+    private UUID cardId;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        jdbcTemplate.update("INSERT INTO users (id, username, password) " +
+                "SELECT gen_random_uuid(), 'plan-user-' || i, 'not-used' FROM generate_series(1, ?) AS i", USER_COUNT);
+        // Статусы распределены неравномерно, как в проде: почти все карты активны
+        jdbcTemplate.update("INSERT INTO cards (id, card_number, card_number_hash, card_number_last4, expiration_date, " +
+                "status, balance, active, user_id) " +
+                "SELECT gen_random_uuid(), 'plan-' || i, md5(i::text), lpad((i % 10000)::text, 4, '0'), " +
+                "date '2026-01-01' + make_interval(months => i % 60), " +
+                "CASE WHEN i % 100 = 0 THEN 'BLOCK_REQUESTED' WHEN i % 20 = 0 THEN 'BLOCKED' ELSE 'ACTIVE' END, " +
+                "100, i % 10 <> 0, u.id " +
+                "FROM generate_series(1, ?) AS i " +
+                "JOIN (SELECT id, row_number() OVER (ORDER BY id) - 1 AS n FROM users) u ON u.n = i % ?",
+                CARD_COUNT, USER_COUNT);
+        jdbcTemplate.update("INSERT INTO refresh_tokens (token_hash, device_id, expiry_date, user_id) " +
+                "SELECT encode(sha256(convert_to(gen_random_uuid()::text, 'UTF8')), 'hex'), 'plan-device', " +
+                "now() + interval '1 day', id FROM users");
+        jdbcTemplate.execute("ANALYZE users");
+        jdbcTemplate.execute("ANALYZE cards");
+        jdbcTemplate.execute("ANALYZE refresh_tokens");
+
+        ownerId = jdbcTemplate.queryForObject("SELECT user_id FROM cards LIMIT 1", UUID.class);
+        cardId = jdbcTemplate.queryForObject("SELECT id FROM cards WHERE user_id = ? LIMIT 1", UUID.class, ownerId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cleanUp();
+    }
+
+    @Test
+    @DisplayName("Card and refresh token queries should not be planned as sequential scans")
+    void repositoryQueries_shouldUseIndexes() {
+        // Pageable так, как его передают сервисы: из контроллера (по умолчанию без сортировки,
+        // клиент может задать sort) и CardCursorPager.lookAhead(20) для курсорных выборок
+        Pageable secondPage = PageRequest.of(1, 20);
+        Pageable sortedSecondPage = PageRequest.of(1, 20, Sort.by("expirationDate", "id"));
+        Pageable lookAhead = PageRequest.of(0, 21);
+        LocalDate afterDate = LocalDate.of(2026, 6, 1);
+        List<UUID> ownerIds = jdbcTemplate.queryForList("SELECT id FROM users ORDER BY id LIMIT 20", UUID.class);
+
+        assertIndexedPlans("findSummariesByOwnerIdAndActiveTrue",
+                () -> cardRepository.findSummariesByOwnerIdAndActiveTrue(ownerId, secondPage));
+        assertIndexedPlans("findSummariesByOwnerIdAndActiveTrue (sorted)",
+                () -> cardRepository.findSummariesByOwnerIdAndActiveTrue(ownerId, sortedSecondPage));
+        assertIndexedPlans("findSummariesByOwnerIdAndActiveTrueAfter",
+                () -> cardRepository.findSummariesByOwnerIdAndActiveTrueAfter(ownerId, afterDate, cardId, lookAhead));
+        assertIndexedPlans("findSummaryByIdAndOwnerIdAndActiveTrue",
+                () -> cardRepository.findSummaryByIdAndOwnerIdAndActiveTrue(cardId, ownerId));
+        assertIndexedPlans("findBalanceByIdAndOwnerIdAndActiveTrue",
+                () -> cardRepository.findBalanceByIdAndOwnerIdAndActiveTrue(cardId, ownerId));
+        assertIndexedPlans("findSummariesByOwnerId",
+                () -> cardRepository.findSummariesByOwnerId(ownerId, secondPage));
+        assertIndexedPlans("findSummariesByOwnerIdAfter",
+                () -> cardRepository.findSummariesByOwnerIdAfter(ownerId, afterDate, cardId, lookAhead));
+        assertIndexedPlans("findSummariesByOwnerIdIn",
+                () -> cardRepository.findSummariesByOwnerIdIn(ownerIds));
+        // Статус выбран селективный: подсчёт преобладающего ACTIVE закономерно идёт последовательным сканированием
+        assertIndexedPlans("findSummariesByStatus",
+                () -> cardRepository.findSummariesByStatus(CardStatus.BLOCK_REQUESTED, secondPage));
+        assertIndexedPlans("findSummariesByStatusAfter",
+                () -> cardRepository.findSummariesByStatusAfter(CardStatus.BLOCK_REQUESTED, afterDate, cardId, lookAhead));
+        assertIndexedPlans("findAllSummariesAfter",
+                () -> cardRepository.findAllSummariesAfter(afterDate, cardId, lookAhead));
+        assertIndexedPlans("existsByCardNumberHash",
+                () -> cardRepository.existsByCardNumberHash(HashUtil.sha256("42")));
+        assertIndexedPlans("RefreshTokenRepository.findEntryByTokenHash",
+                () -> refreshTokenRepository.findEntryByTokenHash(HashUtil.sha256("42")));
+        assertIndexedPlans("RefreshTokenRepository.deleteByPreviousTokenHash",
+                () -> refreshTokenRepository.deleteByPreviousTokenHash(HashUtil.sha256("42")));
+        assertIndexedPlans("RefreshTokenRepository.deleteByUserId",
+                () -> refreshTokenRepository.deleteByUserId(ownerId));
+    }
+
+    /**
+     * Calls the repository method, then EXPLAINs every statement it executed with the same bound parameters.
+     */
+    private void assertIndexedPlans(String name, Runnable repositoryCall) {
+        List<RecordedStatement> statements = StatementRecorder.record(
+                () -> transactionTemplate.executeWithoutResult(status -> repositoryCall.run()));
+        assertThat(statements).as("Statements of %s", name).isNotEmpty();
+
+        for (RecordedStatement statement : statements) {
+            assertThat(explain(statement))
+                    .as("Plan of %s: %s", name, statement.sql())
+                    .doesNotContain("Seq Scan");
+        }
+    }
+
+    private String explain(RecordedStatement statement) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + statement.sql())) {
+                statement.bindTo(explain);
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet rows = explain.executeQuery()) {
+                    while (rows.next()) {
+                        plan.append(rows.getString(1)).append('\n');
+                    }
+                }
+                return plan.toString();
+            }
+        });
+    }
+
+    private void cleanUp() {
+        // Удаляем через JDBC: JPA загрузила бы миллион сущностей и попыталась расшифровать номера карт
+        jdbcTemplate.update("DELETE FROM refresh_tokens");
+        jdbcTemplate.update("DELETE FROM cards");
+        jdbcTemplate.update("DELETE FROM user_roles");
+        jdbcTemplate.update("DELETE FROM user_profiles");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @TestConfiguration
+    static class StatementRecorderConfig {
+        @Bean
+        static StatementRecorder statementRecorder() {
+            return new StatementRecorder();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.bankcards.repository;
+
+import com.example.bankcards.AbstractIntegrationTest;
+import com.example.bankcards.config.ReadReplicaDataSourceConfig;
+import com.example.bankcards.config.datasource.ReadYourWritesRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the replica routing against one PostgreSQL instance with two pools. The replica pool identifies
+ * itself through {@code application_name}, which shows which pool served a transaction.
+ */
+@TestPropertySource(properties = {
+        "app.datasource.replica.enabled=true",
+        "app.datasource.replica.url=${spring.datasource.url}",
+        "app.datasource.replica.username=${spring.datasource.username}",
+        "app.datasource.replica.password=${spring.datasource.password}",
+        "app.datasource.replica.maximum-pool-size=2"
+})
+public class ReadReplicaRoutingIntegrationTest extends AbstractIntegrationTest {
+    private static final String APPLICATION_NAME = "SELECT current_setting('application_name')";
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ReadYourWritesRegistry readYourWritesRegistry;
+
+    @AfterEach
+    void tearDown() {
+        readYourWritesRegistry.endRequest();
+    }
+
+    @Test
+    @DisplayName("Read-only transactions should be served by the replica pool")
+    void readOnlyTransaction_shouldUseReplica() {
+        assertThat(applicationName(true)).isEqualTo(ReadReplicaDataSourceConfig.REPLICA_APPLICATION_NAME);
+        assertThat(applicationName(false)).isNotEqualTo(ReadReplicaDataSourceConfig.REPLICA_APPLICATION_NAME);
+    }
+
+    @Test
+    @DisplayName("Read-only transactions of a pinned user should be served by the primary pool")
+    void readOnlyTransaction_shouldUsePrimary_afterWrite() {
+        readYourWritesRegistry.pin(UUID.randomUUID());
+
+        assertThat(applicationName(true)).isNotEqualTo(ReadReplicaDataSourceConfig.REPLICA_APPLICATION_NAME);
+    }
+
+    private String applicationName(boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status -> jdbcTemplate.queryForObject(APPLICATION_NAME, String.class));
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.bankcards.repository;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Wraps the application {@code dataSource} bean and records the statements it executes together with
+ * their bound parameters, so that a test can EXPLAIN exactly the SQL Hibernate generates for a repository call.
+ * Only connections obtained inside {@link #record(Runnable)} are wrapped and recorded.
+ */
+class StatementRecorder implements BeanPostProcessor {
+    private static final Set<String> EXECUTE_METHODS = Set.of("execute", "executeQuery", "executeUpdate",
+            "executeLargeUpdate");
+    private static final List<RecordedStatement> STATEMENTS = new CopyOnWriteArrayList<>();
+    private static volatile boolean recording;
+
+    /**
+     * Runs the action and returns the statements it executed, in order.
+     */
+    static List<RecordedStatement> record(Runnable action) {
+        STATEMENTS.clear();
+        recording = true;
+        try {
+            action.run();
+        } finally {
+            recording = false;
+        }
+        return List.copyOf(STATEMENTS);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && "dataSource".equals(beanName)) {
+            return proxy(DataSource.class, dataSource, (target, method, args) -> {
+                Object result = invoke(target, method, args);
+                // Вне record() соединения отдаются как есть: Liquibase и остальной контекст работают без прокси
+                return recording && result instanceof Connection connection ? recordingConnection(connection) : result;
+            });
+        }
+        return bean;
+    }
+
+    private static Connection recordingConnection(Connection connection) {
+        return proxy(Connection.class, connection, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            if (result instanceof PreparedStatement statement && args != null && args[0] instanceof String sql) {
+                return recordingStatement(statement, sql);
+            }
+            return result;
+        });
+    }
+
+    private static PreparedStatement recordingStatement(PreparedStatement statement, String sql) {
+        List<ParameterSetter> parameters = new ArrayList<>();
+        return proxy(PreparedStatement.class, statement, (target, method, args) -> {
+            String name = method.getName();
+            // set*(index, value, ...) задаёт параметр; set*(value) - настройки самого statement
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                parameters.add(new ParameterSetter(method, args.clone()));
+            } else if (name.equals("clearParameters")) {
+                parameters.clear();
+            } else if (recording && EXECUTE_METHODS.contains(name) && (args == null || args.length == 0)) {
+                STATEMENTS.add(new RecordedStatement(sql, List.copyOf(parameters)));
+            }
+            return invoke(target, method, args);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, TargetInvocationHandler<T> handler) {
+        InvocationHandler invocationHandler = (proxy, method, args) -> handler.invoke(target, method, args);
+        // Пул соединений остаётся закрываемым при остановке контекста
+        Class<?>[] interfaces = target instanceof AutoCloseable && !AutoCloseable.class.isAssignableFrom(type)
+                ? new Class<?>[]{type, AutoCloseable.class}
+                : new Class<?>[]{type};
+        return (T) Proxy.newProxyInstance(StatementRecorder.class.getClassLoader(), interfaces, invocationHandler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @FunctionalInterface
+    private interface TargetInvocationHandler<T> {
+        Object invoke(T target, Method method, Object[] args) throws Throwable;
+    }
+
+    private record ParameterSetter(Method method, Object[] args) {
+    }
+
+    /**
+     * An executed statement and the calls that bound its parameters.
+     */
+    record RecordedStatement(String sql, List<ParameterSetter> parameters) {
+
+        /**
+         * Binds the recorded parameters to another statement with the same placeholders, such as {@code EXPLAIN <sql>}.
+         */
+        void bindTo(PreparedStatement statement) throws SQLException {
+            for (ParameterSetter parameter : parameters) {
+                try {
+                    parameter.method().invoke(statement, parameter.args());
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException(e);
+                } catch (InvocationTargetException e) {
+                    if (e.getCause() instanceof SQLException sqlException) {
+                        throw sqlException;
+                    }
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.bankcards.scheduler;
+
+import com.example.bankcards.AbstractIntegrationTest;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.Role;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.RefreshTokenRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.util.encryption.CardNumberEncryptor;
+import com.example.bankcards.util.encryption.HashUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestPropertySource(properties = {
+        "app.encryption.active-version=1",
+        "app.encryption.keys.1=abcdefghijklmnop",
+        "app.encryption.reencryption.enabled=true",
+        "app.encryption.reencryption.interval-ms=3600000",
+        "app.encryption.reencryption.batch-size=3",
+        "app.encryption.reencryption.pause-ms=0"
+})
+public class CardReEncryptionJobIntegrationTest extends AbstractIntegrationTest {
+    private static final int CARD_COUNT = 10;
+
+    @Autowired
+    private CardReEncryptionJob cardReEncryptionJob;
+    @Autowired
+    private CardNumberEncryptor cardNumberEncryptor;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CardRepository cardRepository;
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenRepository.deleteAll();
+        cardRepository.deleteAll();
+        userRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM reencryption_checkpoints");
+
+        User user = new User();
+        user.setUsername("reencryption-user");
+        user.setPassword("not-used");
+        user.setRoles(Set.of(Role.ROLE_USER));
+        user.setEnabled(true);
+        user = userRepository.save(user);
+
+        // Карты в старом формате AES/CBC, как до включения версионированных ключей
+        CardNumberEncryptor legacyEncryptor = new CardNumberEncryptor("1234567890123456");
+        for (int i = 0; i < CARD_COUNT; i++) {
+            String cardNumber = String.format("4000%012d", i);
+            jdbcTemplate.update("INSERT INTO cards (id, card_number, card_number_hash, card_number_last4, expiration_date, " +
+                            "status, balance, active, user_id) VALUES (?, ?, ?, ?, ?, 'ACTIVE', 0, true, ?)",
+                    UUID.randomUUID(), legacyEncryptor.convertToDatabaseColumn(cardNumber), HashUtil.sha256(cardNumber),
+                    cardNumber.substring(12), Date.valueOf(LocalDate.now().plusYears(2)), user.getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        // Карты с ключом версии 1 не читаются в контекстах других тестов, где этого ключа нет
+        jdbcTemplate.update("DELETE FROM cards");
+        userRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM reencryption_checkpoints");
+    }
+
+    @Test
+    @DisplayName("Job should re-encrypt all legacy card numbers with the active key and record completion")
+    void reEncryptCards_shouldMoveAllCardsToActiveKey() {
+        cardReEncryptionJob.reEncryptCards();
+
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList("SELECT card_number, card_number_last4 FROM cards");
+        assertThat(rows).hasSize(CARD_COUNT);
+        for (Map<String, Object> row : rows) {
+            String stored = (String) row.get("card_number");
+            assertThat(stored).startsWith("v1:");
+            assertThat(cardNumberEncryptor.convertToEntityAttribute(stored)).endsWith((String) row.get("card_number_last4"));
+        }
+        assertThat(jdbcTemplate.queryForObject("SELECT completed FROM reencryption_checkpoints WHERE key_version = 1", Boolean.class))
+                .isTrue();
+        assertThat(jdbcTemplate.queryForObject("SELECT processed_count FROM reencryption_checkpoints WHERE key_version = 1", Long.class))
+                .isEqualTo(CARD_COUNT);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.bankcards.scheduler;
+
+import com.example.bankcards.AbstractIntegrationTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LedgerPartitionJobIntegrationTest extends AbstractIntegrationTest {
+    // Месяц, для которого партиции заведомо нет
+    private static final YearMonth FAR_MONTH = YearMonth.of(2099, 1);
+    private static final String FAR_PARTITION = "transactions_2099_01";
+
+    @Autowired
+    private LedgerPartitionJob ledgerPartitionJob;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + FAR_PARTITION);
+    }
+
+    @Test
+    @DisplayName("Migration and job should create partitions for the current and upcoming months")
+    void createUpcomingPartitions_shouldCreateMonthlyPartitions() {
+        ledgerPartitionJob.createUpcomingPartitions();
+
+        YearMonth currentMonth = YearMonth.now(ZoneOffset.UTC);
+        assertThat(partitionExists(partitionName(currentMonth))).isTrue();
+        assertThat(partitionExists(partitionName(currentMonth.plusMonths(1)))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Rows that reached the default partition should be moved into the new month's partition")
+    void createLedgerPartition_shouldMoveRowsOutOfDefaultPartition() {
+        UUID rowId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO transactions (id, transfer_id, card_id, counterparty_card_id, type, amount, " +
+                        "balance_after, created_at) VALUES (?, ?, ?, ?, 'DEBIT', 1.00, 0.00, ?)",
+                rowId, UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(),
+                Timestamp.from(Instant.parse("2099-01-15T12:00:00Z")));
+        assertThat(countIn("transactions_default", rowId)).isEqualTo(1);
+
+        Long moved = jdbcTemplate.queryForObject("SELECT create_ledger_partition(?)", Long.class, FAR_MONTH.atDay(1));
+
+        assertThat(moved).isEqualTo(1);
+        assertThat(countIn(FAR_PARTITION, rowId)).isEqualTo(1);
+        assertThat(countIn("transactions_default", rowId)).isZero();
+        // Повторный вызов ничего не делает
+        assertThat(jdbcTemplate.queryForObject("SELECT create_ledger_partition(?)", Long.class,
+                LocalDate.of(2099, 1, 20))).isZero();
+    }
+
+    private boolean partitionExists(String name) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT to_regclass(?) IS NOT NULL", Boolean.class, name));
+    }
+
+    private int countIn(String table, UUID id) {
+        Integer count = jdbcTemplate.queryForObject("SELECT count(*) FROM " + table + " WHERE id = ?", Integer.class, id);
+        return count == null ? 0 : count;
+    }
+
+    private static String partitionName(YearMonth month) {
+        return String.format("transactions_%d_%02d", month.getYear(), month.getMonthValue());
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.bankcards.scheduler;
+
+import com.example.bankcards.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenPurgeJobTest {
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RefreshTokenPurgeJob purgeJob;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        purgeJob = new RefreshTokenPurgeJob(refreshTokenRepository, meterRegistry);
+        ReflectionTestUtils.setField(purgeJob, "batchSize", 2);
+        ReflectionTestUtils.setField(purgeJob, "maxBatches", 10);
+    }
+
+    @Test
+    @DisplayName("The purge should stop at the first incomplete batch and record metrics")
+    void purgeExpiredTokens_shouldDeleteUntilBatchIsIncomplete() {
+        when(refreshTokenRepository.deleteExpiredBatch(any(Instant.class), eq(2))).thenReturn(2, 2, 1);
+
+        purgeJob.purgeExpiredTokens();
+
+        verify(refreshTokenRepository, times(3)).deleteExpiredBatch(any(Instant.class), eq(2));
+        assertEquals(5.0, meterRegistry.get("refresh_token.purge.deleted").counter().count());
+        assertEquals(3, meterRegistry.get("refresh_token.purge.batch").timer().count());
+    }
+
+    @Test
+    @DisplayName("The purge should not run more than the configured number of batches")
+    void purgeExpiredTokens_shouldRespectMaxBatches() {
+        ReflectionTestUtils.setField(purgeJob, "maxBatches", 2);
+        when(refreshTokenRepository.deleteExpiredBatch(any(Instant.class), eq(2))).thenReturn(2);
+
+        purgeJob.purgeExpiredTokens();
+
+        // Оставшиеся строки будут удалены при следующем запуске
+        verify(refreshTokenRepository, times(2)).deleteExpiredBatch(any(Instant.class), eq(2));
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.bankcards.security.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BCryptPasswordEncoderFactoryTest {
+
+    @Test
+    @DisplayName("Hashes without the {bcrypt} prefix should still match and be marked for upgrade")
+    void create_shouldMatchAndUpgradeLegacyHash() {
+        PasswordEncoder encoder = BCryptPasswordEncoderFactory.create(4);
+        String legacyHash = new BCryptPasswordEncoder(4).encode("password");
+
+        assertTrue(encoder.matches("password", legacyHash));
+        assertTrue(encoder.upgradeEncoding(legacyHash));
+    }
+
+    @Test
+    @DisplayName("Only hashes with a lower work factor should be marked for upgrade")
+    void create_shouldUpgradeWeakerHashesOnly() {
+        String weakHash = BCryptPasswordEncoderFactory.create(4).encode("password");
+        PasswordEncoder encoder = BCryptPasswordEncoderFactory.create(5);
+        String currentHash = encoder.encode("password");
+
+        assertTrue(currentHash.startsWith("{bcrypt}$2a$05$"));
+        assertTrue(encoder.matches("password", weakHash));
+        assertTrue(encoder.upgradeEncoding(weakHash));
+        assertFalse(encoder.upgradeEncoding(currentHash));
+    }
+
+    @Test
+    @DisplayName("Each extra strength step should double the estimated hash time")
+    void strengthFor_shouldPickHighestStrengthWithinTarget() {
+        // 50 мс при стоимости 10: 11 -> 100 мс, 12 -> 200 мс, 13 -> 400 мс
+        assertEquals(12, BCryptPasswordEncoderFactory.strengthFor(50_000_000L, 10, 14, 250_000_000L));
+        // Ограничение сверху и снизу
+        assertEquals(14, BCryptPasswordEncoderFactory.strengthFor(1_000L, 10, 14, 250_000_000L));
+        assertEquals(10, BCryptPasswordEncoderFactory.strengthFor(900_000_000L, 10, 14, 250_000_000L));
+    }
+}
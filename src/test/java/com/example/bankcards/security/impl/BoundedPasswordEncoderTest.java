@@ -0,0 +1,79 @@
+package com.example.bankcards.security.impl;
+
+import com.example.bankcards.exception.ServiceOverloadedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedPasswordEncoderTest {
+    private final CountDownLatch hashingStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseHashing = new CountDownLatch(1);
+    private final ExecutorService callers = Executors.newFixedThreadPool(2);
+
+    /**
+     * Кодировщик, который держит поток хеширования до сигнала теста.
+     */
+    private final PasswordEncoder blockingEncoder = new PasswordEncoder() {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            hashingStarted.countDown();
+            try {
+                releaseHashing.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "hash:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encodedPassword.equals(encode(rawPassword));
+        }
+    };
+
+    @AfterEach
+    void tearDown() {
+        releaseHashing.countDown();
+        callers.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Hashing should be rejected with 503 once the thread and the queue are busy")
+    void encode_shouldThrowServiceOverloaded_whenQueueIsFull() throws Exception {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(blockingEncoder, 1, 1, 2);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("first"), callers);
+        assertTrue(hashingStarted.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("second"), callers);
+        // Ждём, пока второй запрос займёт единственное место в очереди
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (encoder.queuedRequests() < 1 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+
+        ServiceOverloadedException rejected = assertThrows(ServiceOverloadedException.class, () -> encoder.encode("third"));
+        assertEquals(2, rejected.getRetryAfterSeconds());
+
+        releaseHashing.countDown();
+        assertEquals("hash:first", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hash:second", queued.get(5, TimeUnit.SECONDS));
+        encoder.destroy();
+    }
+
+    @Test
+    @DisplayName("The number of hashing threads should never drop below one")
+    void threadsForCpuShare_shouldBeAtLeastOne() {
+        assertEquals(1, BoundedPasswordEncoder.threadsForCpuShare(0.0));
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.bankcards.security.impl;
+
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.Role;
+import com.example.bankcards.security.TokenValidationResult;
+import com.example.bankcards.security.TokenValidationResult.Status;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtServiceImplTest {
+    private static final String SECRET = "c2VjcmV0LWtleS1mb3ItamF2YS1hcHAtZm9yLXRlc3RpbmctcHJvamVjdA==";
+
+    private JwtServiceImpl jwtService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtServiceImpl();
+        ReflectionTestUtils.setField(jwtService, "jwtSecretString", SECRET);
+        ReflectionTestUtils.setField(jwtService, "accessTokenDurationMs", 3_600_000L);
+        jwtService.init();
+
+        user = new User();
+        user.setId(UUID.randomUUID());
+        user.setSecurityVersion(3);
+        user.setUsername("jwt-user");
+        user.setRoles(Set.of(Role.ROLE_USER));
+    }
+
+    @Test
+    @DisplayName("parseVerifiedClaims should return the claims of a valid token")
+    void parseVerifiedClaims_shouldReturnClaims_whenTokenIsValid() {
+        String token = jwtService.generateAccessTokenForUser(user);
+
+        Optional<Claims> claims = jwtService.parseVerifiedClaims(token);
+
+        assertTrue(claims.isPresent());
+        assertEquals("jwt-user", claims.get().getSubject());
+    }
+
+    @Test
+    @DisplayName("parseVerifiedClaims should return empty for a token with a broken signature")
+    void parseVerifiedClaims_shouldReturnEmpty_whenSignatureIsInvalid() {
+        String token = jwtService.generateAccessTokenForUser(user);
+        // Меняем первый символ подписи: в последнем символе base64url часть битов не значима
+        int signatureStart = token.lastIndexOf('.') + 1;
+        char replacement = token.charAt(signatureStart) == 'A' ? 'B' : 'A';
+        String tampered = token.substring(0, signatureStart) + replacement + token.substring(signatureStart + 1);
+
+        assertFalse(jwtService.parseVerifiedClaims(tampered).isPresent());
+        assertFalse(jwtService.isTokenValid(tampered));
+    }
+
+    @Test
+    @DisplayName("validate should return VALID with the claims of a valid token")
+    void validate_shouldReturnValid_whenTokenIsValid() {
+        TokenValidationResult result = jwtService.validate(jwtService.generateAccessTokenForUser(user));
+
+        assertEquals(Status.VALID, result.status());
+        assertEquals("jwt-user", result.claims().getSubject());
+    }
+
+    @Test
+    @DisplayName("validate should return EXPIRED for a correctly signed token past its expiration")
+    void validate_shouldReturnExpired_whenTokenHasExpired() {
+        // Токен, истёкший минуту назад
+        ReflectionTestUtils.setField(jwtService, "accessTokenDurationMs", -60_000L);
+        String token = jwtService.generateAccessTokenForUser(user);
+
+        TokenValidationResult result = jwtService.validate(token);
+
+        assertEquals(Status.EXPIRED, result.status());
+        assertNull(result.claims());
+        assertFalse(jwtService.isTokenValid(token));
+    }
+
+    @Test
+    @DisplayName("validate should return MALFORMED for a string that is not a signed JWT")
+    void validate_shouldReturnMalformed_whenTokenCannotBeParsed() {
+        assertEquals(Status.MALFORMED, jwtService.validate("not-a-token").status());
+        assertEquals(Status.MALFORMED, jwtService.validate("").status());
+    }
+
+    @Test
+    @DisplayName("validate should return BAD_SIGNATURE for a token signed with another key")
+    void validate_shouldReturnBadSignature_whenTokenIsSignedWithAnotherKey() {
+        JwtServiceImpl otherService = new JwtServiceImpl();
+        ReflectionTestUtils.setField(otherService, "jwtSecretString",
+                "b3RoZXItc2VjcmV0LWtleS1mb3ItamF2YS1hcHAtdGVzdGluZy1wcm9qZWN0IQ==");
+        ReflectionTestUtils.setField(otherService, "accessTokenDurationMs", 3_600_000L);
+        otherService.init();
+
+        TokenValidationResult result = jwtService.validate(otherService.generateAccessTokenForUser(user));
+
+        assertEquals(Status.BAD_SIGNATURE, result.status());
+    }
+
+    @Test
+    @DisplayName("toPrincipal should restore the user ID, roles and security version from the claims")
+    void toPrincipal_shouldBuildUserFromClaims() {
+        Claims claims = jwtService.parseVerifiedClaims(jwtService.generateAccessTokenForUser(user)).orElseThrow();
+
+        User principal = jwtService.toPrincipal(claims).orElseThrow();
+
+        assertEquals(user.getId(), principal.getId());
+        assertEquals("jwt-user", principal.getUsername());
+        assertEquals(3, principal.getSecurityVersion());
+        assertEquals(Set.of(Role.ROLE_USER), principal.getRoles());
+        assertTrue(principal.isEnabled());
+    }
+
+    @Test
+    @DisplayName("toPrincipal should return empty for a token without the user ID claim")
+    void toPrincipal_shouldReturnEmpty_whenClaimsAreMissing() {
+        Claims claims = Jwts.claims().subject("jwt-user").build();
+
+        assertFalse(jwtService.toPrincipal(claims).isPresent());
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.bankcards.security.impl;
+
+import com.example.bankcards.exception.TooManyRequestsException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoginRateLimiterTest {
+
+    @Test
+    @DisplayName("Attempts beyond the username bucket capacity should be rejected with 429")
+    void checkLoginAttempt_shouldRejectUsername_whenBucketIsEmpty() {
+        LoginRateLimiter limiter = new LoginRateLimiter(true, 2, 1, 100, 100, 1000);
+
+        limiter.checkLoginAttempt("alice", "10.0.0.1");
+        limiter.checkLoginAttempt("ALICE", "10.0.0.2");
+        TooManyRequestsException exception = assertThrows(TooManyRequestsException.class,
+                () -> limiter.checkLoginAttempt("alice", "10.0.0.3"));
+
+        assertTrue(exception.getRetryAfterSeconds() > 0);
+        // Другой пользователь не затронут
+        assertDoesNotThrow(() -> limiter.checkLoginAttempt("bob", "10.0.0.1"));
+    }
+
+    @Test
+    @DisplayName("Attempts beyond the IP bucket capacity should be rejected for any username")
+    void checkLoginAttempt_shouldRejectIp_whenBucketIsEmpty() {
+        LoginRateLimiter limiter = new LoginRateLimiter(true, 100, 100, 2, 1, 1000);
+
+        limiter.checkLoginAttempt("user-1", "10.0.0.1");
+        limiter.checkLoginAttempt("user-2", "10.0.0.1");
+
+        assertThrows(TooManyRequestsException.class, () -> limiter.checkLoginAttempt("user-3", "10.0.0.1"));
+        assertDoesNotThrow(() -> limiter.checkLoginAttempt("user-3", "10.0.0.2"));
+    }
+
+    @Test
+    @DisplayName("Attempts rejected by the username bucket should not use up the IP bucket")
+    void checkLoginAttempt_shouldKeepIpTokens_whenUsernameIsThrottled() {
+        LoginRateLimiter limiter = new LoginRateLimiter(true, 1, 1, 3, 1, 1000);
+
+        limiter.checkLoginAttempt("alice", "10.0.0.1");
+        for (int i = 0; i < 5; i++) {
+            assertThrows(TooManyRequestsException.class, () -> limiter.checkLoginAttempt("alice", "10.0.0.1"));
+        }
+
+        // У IP осталось два токена из трёх
+        assertDoesNotThrow(() -> limiter.checkLoginAttempt("bob", "10.0.0.1"));
+        assertDoesNotThrow(() -> limiter.checkLoginAttempt("carol", "10.0.0.1"));
+    }
+
+    @Test
+    @DisplayName("A disabled limiter should let every attempt through")
+    void checkLoginAttempt_shouldAllowEverything_whenDisabled() {
+        LoginRateLimiter limiter = new LoginRateLimiter(false, 1, 1, 1, 1, 1000);
+
+        for (int i = 0; i < 10; i++) {
+            assertDoesNotThrow(() -> limiter.checkLoginAttempt("alice", "10.0.0.1"));
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.bankcards.security.impl;
+
+import com.example.bankcards.dto.UserSecurityVersion;
+import com.example.bankcards.repository.UserRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TokenRevocationRegistryTest {
+
+    @Test
+    @DisplayName("Tokens with a version below the revoked one should be rejected")
+    void isRevoked_shouldRejectOlderVersionsOnly() {
+        TokenRevocationRegistry registry = new TokenRevocationRegistry(mock(UserRepository.class));
+        UUID userId = UUID.randomUUID();
+
+        registry.revokeBefore(userId, 2);
+
+        assertTrue(registry.isRevoked(userId, 1));
+        assertFalse(registry.isRevoked(userId, 2));
+        // Пользователи без отзыва не хранятся в реестре
+        assertFalse(registry.isRevoked(UUID.randomUUID(), 0));
+    }
+
+    @Test
+    @DisplayName("The registry should be restored from the security versions stored in the database")
+    void loadFromDatabase_shouldRestoreRevocations() {
+        UserRepository userRepository = mock(UserRepository.class);
+        UUID userId = UUID.randomUUID();
+        when(userRepository.findRevokedSecurityVersions()).thenReturn(List.of(new UserSecurityVersion(userId, 5)));
+        TokenRevocationRegistry registry = new TokenRevocationRegistry(userRepository);
+
+        registry.loadFromDatabase();
+
+        assertTrue(registry.isRevoked(userId, 4));
+        assertFalse(registry.isRevoked(userId, 5));
+    }
+}
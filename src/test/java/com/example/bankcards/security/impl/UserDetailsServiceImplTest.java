@@ -0,0 +1,90 @@
+package com.example.bankcards.security.impl;
+
+import com.example.bankcards.dto.response.UserCacheStatsResponse;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.UserSecurityChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserDetailsServiceImplTest {
+    @Mock
+    private UserRepository userRepository;
+
+    private UserDetailsServiceImpl userDetailsService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        userDetailsService = new UserDetailsServiceImpl(userRepository, true, 100, 60_000);
+        user = new User();
+        user.setUsername("cached-user");
+    }
+
+    @Test
+    @DisplayName("loadUserByUsername should query the database only once for repeated calls")
+    void loadUserByUsername_shouldServeRepeatedCallsFromCache() {
+        when(userRepository.findByUsernameWithRoles("cached-user")).thenReturn(Optional.of(user));
+
+        assertSame(user, userDetailsService.loadUserByUsername("cached-user"));
+        assertSame(user, userDetailsService.loadUserByUsername("cached-user"));
+
+        verify(userRepository, times(1)).findByUsernameWithRoles("cached-user");
+        UserCacheStatsResponse stats = userDetailsService.getCacheStats();
+        assertEquals(1, stats.hitCount());
+        assertEquals(1, stats.missCount());
+    }
+
+    @Test
+    @DisplayName("A security change event should evict the cached user")
+    void onUserSecurityChanged_shouldEvictUser() {
+        when(userRepository.findByUsernameWithRoles("cached-user")).thenReturn(Optional.of(user));
+        userDetailsService.loadUserByUsername("cached-user");
+
+        userDetailsService.onUserSecurityChanged(new UserSecurityChangedEvent("cached-user"));
+        userDetailsService.loadUserByUsername("cached-user");
+
+        verify(userRepository, times(2)).findByUsernameWithRoles("cached-user");
+    }
+
+    @Test
+    @DisplayName("Unknown users should not be cached")
+    void loadUserByUsername_shouldNotCacheMissingUser() {
+        when(userRepository.findByUsernameWithRoles("ghost")).thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("ghost"));
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("ghost"));
+
+        // Отсутствующий пользователь каждый раз ищется в базе
+        verify(userRepository, times(2)).findByUsernameWithRoles("ghost");
+    }
+
+    @Test
+    @DisplayName("updatePassword should store the new hash and evict the cached user")
+    void updatePassword_shouldStoreHashAndEvictUser() {
+        when(userRepository.findByUsernameWithRoles("cached-user")).thenReturn(Optional.of(user));
+        userDetailsService.loadUserByUsername("cached-user");
+
+        userDetailsService.updatePassword(user, "{bcrypt}new-hash");
+        userDetailsService.loadUserByUsername("cached-user");
+
+        verify(userRepository).updatePassword("cached-user", "{bcrypt}new-hash");
+        assertEquals("{bcrypt}new-hash", user.getPassword());
+        verify(userRepository, times(2)).findByUsernameWithRoles("cached-user");
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.bankcards.service;
+
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Runs the opposing-transfers scenario against the single-statement transfer engine.
+ */
+@TestPropertySource(properties = "app.transfer.engine=atomic")
+public class AtomicTransferConcurrencyIntegrationTest extends TransferConcurrencyIntegrationTest {
+}
@@ -0,0 +1,117 @@
+package com.example.bankcards.service;
+
+import com.example.bankcards.AbstractIntegrationTest;
+import com.example.bankcards.dto.request.TransferRequest;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.Role;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.RefreshTokenRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.util.encryption.HashUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Proves that opposing transfers (A -> B and B -> A) running at the same time do not deadlock.
+ * Retries are disabled, so a single deadlock abort would surface as a failed transfer.
+ */
+@TestPropertySource(properties = "app.transfer.retry.max-attempts=1")
+public class TransferConcurrencyIntegrationTest extends AbstractIntegrationTest {
+    private static final int TRANSFERS_PER_DIRECTION = 50;
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("1000.00");
+    private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+
+    @Autowired
+    private CardService cardService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private CardRepository cardRepository;
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    private UUID userId;
+    private UUID cardAId;
+    private UUID cardBId;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenRepository.deleteAll();
+        cardRepository.deleteAll();
+        userRepository.deleteAll();
+
+        User user = new User();
+        user.setUsername("concurrent-user");
+        user.setPassword("not-used");
+        user.setRoles(Set.of(Role.ROLE_USER));
+        user.setEnabled(true);
+        user = userRepository.save(user);
+        userId = user.getId();
+
+        cardAId = createCard(user, "2222000022220001").getId();
+        cardBId = createCard(user, "2222000022220002").getId();
+    }
+
+    @Test
+    @DisplayName("Opposing concurrent transfers should all succeed without deadlocks")
+    void opposingTransfers_shouldNotDeadlock() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+
+        for (int i = 0; i < TRANSFERS_PER_DIRECTION; i++) {
+            futures.add(executor.submit(() -> transfer(start, cardAId, cardBId, failures)));
+            futures.add(executor.submit(() -> transfer(start, cardBId, cardAId, failures)));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertThat(failures).isEmpty();
+        assertThat(cardRepository.findById(cardAId).orElseThrow().getBalance()).isEqualByComparingTo(INITIAL_BALANCE);
+        assertThat(cardRepository.findById(cardBId).orElseThrow().getBalance()).isEqualByComparingTo(INITIAL_BALANCE);
+    }
+
+    private void transfer(CountDownLatch start, UUID fromCardId, UUID toCardId, List<Throwable> failures) {
+        try {
+            start.await();
+            cardService.transferBetweenMyCards(new TransferRequest(fromCardId, toCardId, AMOUNT), userId);
+        } catch (Throwable e) {
+            failures.add(e);
+        }
+    }
+
+    private Card createCard(User owner, String cardNumber) {
+        Card card = new Card();
+        card.setCardNumber(cardNumber);
+        card.setCardNumberHash(HashUtil.sha256(cardNumber));
+        card.setExpirationDate(YearMonth.now().plusYears(2));
+        card.setStatus(CardStatus.ACTIVE);
+        card.setBalance(INITIAL_BALANCE);
+        card.setOwner(owner);
+        return cardRepository.save(card);
+    }
+}
@@ -15,15 +15,20 @@ import com.example.bankcards.mapper.UserMapper;
 import com.example.bankcards.mapper.UserProfileMapper;
 import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.UserSecurityChangedEvent;
+import com.example.bankcards.security.impl.TokenRevocationRegistry;
 import com.example.bankcards.service.RefreshTokenService;
 import com.example.bankcards.service.query.CardQueryService;
 import com.example.bankcards.service.query.UserQueryService;
+import com.example.bankcards.util.encryption.HashUtil;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.YearMonth;
 import java.util.Set;
@@ -63,6 +68,10 @@ public class AdminServiceImplTest {
     private UserProfileMapper userProfileMapper;
     @Mock
     private RefreshTokenService refreshTokenService;
+    @Mock
+    private TokenRevocationRegistry tokenRevocationRegistry;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     private AdminServiceImpl adminService;
 
@@ -81,8 +90,9 @@ public class AdminServiceImplTest {
                 cardQueryService,
                 userQueryService,
                 userProfileMapper,
-                refreshTokenService
-
+                refreshTokenService,
+                tokenRevocationRegistry,
+                eventPublisher
         );
     }
 
@@ -107,8 +117,11 @@ public class AdminServiceImplTest {
         assertNotNull(actualDto);
         assertEquals(expectedDto, actualDto);
         assertFalse(userToLock.isEnabled());
+        assertEquals(1, userToLock.getSecurityVersion());
 
         verify(userQueryService, times(1)).findByIdOrThrow(userId);
+        verify(tokenRevocationRegistry).revokeBefore(userId, 1);
+        verify(eventPublisher).publishEvent(new UserSecurityChangedEvent("testuser"));
         verify(userRepository, times(1)).save(userToLock);
         verify(userMapper, times(1)).toUserResponseDto(userToLock);
     }
@@ -143,7 +156,7 @@ public class AdminServiceImplTest {
 
         // Настраиваем моки
         when(userQueryService.findByIdOrThrow(ownerId)).thenReturn(owner);
-        when(cardRepository.existsByCardNumberAndActiveTrue(request.cardNumber())).thenReturn(false);
+        when(cardRepository.existsByCardNumberHash(HashUtil.sha256(request.cardNumber()))).thenReturn(false);
         when(cardRepository.save(any(Card.class))).thenAnswer(invocation -> invocation.getArgument(0));
         when(cardMapper.toCardResponse(any(Card.class))).thenReturn(mock(CardResponse.class));
 
@@ -152,7 +165,10 @@ public class AdminServiceImplTest {
 
         // Assert
         assertNotNull(result);
-        verify(cardRepository, times(1)).save(any(Card.class));
+        ArgumentCaptor<Card> savedCard = ArgumentCaptor.forClass(Card.class);
+        verify(cardRepository, times(1)).save(savedCard.capture());
+        // Последние 4 цифры сохраняются открыто, чтобы списки карт не расшифровывали номер
+        assertEquals("4444", savedCard.getValue().getCardNumberLast4());
     }
 
     @Test
@@ -160,7 +176,7 @@ public class AdminServiceImplTest {
     void createCard_shouldThrowException_whenCardNumberExists() {
         // Arrange
         CreateCardRequest request = new CreateCardRequest(UUID.randomUUID(), "1111222233334444", YearMonth.now().plusYears(1),null);
-        when(cardRepository.existsByCardNumberAndActiveTrue(request.cardNumber())).thenReturn(true);
+        when(cardRepository.existsByCardNumberHash(HashUtil.sha256(request.cardNumber()))).thenReturn(true);
 
 
         assertThrows(DuplicateResourceException.class, () -> adminService.createCard(request));
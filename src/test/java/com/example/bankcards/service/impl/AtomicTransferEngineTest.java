@@ -0,0 +1,111 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.dto.TransferBalances;
+import com.example.bankcards.dto.request.TransferRequest;
+import com.example.bankcards.exception.InsufficientFundsException;
+import com.example.bankcards.exception.InvalidOperationException;
+import com.example.bankcards.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AtomicTransferEngineTest {
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private AtomicTransferEngine transferEngine;
+
+    private UUID userId;
+    private UUID lowerCardId;
+    private UUID higherCardId;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+        // Фиксированные ID, чтобы порядок обновления строк был предсказуемым
+        lowerCardId = UUID.fromString("00000000-0000-0000-0000-000000000001");
+        higherCardId = UUID.fromString("ffffffff-0000-0000-0000-000000000002");
+    }
+
+    @Test
+    @DisplayName("Transfer should return balances reported by the guarded updates")
+    void transfer_shouldReturnUpdatedBalances_whenBothUpdatesMatch() {
+        TransferRequest request = new TransferRequest(higherCardId, lowerCardId, new BigDecimal("100.00"));
+        when(jdbcTemplate.queryForList(startsWith("UPDATE cards SET balance = balance +"), eq(BigDecimal.class), any(Object[].class)))
+                .thenReturn(List.of(new BigDecimal("600.00")));
+        when(jdbcTemplate.queryForList(startsWith("UPDATE cards SET balance = balance -"), eq(BigDecimal.class), any(Object[].class)))
+                .thenReturn(List.of(new BigDecimal("900.00")));
+
+        TransferBalances balances = transferEngine.transfer(request, userId);
+
+        assertEquals(new BigDecimal("900.00"), balances.fromBalance());
+        assertEquals(new BigDecimal("600.00"), balances.toBalance());
+        verify(jdbcTemplate, never()).query(anyString(), ArgumentMatchers.<RowMapper<AtomicTransferEngine.CardState>>any(), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("Transfer should throw InsufficientFundsException when the debit guard rejects a low balance")
+    void transfer_shouldThrowInsufficientFundsException_whenDebitRejected() {
+        TransferRequest request = new TransferRequest(lowerCardId, higherCardId, new BigDecimal("2000.00"));
+        when(jdbcTemplate.queryForList(startsWith("UPDATE cards SET balance = balance -"), eq(BigDecimal.class), any(Object[].class)))
+                .thenReturn(List.of());
+        when(jdbcTemplate.query(startsWith("SELECT"), ArgumentMatchers.<RowMapper<AtomicTransferEngine.CardState>>any(), eq(lowerCardId)))
+                .thenReturn(List.of(cardState(new BigDecimal("1000.00"))));
+        when(jdbcTemplate.query(startsWith("SELECT"), ArgumentMatchers.<RowMapper<AtomicTransferEngine.CardState>>any(), eq(higherCardId)))
+                .thenReturn(List.of(cardState(new BigDecimal("500.00"))));
+
+        assertThrows(InsufficientFundsException.class, () -> transferEngine.transfer(request, userId));
+    }
+
+    @Test
+    @DisplayName("Transfer should throw ResourceNotFoundException when the destination card does not exist")
+    void transfer_shouldThrowResourceNotFoundException_whenCreditRejected() {
+        TransferRequest request = new TransferRequest(higherCardId, lowerCardId, new BigDecimal("100.00"));
+        when(jdbcTemplate.queryForList(startsWith("UPDATE cards SET balance = balance +"), eq(BigDecimal.class), any(Object[].class)))
+                .thenReturn(List.of());
+        when(jdbcTemplate.query(startsWith("SELECT"), ArgumentMatchers.<RowMapper<AtomicTransferEngine.CardState>>any(), eq(higherCardId)))
+                .thenReturn(List.of(cardState(new BigDecimal("1000.00"))));
+        when(jdbcTemplate.query(startsWith("SELECT"), ArgumentMatchers.<RowMapper<AtomicTransferEngine.CardState>>any(), eq(lowerCardId)))
+                .thenReturn(List.of());
+
+        assertThrows(ResourceNotFoundException.class, () -> transferEngine.transfer(request, userId));
+    }
+
+    @Test
+    @DisplayName("Transfer should throw InvalidOperationException without touching the database for the same card")
+    void transfer_shouldThrowInvalidOperationException_whenCardsAreTheSame() {
+        TransferRequest request = new TransferRequest(lowerCardId, lowerCardId, new BigDecimal("100.00"));
+
+        assertThrows(InvalidOperationException.class, () -> transferEngine.transfer(request, userId));
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    private AtomicTransferEngine.CardState cardState(BigDecimal balance) {
+        return new AtomicTransferEngine.CardState(userId, "ACTIVE", balance);
+    }
+}
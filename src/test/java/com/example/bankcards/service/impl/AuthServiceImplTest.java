@@ -1,10 +1,12 @@
 package com.example.bankcards.service.impl;
 
+import com.example.bankcards.dto.RefreshTokenEntry;
 import com.example.bankcards.dto.request.LoginRequest;
 import com.example.bankcards.dto.request.RegistrationRequest;
+import com.example.bankcards.dto.request.TokenRefreshRequest;
 import com.example.bankcards.dto.response.JwtResponse;
+import com.example.bankcards.dto.response.TokenRefreshResponse;
 import com.example.bankcards.dto.response.UserResponseDto;
-import com.example.bankcards.entity.RefreshToken;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.exception.DuplicateResourceException;
 import com.example.bankcards.mapper.UserMapper;
@@ -21,8 +23,11 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Instant;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -31,6 +36,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -52,6 +58,8 @@ public class AuthServiceImplTest {
     private JwtService jwtService;
     @Mock
     private RefreshTokenService refreshTokenService;
+    @Mock
+    private UserDetailsService userDetailsService;
 
     @InjectMocks
     private AuthServiceImpl authService;
@@ -130,10 +138,6 @@ public class AuthServiceImplTest {
         // Создаем мок объекта Authentication, который вернет AuthenticationManager
         Authentication authentication = mock(Authentication.class);
 
-        // Создаем мок RefreshToken
-        RefreshToken refreshToken = new RefreshToken();
-        refreshToken.setToken("test-refresh-token");
-
         // Настраиваем моки
         // 1. Когда authenticationManager.authenticate будет вызван с правильными данными,
         // он должен вернуть наш мок-объект authentication.
@@ -147,8 +151,8 @@ public class AuthServiceImplTest {
         // 3. Когда jwtService попросят сгенерировать токен, он вернет тестовую строку.
         when(jwtService.generateAccessToken(authentication)).thenReturn("test-access-token");
 
-        // 4. Когда refreshTokenService попросят создать токен, он вернет наш мок-объект.
-        when(refreshTokenService.createRefreshToken(authenticatedUser.getId())).thenReturn(refreshToken);
+        // 4. Когда refreshTokenService попросят создать токен, он вернет значение токена.
+        when(refreshTokenService.createRefreshToken(eq(authenticatedUser.getId()), anyString())).thenReturn("test-refresh-token");
 
         // --- Act ---
         JwtResponse jwtResponse = authService.loginUser(loginRequest);
@@ -163,6 +167,60 @@ public class AuthServiceImplTest {
         // Проверяем, что все ключевые методы были вызваны
         verify(authenticationManager, times(1)).authenticate(any(UsernamePasswordAuthenticationToken.class));
         verify(jwtService, times(1)).generateAccessToken(authentication);
-        verify(refreshTokenService, times(1)).createRefreshToken(authenticatedUser.getId());
+        verify(refreshTokenService, times(1)).createRefreshToken(eq(authenticatedUser.getId()), anyString());
+    }
+
+    @Test
+    @DisplayName("loginUser should start the session of the device from the request")
+    void loginUser_shouldUseRequestedDevice() {
+        User authenticatedUser = new User();
+        authenticatedUser.setId(UUID.randomUUID());
+        Authentication authentication = mock(Authentication.class);
+        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class))).thenReturn(authentication);
+        when(authentication.getPrincipal()).thenReturn(authenticatedUser);
+        when(refreshTokenService.createRefreshToken(authenticatedUser.getId(), "phone")).thenReturn("phone-refresh-token");
+
+        JwtResponse jwtResponse = authService.loginUser(new LoginRequest("testuser", "password123", "phone"));
+
+        assertEquals("phone-refresh-token", jwtResponse.refreshToken());
+        assertEquals("phone", jwtResponse.deviceId());
+    }
+
+    @Test
+    @DisplayName("loginUser without a device ID should replace the single session of the legacy device")
+    void loginUser_shouldUseLegacyDevice_whenDeviceIdIsMissing() {
+        User authenticatedUser = new User();
+        authenticatedUser.setId(UUID.randomUUID());
+        Authentication authentication = mock(Authentication.class);
+        when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class))).thenReturn(authentication);
+        when(authentication.getPrincipal()).thenReturn(authenticatedUser);
+        when(refreshTokenService.createRefreshToken(authenticatedUser.getId(), "legacy")).thenReturn("legacy-refresh-token");
+
+        // Каждый вход старого клиента попадает в одну и ту же сессию, а не создаёт новую
+        authService.loginUser(new LoginRequest("testuser", "password123"));
+        JwtResponse jwtResponse = authService.loginUser(new LoginRequest("testuser", "password123", " "));
+
+        assertEquals("legacy", jwtResponse.deviceId());
+        verify(refreshTokenService, times(2)).createRefreshToken(authenticatedUser.getId(), "legacy");
+    }
+
+    @Test
+    @DisplayName("refreshToken should rotate the refresh token and return the new one")
+    void refreshToken_shouldReturnRotatedToken() {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setUsername("testuser");
+        RefreshTokenEntry entry = new RefreshTokenEntry(UUID.randomUUID(), "hash", user.getId(), "testuser",
+                "phone", Instant.now().plusSeconds(60));
+        when(refreshTokenService.findByToken("old-refresh-token")).thenReturn(Optional.of(entry));
+        when(refreshTokenService.verifyExpiration(entry)).thenReturn(entry);
+        when(userDetailsService.loadUserByUsername("testuser")).thenReturn(user);
+        when(refreshTokenService.rotateRefreshToken(entry)).thenReturn("new-refresh-token");
+        when(jwtService.generateAccessTokenForUser(user)).thenReturn("new-access-token");
+
+        TokenRefreshResponse response = authService.refreshToken(new TokenRefreshRequest("old-refresh-token"));
+
+        assertEquals("new-access-token", response.accessToken());
+        assertEquals("new-refresh-token", response.refreshToken());
     }
 }
@@ -1,29 +1,54 @@
 package com.example.bankcards.service.impl;
 
+import com.example.bankcards.config.datasource.ReadYourWritesRegistry;
+import com.example.bankcards.dto.CardSummary;
+import com.example.bankcards.dto.LockedCards;
+import com.example.bankcards.dto.TransferBalances;
 import com.example.bankcards.dto.request.TransferRequest;
+import com.example.bankcards.dto.response.CardResponse;
+import com.example.bankcards.dto.response.CursorPage;
+import com.example.bankcards.dto.response.TransactionHistoryResponse;
+import com.example.bankcards.dto.response.TransactionResponse;
 import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardTransaction;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.entity.enums.CardStatus;
+import com.example.bankcards.entity.enums.TransactionType;
 import com.example.bankcards.exception.InsufficientFundsException;
 import com.example.bankcards.exception.InvalidOperationException;
+import com.example.bankcards.exception.ResourceNotFoundException;
 import com.example.bankcards.exception.UnauthorizedOperationException;
+import com.example.bankcards.mapper.CardMapper;
+import com.example.bankcards.mapper.TransactionMapper;
 import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.CardTransactionRepository;
 import com.example.bankcards.service.query.CardQueryService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -35,10 +60,21 @@ public class CardServiceImplTest {
     private CardRepository cardRepository;
     @Mock
     private CardQueryService cardQueryService;
-    // CardMapper не нужен для теста transferBetweenMyCards, так как метод ничего не возвращает
+    @Mock
+    private CardMapper cardMapper;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private CardTransactionRepository cardTransactionRepository;
+    @Mock
+    private TransactionMapper transactionMapper;
+    @Mock
+    private IdempotencyStore idempotencyStore;
+    @Mock
+    private ReadYourWritesRegistry readYourWritesRegistry;
 
-    @InjectMocks
     private CardServiceImpl cardService;
+    private SimpleMeterRegistry meterRegistry;
 
     private Card fromCard;
     private Card toCard;
@@ -47,6 +83,14 @@ public class CardServiceImplTest {
     @BeforeEach
         // Этот метод будет выполняться перед каждым тестом
     void setUp() {
+        // Реальный TransferRetryExecutor без задержек между попытками
+        TransferRetryExecutor transferRetryExecutor = new TransferRetryExecutor(transactionManager, 3, 0);
+        TransferEngine transferEngine = new JpaTransferEngine(cardRepository, cardQueryService);
+        meterRegistry = new SimpleMeterRegistry();
+        cardService = new CardServiceImpl(cardRepository, cardMapper, cardQueryService, transferRetryExecutor, transferEngine,
+                cardTransactionRepository, transactionMapper, idempotencyStore, readYourWritesRegistry,
+                new TransferMetrics(meterRegistry, "jpa"));
+
         userId = UUID.randomUUID();
         // Тестовые данные, которые будем переиспользовать
         User testUser = new User();
@@ -72,8 +116,8 @@ public class CardServiceImplTest {
         TransferRequest request = new TransferRequest(fromCard.getId(), toCard.getId(), new BigDecimal("100.00"));
 
         // Настраиваем моки
-        when(cardQueryService.findActiveByIdWithLockOrThrow(fromCard.getId())).thenReturn(fromCard);
-        when(cardQueryService.findActiveByIdWithLockOrThrow(toCard.getId())).thenReturn(toCard);
+        when(cardQueryService.findActivePairWithLockOrThrow(fromCard.getId(), toCard.getId()))
+                .thenReturn(new LockedCards(fromCard, toCard));
 
         // Act
         cardService.transferBetweenMyCards(request, userId);
@@ -83,6 +127,9 @@ public class CardServiceImplTest {
         assertEquals(new BigDecimal("600.00"), toCard.getBalance());
 
         verify(cardRepository, times(1)).saveAll(anyList()); // Проверяем, что обе карты были сохранены
+        verify(cardTransactionRepository, times(1)).saveAll(anyList()); // И что в журнал записаны DEBIT и CREDIT
+        verify(readYourWritesRegistry).pin(userId); // Следующие чтения пользователя идут на primary
+        assertEquals(1, meterRegistry.get("transfer.duration").tag("outcome", "success").timer().count());
     }
 
     @Test
@@ -92,13 +139,16 @@ public class CardServiceImplTest {
         // Сумма перевода больше, чем баланс
         TransferRequest request = new TransferRequest(fromCard.getId(), toCard.getId(), new BigDecimal("2000.00"));
 
-        when(cardQueryService.findActiveByIdWithLockOrThrow(fromCard.getId())).thenReturn(fromCard);
-        when(cardQueryService.findActiveByIdWithLockOrThrow(toCard.getId())).thenReturn(toCard);
+        when(cardQueryService.findActivePairWithLockOrThrow(fromCard.getId(), toCard.getId()))
+                .thenReturn(new LockedCards(fromCard, toCard));
 
         // Act & Assert
         assertThrows(InsufficientFundsException.class, () -> cardService.transferBetweenMyCards(request, userId));
 
         verify(cardRepository, never()).save(any(Card.class));
+        verify(cardTransactionRepository, never()).saveAll(anyList());
+        assertEquals(1.0, meterRegistry.get("transfer.insufficient_funds").counter().count());
+        assertEquals(1, meterRegistry.get("transfer.duration").tag("outcome", "insufficient_funds").timer().count());
     }
 
     @Test
@@ -108,8 +158,8 @@ public class CardServiceImplTest {
         fromCard.setStatus(CardStatus.BLOCKED); // Блокируем карту
         TransferRequest request = new TransferRequest(fromCard.getId(), toCard.getId(), new BigDecimal("100.00"));
 
-        when(cardQueryService.findActiveByIdWithLockOrThrow(fromCard.getId())).thenReturn(fromCard);
-        when(cardQueryService.findActiveByIdWithLockOrThrow(toCard.getId())).thenReturn(toCard);
+        when(cardQueryService.findActivePairWithLockOrThrow(fromCard.getId(), toCard.getId()))
+                .thenReturn(new LockedCards(fromCard, toCard));
 
         // Act & Assert
         assertThrows(InvalidOperationException.class, () -> cardService.transferBetweenMyCards(request, userId));
@@ -125,11 +175,142 @@ public class CardServiceImplTest {
 
         TransferRequest request = new TransferRequest(fromCard.getId(), toCard.getId(), new BigDecimal("100.00"));
 
-        when(cardQueryService.findActiveByIdWithLockOrThrow(fromCard.getId())).thenReturn(fromCard);
-        when(cardQueryService.findActiveByIdWithLockOrThrow(toCard.getId())).thenReturn(toCard);
+        when(cardQueryService.findActivePairWithLockOrThrow(fromCard.getId(), toCard.getId()))
+                .thenReturn(new LockedCards(fromCard, toCard));
 
         // Act & Assert
         assertThrows(UnauthorizedOperationException.class, () -> cardService.transferBetweenMyCards(request, userId));
     }
 
+    @Test
+    @DisplayName("Transfer should be retried in a new transaction when the database reports a deadlock")
+    void transferBetweenMyCards_shouldRetry_whenDeadlockDetected() {
+        TransferRequest request = new TransferRequest(fromCard.getId(), toCard.getId(), new BigDecimal("100.00"));
+
+        when(cardQueryService.findActivePairWithLockOrThrow(fromCard.getId(), toCard.getId()))
+                .thenThrow(new CannotAcquireLockException("deadlock detected"))
+                .thenReturn(new LockedCards(fromCard, toCard));
+
+        cardService.transferBetweenMyCards(request, userId);
+
+        assertEquals(new BigDecimal("900.00"), fromCard.getBalance());
+        assertEquals(new BigDecimal("600.00"), toCard.getBalance());
+        verify(cardQueryService, times(2)).findActivePairWithLockOrThrow(fromCard.getId(), toCard.getId());
+        verify(transactionManager, times(1)).rollback(any());
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @Test
+    @DisplayName("Transfer with a known idempotency key should return the stored result without moving money")
+    void transferBetweenMyCards_shouldReturnStoredResponse_whenIdempotencyKeyReplayed() {
+        TransferRequest request = new TransferRequest(fromCard.getId(), toCard.getId(), new BigDecimal("100.00"));
+        TransactionResponse storedResponse = new TransactionResponse(new BigDecimal("900.00"), new BigDecimal("600.00"));
+
+        when(idempotencyStore.findStoredResponse(userId, "key-1", request)).thenReturn(Optional.of(storedResponse));
+
+        TransactionResponse response = cardService.transferBetweenMyCards(request, userId, "key-1");
+
+        assertEquals(storedResponse, response);
+        assertEquals(new BigDecimal("1000.00"), fromCard.getBalance());
+        verify(cardQueryService, never()).findActivePairWithLockOrThrow(any(), any());
+        verify(transactionManager, never()).getTransaction(any());
+    }
+
+    @Test
+    @DisplayName("Transfer with a new idempotency key should store its result in the same transaction")
+    void transferBetweenMyCards_shouldStoreResponse_whenIdempotencyKeyIsNew() {
+        TransferRequest request = new TransferRequest(fromCard.getId(), toCard.getId(), new BigDecimal("100.00"));
+        TransactionResponse mappedResponse = new TransactionResponse(new BigDecimal("900.00"), new BigDecimal("600.00"));
+
+        when(idempotencyStore.findStoredResponse(userId, "key-2", request)).thenReturn(Optional.empty());
+        when(cardQueryService.findActivePairWithLockOrThrow(fromCard.getId(), toCard.getId()))
+                .thenReturn(new LockedCards(fromCard, toCard));
+        when(cardMapper.toTransactionResponseDto(any(TransferBalances.class))).thenReturn(mappedResponse);
+
+        cardService.transferBetweenMyCards(request, userId, "key-2");
+
+        verify(idempotencyStore, times(1)).save(userId, "key-2", request, mappedResponse);
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @Test
+    @DisplayName("Card details should be read as a summary without loading the Card entity")
+    void findMyCardById_shouldUseSummaryProjection() {
+        CardSummary summary = new CardSummary(fromCard.getId(), userId, "4444", YearMonth.now().plusYears(1),
+                CardStatus.ACTIVE, new BigDecimal("1000.00"));
+        when(cardRepository.findSummaryByIdAndOwnerIdAndActiveTrue(fromCard.getId(), userId)).thenReturn(Optional.of(summary));
+
+        cardService.findMyCardById(fromCard.getId(), userId);
+
+        verify(cardMapper, times(1)).toCardResponse(summary);
+        verify(cardQueryService, never()).findActiveByIdAndOwnerOrThrow(any(), any());
+    }
+
+    @Test
+    @DisplayName("Transaction history should return a cursor when more entries exist")
+    void findMyCardTransactions_shouldReturnNextCursor_whenMoreEntriesExist() {
+        UUID cardId = fromCard.getId();
+        List<CardTransaction> entries = List.of(ledgerEntry(cardId), ledgerEntry(cardId), ledgerEntry(cardId));
+
+        when(cardRepository.existsByIdAndOwnerIdAndActiveTrue(cardId, userId)).thenReturn(true);
+        when(cardTransactionRepository.findLatestByCardId(cardId, 3)).thenReturn(entries);
+
+        CursorPage<TransactionHistoryResponse> page = cardService.findMyCardTransactions(cardId, userId, null, 2);
+
+        assertEquals(2, page.content().size());
+        assertTrue(page.hasNext());
+        assertNotNull(page.nextCursor());
+    }
+
+    @Test
+    @DisplayName("Transaction history should throw ResourceNotFoundException for a card the user does not own")
+    void findMyCardTransactions_shouldThrowResourceNotFoundException_whenCardNotOwned() {
+        UUID cardId = UUID.randomUUID();
+        when(cardRepository.existsByIdAndOwnerIdAndActiveTrue(cardId, userId)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> cardService.findMyCardTransactions(cardId, userId, null, 20));
+
+        verify(cardTransactionRepository, never()).findLatestByCardId(any(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Card scrolling should seek past the cursor of the previous page")
+    void findMyCards_shouldSeekPastCursor_whenCursorIsGiven() {
+        YearMonth expiration = YearMonth.now().plusYears(1);
+        List<CardSummary> firstRows = List.of(summary(expiration), summary(expiration), summary(expiration.plusMonths(1)));
+        when(cardRepository.findSummariesByOwnerIdAndActiveTrueAfter(eq(userId), any(), any(), any())).thenReturn(firstRows);
+
+        CursorPage<CardResponse> firstPage = cardService.findMyCards(userId, null, 2);
+
+        assertEquals(2, firstPage.content().size());
+        assertTrue(firstPage.hasNext());
+
+        cardService.findMyCards(userId, firstPage.nextCursor(), 2);
+
+        // Второй запрос начинается после последней карты первой страницы
+        verify(cardRepository).findSummariesByOwnerIdAndActiveTrueAfter(userId, expiration.atDay(1), firstRows.get(1).id(), PageRequest.of(0, 3));
+    }
+
+    @Test
+    @DisplayName("Card scrolling should reject a malformed cursor")
+    void findMyCards_shouldThrowInvalidOperationException_whenCursorIsMalformed() {
+        assertThrows(InvalidOperationException.class, () -> cardService.findMyCards(userId, "not-a-cursor", 20));
+    }
+
+    private CardSummary summary(YearMonth expirationDate) {
+        return new CardSummary(UUID.randomUUID(), userId, "4444", expirationDate, CardStatus.ACTIVE, BigDecimal.TEN);
+    }
+
+    private CardTransaction ledgerEntry(UUID cardId) {
+        return CardTransaction.builder()
+                .id(UUID.randomUUID())
+                .transferId(UUID.randomUUID())
+                .cardId(cardId)
+                .counterpartyCardId(UUID.randomUUID())
+                .type(TransactionType.DEBIT)
+                .amount(new BigDecimal("1.00"))
+                .balanceAfter(new BigDecimal("10.00"))
+                .createdAt(Instant.now())
+                .build();
+    }
 }
@@ -0,0 +1,82 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.dto.request.TransferRequest;
+import com.example.bankcards.dto.response.TransactionResponse;
+import com.example.bankcards.entity.IdempotencyRecord;
+import com.example.bankcards.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyStoreTest {
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private IdempotencyStore idempotencyStore;
+    private UUID userId;
+    private TransferRequest request;
+    private TransactionResponse response;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyStore = new IdempotencyStore(idempotencyRecordRepository, objectMapper, 100, 60_000L);
+        userId = UUID.randomUUID();
+        request = new TransferRequest(UUID.randomUUID(), UUID.randomUUID(), new BigDecimal("10.00"));
+        response = new TransactionResponse(new BigDecimal("90.00"), new BigDecimal("110.00"));
+    }
+
+    @Test
+    @DisplayName("An expired record that was not purged yet should be deleted before the key is stored again")
+    void save_shouldDeleteExpiredRecord_whenKeyIsReusedBeforePurge() throws Exception {
+        // Запись с истёкшим сроком ещё лежит в таблице: поиск её не видит, перевод выполняется заново
+        IdempotencyRecord expired = new IdempotencyRecord();
+        expired.setUserId(userId);
+        expired.setIdempotencyKey("key-1");
+        expired.setRequestHash("old-hash");
+        expired.setResponseBody(objectMapper.writeValueAsString(response));
+        expired.setCreatedAt(Instant.now().minusSeconds(120));
+        expired.setExpiresAt(Instant.now().minusSeconds(60));
+        when(idempotencyRecordRepository.findByUserIdAndIdempotencyKey(userId, "key-1"))
+                .thenReturn(Optional.of(expired));
+
+        assertFalse(idempotencyStore.findStoredResponse(userId, "key-1", request).isPresent());
+
+        idempotencyStore.save(userId, "key-1", request, response);
+
+        InOrder order = inOrder(idempotencyRecordRepository);
+        order.verify(idempotencyRecordRepository).deleteExpired(eq(userId), eq("key-1"), any(Instant.class));
+        ArgumentCaptor<IdempotencyRecord> saved = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        order.verify(idempotencyRecordRepository).saveAndFlush(saved.capture());
+        assertEquals("key-1", saved.getValue().getIdempotencyKey());
+        assertTrue(saved.getValue().getExpiresAt().isAfter(Instant.now()));
+    }
+
+    @Test
+    @DisplayName("A stored response should be returned from the cache after save")
+    void findStoredResponse_shouldReturnSavedResponse() {
+        idempotencyStore.save(userId, "key-2", request, response);
+
+        assertEquals(Optional.of(response), idempotencyStore.findStoredResponse(userId, "key-2", request));
+    }
+}
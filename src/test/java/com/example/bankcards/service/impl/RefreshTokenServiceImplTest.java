@@ -0,0 +1,129 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.dto.RefreshTokenEntry;
+import com.example.bankcards.exception.TokenRefreshException;
+import com.example.bankcards.repository.RefreshTokenRepository;
+import com.example.bankcards.util.encryption.HashUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceImplTest {
+    private static final String TOKEN = "3f1c2a5e-7b7d-4c2e-9d8a-0a1b2c3d4e5f";
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    private RefreshTokenServiceImpl refreshTokenService;
+    private RefreshTokenEntry entry;
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenService = new RefreshTokenServiceImpl(refreshTokenRepository, 100, 60_000);
+        ReflectionTestUtils.setField(refreshTokenService, "refreshTokenDurationMs", 60_000L);
+        userId = UUID.randomUUID();
+        entry = new RefreshTokenEntry(UUID.randomUUID(), HashUtil.sha256(TOKEN), userId, "user", "phone",
+                Instant.now().plusSeconds(60));
+    }
+
+    @Test
+    @DisplayName("createRefreshToken should upsert the device session with the digest of the issued token")
+    void createRefreshToken_shouldUpsertSessionWithDigest() {
+        String token = refreshTokenService.createRefreshToken(userId, "phone");
+
+        ArgumentCaptor<String> tokenHash = ArgumentCaptor.forClass(String.class);
+        verify(refreshTokenRepository).upsertSession(eq(userId), eq("phone"), tokenHash.capture(), any(Instant.class));
+        assertEquals(HashUtil.sha256(token), tokenHash.getValue());
+        assertNotEquals(token, tokenHash.getValue());
+        // Вход больше не удаляет сессии других устройств
+        verify(refreshTokenRepository, never()).deleteByUserId(any());
+    }
+
+    @Test
+    @DisplayName("Repeated lookups of the same token should query the database once")
+    void findByToken_shouldServeRepeatedLookupsFromCache() {
+        when(refreshTokenRepository.findEntryByTokenHash(HashUtil.sha256(TOKEN))).thenReturn(Optional.of(entry));
+
+        assertEquals(entry, refreshTokenService.findByToken(TOKEN).orElseThrow());
+        assertEquals(entry, refreshTokenService.findByToken(TOKEN).orElseThrow());
+
+        verify(refreshTokenRepository, times(1)).findEntryByTokenHash(HashUtil.sha256(TOKEN));
+    }
+
+    @Test
+    @DisplayName("The rotated token should be served from the cache and the old one should be evicted")
+    void rotateRefreshToken_shouldWriteThroughNewToken() {
+        when(refreshTokenRepository.rotateTokenHash(eq(entry.tokenHash()), anyString())).thenReturn(1);
+
+        String newToken = refreshTokenService.rotateRefreshToken(entry);
+
+        RefreshTokenEntry rotated = refreshTokenService.findByToken(newToken).orElseThrow();
+        assertEquals(HashUtil.sha256(newToken), rotated.tokenHash());
+        assertEquals(entry.tokenId(), rotated.tokenId());
+        verify(refreshTokenRepository, never()).findEntryByTokenHash(HashUtil.sha256(newToken));
+    }
+
+    @Test
+    @DisplayName("Presenting an already rotated token should revoke its session")
+    void findByToken_shouldRevokeSession_whenTokenIsReused() {
+        when(refreshTokenRepository.findEntryByTokenHash(HashUtil.sha256(TOKEN))).thenReturn(Optional.empty());
+        when(refreshTokenRepository.deleteByPreviousTokenHash(HashUtil.sha256(TOKEN))).thenReturn(1);
+
+        assertThrows(TokenRefreshException.class, () -> refreshTokenService.findByToken(TOKEN));
+    }
+
+    @Test
+    @DisplayName("A token rotated concurrently should be rejected")
+    void rotateRefreshToken_shouldReject_whenTokenWasAlreadyRotated() {
+        when(refreshTokenRepository.rotateTokenHash(eq(entry.tokenHash()), anyString())).thenReturn(0);
+        when(refreshTokenRepository.deleteByPreviousTokenHash(entry.tokenHash())).thenReturn(1);
+
+        assertThrows(TokenRefreshException.class, () -> refreshTokenService.rotateRefreshToken(entry));
+    }
+
+    @Test
+    @DisplayName("Deleting the user's sessions should evict them from the cache")
+    void deleteByUserId_shouldEvictCachedTokens() {
+        when(refreshTokenRepository.findEntryByTokenHash(HashUtil.sha256(TOKEN)))
+                .thenReturn(Optional.of(entry))
+                .thenReturn(Optional.empty());
+        refreshTokenService.findByToken(TOKEN);
+
+        refreshTokenService.deleteByUserId(userId);
+
+        assertTrue(refreshTokenService.findByToken(TOKEN).isEmpty());
+    }
+
+    @Test
+    @DisplayName("An expired token should be deleted and rejected")
+    void verifyExpiration_shouldDeleteExpiredToken() {
+        RefreshTokenEntry expired = new RefreshTokenEntry(entry.tokenId(), entry.tokenHash(), userId, "user", "phone",
+                Instant.now().minusSeconds(1));
+
+        assertThrows(TokenRefreshException.class, () -> refreshTokenService.verifyExpiration(expired));
+        verify(refreshTokenRepository).deleteById(expired.tokenId());
+    }
+}
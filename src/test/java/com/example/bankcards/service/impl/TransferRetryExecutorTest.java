@@ -0,0 +1,76 @@
+package com.example.bankcards.service.impl;
+
+import com.example.bankcards.exception.InsufficientFundsException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit tests for the TransferRetryExecutor class.
+ */
+@ExtendWith(MockitoExtension.class)
+public class TransferRetryExecutorTest {
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TransferRetryExecutor transferRetryExecutor;
+
+    @BeforeEach
+    void setUp() {
+        transferRetryExecutor = new TransferRetryExecutor(transactionManager, 3, 0);
+    }
+
+    @Test
+    @DisplayName("execute should retry after a serialization failure and return the result of the successful attempt")
+    void execute_shouldRetry_whenSerializationFails() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = transferRetryExecutor.execute(() -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new PessimisticLockingFailureException("could not serialize access");
+            }
+            return "done";
+        });
+
+        assertEquals("done", result);
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    @DisplayName("execute should give up after the configured number of attempts")
+    void execute_shouldRethrow_whenAttemptsExhausted() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(CannotAcquireLockException.class, () -> transferRetryExecutor.execute(() -> {
+            attempts.incrementAndGet();
+            throw new CannotAcquireLockException("deadlock detected");
+        }));
+
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    @DisplayName("execute should not retry business exceptions")
+    void execute_shouldNotRetry_whenBusinessRuleViolated() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(InsufficientFundsException.class, () -> transferRetryExecutor.execute(() -> {
+            attempts.incrementAndGet();
+            throw new InsufficientFundsException(BigDecimal.ONE, BigDecimal.TEN);
+        }));
+
+        assertEquals(1, attempts.get());
+    }
+}
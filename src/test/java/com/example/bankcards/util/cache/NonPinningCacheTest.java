@@ -0,0 +1,63 @@
+package com.example.bankcards.util.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class NonPinningCacheTest {
+    private final NonPinningCache<String, String> cache = new NonPinningCache<>(Caffeine.newBuilder().maximumSize(10));
+
+    @Test
+    @DisplayName("A loaded value should be cached and returned without loading again")
+    void get_shouldLoadOnce() {
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("v", cache.get("k", key -> {
+            loads.incrementAndGet();
+            return "v";
+        }));
+        assertEquals("v", cache.get("k", key -> "other"));
+
+        assertEquals(1, loads.get());
+        assertEquals("v", cache.asMap().get("k"));
+    }
+
+    @Test
+    @DisplayName("A null result should be returned but not cached")
+    void get_shouldNotCacheNull() {
+        assertNull(cache.get("k", key -> null));
+
+        assertEquals("v", cache.get("k", key -> "v"));
+    }
+
+    @Test
+    @DisplayName("An invalidation during the load should keep the loaded value out of the cache")
+    void get_shouldNotCacheValue_whenInvalidatedDuringLoad() {
+        String value = cache.get("k", key -> {
+            // Событие об изменении пользователя пришло, пока шёл запрос в БД
+            cache.invalidate(key);
+            return "stale";
+        });
+
+        assertEquals("stale", value);
+        assertNull(cache.asMap().get("k"));
+    }
+
+    @Test
+    @DisplayName("A failed load should rethrow the loader exception and allow a retry")
+    void get_shouldRethrowLoaderException() {
+        IllegalStateException failure = new IllegalStateException("db down");
+
+        assertSame(failure, assertThrows(IllegalStateException.class, () -> cache.get("k", key -> {
+            throw failure;
+        })));
+        assertEquals("v", cache.get("k", key -> "v"));
+    }
+}
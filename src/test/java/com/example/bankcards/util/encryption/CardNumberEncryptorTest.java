@@ -0,0 +1,109 @@
+package com.example.bankcards.util.encryption;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CardNumberEncryptorTest {
+    private static final String KEY = "1234567890123456";
+
+    private final CardNumberEncryptor encryptor = new CardNumberEncryptor(KEY);
+
+    @Test
+    @DisplayName("Encrypted card number should decrypt back and use a fresh IV every time")
+    void encryptThenDecrypt_shouldRoundTrip() {
+        String first = encryptor.convertToDatabaseColumn("4111111111111111");
+        String second = encryptor.convertToDatabaseColumn("4111111111111111");
+
+        assertNotEquals(first, second);
+        assertEquals("4111111111111111", encryptor.convertToEntityAttribute(first));
+        assertEquals("4111111111111111", encryptor.convertToEntityAttribute(second));
+    }
+
+    @Test
+    @DisplayName("Values stored in the IV || ciphertext format should still be readable")
+    void decrypt_shouldReadExistingStoredFormat() throws Exception {
+        // Шифруем "вручную" в исходном формате: Base64(IV || ciphertext)
+        byte[] iv = new byte[16];
+        Cipher cipher = Cipher.getInstance("AES/CBC/PKCS5Padding");
+        cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(KEY.getBytes(StandardCharsets.UTF_8), "AES"), new IvParameterSpec(iv));
+        byte[] encrypted = cipher.doFinal("5500000000000004".getBytes(StandardCharsets.UTF_8));
+        byte[] stored = new byte[iv.length + encrypted.length];
+        System.arraycopy(encrypted, 0, stored, iv.length, encrypted.length);
+
+        assertEquals("5500000000000004", encryptor.convertToEntityAttribute(Base64.getEncoder().encodeToString(stored)));
+    }
+
+    @Test
+    @DisplayName("With an active key version new values should be written as versioned AES-GCM")
+    void encrypt_shouldUseActiveKeyVersion_whenConfigured() {
+        CardNumberEncryptor rotated = new CardNumberEncryptor(new EncryptionKeyRing(
+                new EncryptionProperties(KEY, 2, Map.of(1, "abcdefghijklmnop", 2, "0123456789abcdef0123456789abcdef"))));
+
+        String stored = rotated.convertToDatabaseColumn("4111111111111111");
+
+        assertTrue(stored.startsWith("v2:"));
+        assertFalse(rotated.needsReEncryption(stored));
+        assertEquals("4111111111111111", rotated.convertToEntityAttribute(stored));
+    }
+
+    @Test
+    @DisplayName("Values written with the legacy key or an older version should stay readable and be marked for re-encryption")
+    void reEncrypt_shouldMoveOldValuesToActiveKey() {
+        String legacy = encryptor.convertToDatabaseColumn("4111111111111111");
+        String versionOne = new CardNumberEncryptor(new EncryptionKeyRing(
+                new EncryptionProperties(KEY, 1, Map.of(1, "abcdefghijklmnop")))).convertToDatabaseColumn("5500000000000004");
+        CardNumberEncryptor rotated = new CardNumberEncryptor(new EncryptionKeyRing(
+                new EncryptionProperties(KEY, 2, Map.of(1, "abcdefghijklmnop", 2, "0123456789abcdef0123456789abcdef"))));
+
+        assertTrue(rotated.needsReEncryption(legacy));
+        assertTrue(rotated.needsReEncryption(versionOne));
+        assertEquals("4111111111111111", rotated.convertToEntityAttribute(rotated.reEncrypt(legacy)));
+        assertEquals("5500000000000004", rotated.convertToEntityAttribute(rotated.reEncrypt(versionOne)));
+        assertTrue(rotated.reEncrypt(versionOne).startsWith("v2:"));
+    }
+
+    @Test
+    @DisplayName("Tampered AES-GCM ciphertext should be rejected")
+    void decrypt_shouldRejectTamperedGcmValue() {
+        CardNumberEncryptor rotated = new CardNumberEncryptor(new EncryptionKeyRing(
+                new EncryptionProperties(KEY, 1, Map.of(1, "abcdefghijklmnop"))));
+        byte[] payload = Base64.getDecoder().decode(rotated.convertToDatabaseColumn("4111111111111111").substring(3));
+        payload[payload.length - 1] ^= 1;
+
+        assertThrows(IllegalStateException.class,
+                () -> rotated.convertToEntityAttribute("v1:" + Base64.getEncoder().encodeToString(payload)));
+    }
+
+    @Test
+    @DisplayName("Pooled ciphers should be safe to use from many threads at once")
+    void encryptAndDecrypt_shouldBeThreadSafe() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Future<String>> results = IntStream.range(0, 500)
+                .mapToObj(i -> String.format("4000%012d", i))
+                .map(number -> executor.submit(() -> encryptor.convertToEntityAttribute(encryptor.convertToDatabaseColumn(number))))
+                .toList();
+
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(String.format("4000%012d", i), results.get(i).get());
+        }
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.bankcards.util.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EventSamplingTurboFilterTest {
+
+    private final Logger logger = new LoggerContext().getLogger(EventSamplingTurboFilterTest.class);
+    private EventSamplingTurboFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new EventSamplingTurboFilter();
+        filter.addEvent("FIND_MY_CARDS");
+        filter.setSampleEvery(10);
+    }
+
+    @Test
+    @DisplayName("Only every N-th INFO event of a sampled event name should pass")
+    void decide_shouldKeepEveryNthEvent() {
+        long passed = IntStream.range(0, 100)
+                .mapToObj(i -> decide(Level.INFO, "FIND_MY_CARDS: [userId={}]."))
+                .filter(reply -> reply == FilterReply.NEUTRAL)
+                .count();
+
+        assertEquals(10, passed);
+    }
+
+    @Test
+    @DisplayName("A key-value event whose message is the bare event name should be sampled as well")
+    void decide_shouldSampleBareEventName() {
+        long passed = IntStream.range(0, 100)
+                .mapToObj(i -> decide(Level.INFO, "FIND_MY_CARDS"))
+                .filter(reply -> reply == FilterReply.NEUTRAL)
+                .count();
+
+        assertEquals(10, passed);
+    }
+
+    @Test
+    @DisplayName("Other events, events with a longer name and warnings should never be sampled")
+    void decide_shouldNotSampleOtherEventsOrWarnings() {
+        for (int i = 0; i < 20; i++) {
+            assertEquals(FilterReply.NEUTRAL, decide(Level.INFO, "TRANSFER_START: [userId={}]."));
+            assertEquals(FilterReply.NEUTRAL, decide(Level.INFO, "FIND_MY_CARDS_BY_CURSOR: [userId={}]."));
+            assertEquals(FilterReply.NEUTRAL, decide(Level.WARN, "FIND_MY_CARDS: [userId={}]."));
+        }
+    }
+
+    private FilterReply decide(Level level, String format) {
+        return filter.decide(null, logger, level, format, null, null);
+    }
+}